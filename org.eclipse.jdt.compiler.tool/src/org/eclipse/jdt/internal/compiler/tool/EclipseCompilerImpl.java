@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2011 IBM Corporation and others.
+ * Copyright (c) 2007, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -391,7 +391,10 @@ public class EclipseCompilerImpl extends Main {
 					relativeStringName);
 				this.exportedClassFilesCounter++;
 			}
-			this.batchCompiler.lookupEnvironment.releaseClassFiles(classFiles);
+		}
+		if (unitResult != null) {
+			// give the class files back to the pool even if they were not written out (errors)
+			this.batchCompiler.lookupEnvironment.releaseClassFiles(unitResult.getClassFiles());
 		}
 	}
 
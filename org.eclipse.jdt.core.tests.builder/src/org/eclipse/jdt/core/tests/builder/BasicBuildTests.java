@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -569,4 +569,91 @@ public class BasicBuildTests extends BuilderTests {
 			org.eclipse.jdt.internal.core.builder.AbstractImageBuilder.MAX_AT_ONCE = save;
 		}
 	}
+
+	// the initial units of each group of a full build are diet parsed on parallel threads,
+	// their problems must be reported against their own source file
+	public void testParallelParseAcrossGroups() throws JavaModelException {
+		int save = org.eclipse.jdt.internal.core.builder.AbstractImageBuilder.MAX_AT_ONCE;
+		try {
+			IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+			env.addExternalJars(projectPath, Util.getJavaClassLibs());
+
+			// remove old package fragment root so that names don't collide
+			env.removePackageFragmentRoot(projectPath, ""); //$NON-NLS-1$
+
+			IPath root = env.addPackageFragmentRoot(projectPath, "src"); //$NON-NLS-1$
+			env.setOutputFolder(projectPath, "bin"); //$NON-NLS-1$
+
+			int unitCount = 30;
+			IPath brokenUnit = null;
+			for (int i = 0; i < unitCount; i++) {
+				IPath unit = env.addClass(root, "p", "X" + i, //$NON-NLS-1$ //$NON-NLS-2$
+					"package p;\n" + //$NON-NLS-1$
+					"public class X" + i + " {\n" + //$NON-NLS-1$ //$NON-NLS-2$
+					"	X" + ((i + 1) % unitCount) + " next;\n" + //$NON-NLS-1$ //$NON-NLS-2$
+					(i == 20 ? "	int i = ;\n" : "") + //$NON-NLS-1$ //$NON-NLS-2$
+					"}\n" //$NON-NLS-1$
+					);
+				if (i == 20)
+					brokenUnit = unit;
+			}
+
+			// more than one group, each large enough to be parsed on parallel threads
+			org.eclipse.jdt.internal.core.builder.AbstractImageBuilder.MAX_AT_ONCE = 12;
+
+			fullBuild(projectPath);
+			expectingOnlyProblemsFor(brokenUnit);
+
+			env.addClass(root, "p", "X20", //$NON-NLS-1$ //$NON-NLS-2$
+				"package p;\n" + //$NON-NLS-1$
+				"public class X20 {\n" + //$NON-NLS-1$
+				"	X21 next;\n" + //$NON-NLS-1$
+				"}\n" //$NON-NLS-1$
+				);
+			fullBuild(projectPath);
+			expectingNoProblems();
+		} finally {
+			org.eclipse.jdt.internal.core.builder.AbstractImageBuilder.MAX_AT_ONCE = save;
+		}
+	}
+
+	// a source file which cannot be read while it is parsed on a parallel thread aborts the build
+	// as it does when it is parsed on the build thread
+	public void testParallelParseMissingSourceFile() throws JavaModelException {
+		int save = org.eclipse.jdt.internal.core.builder.AbstractImageBuilder.MAX_AT_ONCE;
+		try {
+			IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+			env.addExternalJars(projectPath, Util.getJavaClassLibs());
+
+			// remove old package fragment root so that names don't collide
+			env.removePackageFragmentRoot(projectPath, ""); //$NON-NLS-1$
+
+			IPath root = env.addPackageFragmentRoot(projectPath, "src"); //$NON-NLS-1$
+			env.setOutputFolder(projectPath, "bin"); //$NON-NLS-1$
+
+			int unitCount = 30;
+			IPath missingUnit = null;
+			for (int i = 0; i < unitCount; i++) {
+				IPath unit = env.addClass(root, "p", "X" + i, //$NON-NLS-1$ //$NON-NLS-2$
+					"package p;\n" + //$NON-NLS-1$
+					"public class X" + i + " {\n" + //$NON-NLS-1$ //$NON-NLS-2$
+					"}\n" //$NON-NLS-1$
+					);
+				if (i == 15)
+					missingUnit = unit;
+			}
+			// delete the file behind the back of the workspace, so that it is still part of the build
+			assertTrue("Could not delete " + missingUnit, //$NON-NLS-1$
+				env.getWorkspace().getRoot().getFile(missingUnit).getLocation().toFile().delete());
+
+			org.eclipse.jdt.internal.core.builder.AbstractImageBuilder.MAX_AT_ONCE = 12;
+
+			fullBuild(projectPath);
+			expectingSpecificProblemFor(
+				projectPath,
+				new Problem("", "The project was not built since the source file " + missingUnit + " could not be read", projectPath, -1, -1, -1, IMarker.SEVERITY_ERROR)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} finally {
+			org.eclipse.jdt.internal.core.builder.AbstractImageBuilder.MAX_AT_ONCE = save;
+		}
+	}
 }
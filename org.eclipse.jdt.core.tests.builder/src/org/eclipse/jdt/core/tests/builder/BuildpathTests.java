@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -523,6 +523,133 @@ public void testExternalJarChange() throws JavaModelException, IOException {
 
 }
 
+/*
+ * Ensures that an external jar shared by the projects built during a build iteration is
+ * reopened once it has changed
+ */
+public void testExternalJarChangeSharedByProjects() throws JavaModelException, IOException {
+	String externalJar = Util.getOutputDirectory() + File.separator + "shared.jar"; //$NON-NLS-1$
+	Util.createJar(
+		new String[] {
+			"q/Y.java", //$NON-NLS-1$
+			"package q;\n" + //$NON-NLS-1$
+			"public class Y {\n" + //$NON-NLS-1$
+			"}" //$NON-NLS-1$
+		},
+		new HashMap(),
+		externalJar
+	);
+	IPath project1Path = env.addProject("P1"); //$NON-NLS-1$
+	env.addExternalJars(project1Path, Util.getJavaClassLibs());
+	env.addExternalJar(project1Path, externalJar);
+	IPath classTest1 = env.addClass(project1Path, "p1", "X1", //$NON-NLS-1$ //$NON-NLS-2$
+		"package p1;\n"+ //$NON-NLS-1$
+		"public class X1 {\n" + //$NON-NLS-1$
+		"  void foo() {\n" + //$NON-NLS-1$
+		"    new q.Y().bar();\n" + //$NON-NLS-1$
+		"  }\n" + //$NON-NLS-1$
+		"}" //$NON-NLS-1$
+	);
+	IPath project2Path = env.addProject("P2"); //$NON-NLS-1$
+	env.addExternalJars(project2Path, Util.getJavaClassLibs());
+	env.addExternalJar(project2Path, externalJar);
+	IPath classTest2 = env.addClass(project2Path, "p2", "X2", //$NON-NLS-1$ //$NON-NLS-2$
+		"package p2;\n"+ //$NON-NLS-1$
+		"public class X2 {\n" + //$NON-NLS-1$
+		"  void foo() {\n" + //$NON-NLS-1$
+		"    new q.Y().bar();\n" + //$NON-NLS-1$
+		"  }\n" + //$NON-NLS-1$
+		"}" //$NON-NLS-1$
+	);
+
+	// build -> expecting problems in both projects
+	fullBuild();
+	expectingProblemsFor(
+		new IPath[] {classTest1, classTest2},
+		"Problem : The method bar() is undefined for the type Y [ resource : </P1/p1/X1.java> range : <59,62> category : <50> severity : <2>]\n" +
+		"Problem : The method bar() is undefined for the type Y [ resource : </P2/p2/X2.java> range : <59,62> category : <50> severity : <2>]"
+	);
+
+	// fix jar
+	Util.createJar(
+		new String[] {
+			"q/Y.java", //$NON-NLS-1$
+			"package q;\n" + //$NON-NLS-1$
+			"public class Y {\n" + //$NON-NLS-1$
+			"  public void bar() {\n" + //$NON-NLS-1$
+			"  }\n" + //$NON-NLS-1$
+			"}" //$NON-NLS-1$
+		},
+		new HashMap(),
+		externalJar
+	);
+
+	// refresh projects and rebuild -> expecting no problems
+	IJavaProject project1 = env.getJavaProject(project1Path);
+	IJavaProject project2 = env.getJavaProject(project2Path);
+	project1.getJavaModel().refreshExternalArchives(new IJavaElement[] {project1, project2}, null);
+	incrementalBuild();
+	expectingNoProblems();
+}
+
+/*
+ * Ensures that the class files of an external jar read by a previous build are read again
+ * once the jar has been rewritten, even if its time stamp did not change
+ */
+public void testExternalJarRewrittenWithSameTimeStamp() throws JavaModelException, IOException {
+	String externalJar = Util.getOutputDirectory() + File.separator + "rewritten.jar"; //$NON-NLS-1$
+	Util.createJar(
+		new String[] {
+			"q/Y.java", //$NON-NLS-1$
+			"package q;\n" + //$NON-NLS-1$
+			"public class Y {\n" + //$NON-NLS-1$
+			"}" //$NON-NLS-1$
+		},
+		new HashMap(),
+		externalJar
+	);
+	IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+	env.addExternalJars(projectPath, Util.getJavaClassLibs());
+	env.addExternalJar(projectPath, externalJar);
+	IPath root = env.getPackageFragmentRootPath(projectPath, ""); //$NON-NLS-1$
+	IPath classTest = env.addClass(root, "p", "X", //$NON-NLS-1$ //$NON-NLS-2$
+		"package p;\n"+ //$NON-NLS-1$
+		"public class X {\n" + //$NON-NLS-1$
+		"  void foo() {\n" + //$NON-NLS-1$
+		"    new q.Y().bar();\n" + //$NON-NLS-1$
+		"  }\n" + //$NON-NLS-1$
+		"}" //$NON-NLS-1$
+	);
+
+	// build -> expecting problems
+	fullBuild();
+	expectingProblemsFor(
+		classTest,
+		"Problem : The method bar() is undefined for the type Y [ resource : </Project/p/X.java> range : <57,60> category : <50> severity : <2>]"
+	);
+
+	// rewrite jar within the time stamp granularity of the file system
+	File jarFile = new File(externalJar);
+	long lastModified = jarFile.lastModified();
+	Util.createJar(
+		new String[] {
+			"q/Y.java", //$NON-NLS-1$
+			"package q;\n" + //$NON-NLS-1$
+			"public class Y {\n" + //$NON-NLS-1$
+			"  public void bar() {\n" + //$NON-NLS-1$
+			"  }\n" + //$NON-NLS-1$
+			"}" //$NON-NLS-1$
+		},
+		new HashMap(),
+		externalJar
+	);
+	assertTrue("Could not restore the time stamp of the jar", jarFile.setLastModified(lastModified));
+
+	// rebuild -> expecting the new shape of Y
+	fullBuild();
+	expectingNoProblems();
+}
+
 public void testMissingBuilder() throws JavaModelException {
 	IPath project1Path = env.addProject("P1"); //$NON-NLS-1$
 	env.addExternalJars(project1Path, Util.getJavaClassLibs());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,10 +24,12 @@ import junit.framework.Test;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.IClasspathAttribute;
+import org.eclipse.jdt.core.IJavaModelMarker;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IRegion;
 import org.eclipse.jdt.core.JavaCore;
@@ -641,4 +643,55 @@ public void test0112() throws JavaModelException {
 
 	JavaCore.setOptions(options);
 }
+
+// markers of problems which are still reported after an incremental build are kept
+public void testUnchangedProblemMarkersKept() throws CoreException {
+	IPath projectPath = env.addProject("P");
+	env.addExternalJars(projectPath, Util.getJavaClassLibs());
+	IPath root = env.getPackageFragmentRootPath(projectPath, "");
+	IPath classX = env.addClass(root, "p", "X",
+			"package p;\n" +
+			"public class X {\n" +
+			"	public void bar() {\n" +
+			"		a++;\n" +
+			"	}\n" +
+			"}");
+
+	fullBuild(projectPath);
+	expectingOnlySpecificProblemFor(classX, new Problem("p", "a cannot be resolved to a variable", classX, 51, 52, CategorizedProblem.CAT_MEMBER, IMarker.SEVERITY_ERROR));
+	IFile fileX = ResourcesPlugin.getWorkspace().getRoot().getFile(classX);
+	IMarker[] markers = fileX.findMarkers(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, false, IResource.DEPTH_ZERO);
+	assertEquals("Unexpected markers", 1, markers.length);
+	long markerId = markers[0].getId();
+
+	env.addClass(root, "p", "X",
+			"package p;\n" +
+			"public class X {\n" +
+			"	public void bar() {\n" +
+			"		a++;\n" +
+			"	}\n" +
+			"	public void baz() {\n" +
+			"		b++;\n" +
+			"	}\n" +
+			"}");
+	incrementalBuild(projectPath);
+	expectingOnlySpecificProblemsFor(classX, new Problem[] {
+		new Problem("p", "a cannot be resolved to a variable", classX, 51, 52, CategorizedProblem.CAT_MEMBER, IMarker.SEVERITY_ERROR),
+		new Problem("p", "b cannot be resolved to a variable", classX, 82, 83, CategorizedProblem.CAT_MEMBER, IMarker.SEVERITY_ERROR)
+	});
+	assertTrue("Marker should have been kept", fileX.findMarker(markerId) != null);
+
+	env.addClass(root, "p", "X",
+			"package p;\n" +
+			"public class X {\n" +
+			"	public void bar() {\n" +
+			"		a++;\n" +
+			"	}\n" +
+			"}");
+	incrementalBuild(projectPath);
+	expectingOnlySpecificProblemFor(classX, new Problem("p", "a cannot be resolved to a variable", classX, 51, 52, CategorizedProblem.CAT_MEMBER, IMarker.SEVERITY_ERROR));
+	markers = fileX.findMarkers(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, false, IResource.DEPTH_ZERO);
+	assertEquals("Unexpected markers", 1, markers.length);
+	assertEquals("Marker should have been kept", markerId, markers[0].getId());
+}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,6 +22,8 @@ import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.parser.ParserCache;
+import org.eclipse.jdt.internal.compiler.parser.RecoveryStatistics;
 import org.eclipse.jdt.internal.compiler.problem.DefaultProblem;
 import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
 import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
@@ -521,4 +523,71 @@ public void test15() {
 		expectedSyntaxErrorDiagnosis,
 		testName);
 }
+/*
+ * Once the recovery budget of a unit is exhausted, only the syntax errors already found are reported
+ */
+public void test16() {
+	String s =
+		"public class X {\n" +
+		"  void foo() {\n" +
+		"    int i = ;\n" +
+		"    int j = ;\n" +
+		"    int k = ;\n" +
+		"  }\n" +
+		"}\n";
+	ProblemReporter reporter = new ProblemReporter(
+		DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+		new CompilerOptions(getCompilerOptions()),
+		new DefaultProblemFactory(Locale.getDefault()));
+	ICompilationUnit sourceUnit = new CompilationUnit(s.toCharArray(), "<test>", null);
+
+	Parser parser = new Parser(reporter, optimizeStringLiterals);
+	CompilationResult compilationResult = new CompilationResult(sourceUnit, 0, 0, 0);
+	parser.parse(sourceUnit, compilationResult);
+	assertEquals("Unexpected problem count without budget", 3, compilationResult.problemCount);
+
+	long exhausted = RecoveryStatistics.getCount(RecoveryStatistics.EXHAUSTED_BUDGETS);
+	parser = new Parser(reporter, optimizeStringLiterals);
+	parser.setRecoveryBudget(0);
+	compilationResult = new CompilationResult(sourceUnit, 0, 0, 0);
+	parser.parse(sourceUnit, compilationResult);
+	assertEquals("Unexpected problem count with an exhausted budget", 1, compilationResult.problemCount);
+	assertTrue("Exhausted budget not recorded", RecoveryStatistics.getCount(RecoveryStatistics.EXHAUSTED_BUDGETS) > exhausted);
+}
+/*
+ * A released parser is answered again by the parser cache, and parses like a new one
+ */
+public void test17() {
+	String s =
+		"public class X {\n" +
+		"  void foo() {\n" +
+		"    int i = ;\n" +
+		"  }\n" +
+		"}\n";
+	ProblemReporter reporter = new ProblemReporter(
+		DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+		new CompilerOptions(getCompilerOptions()),
+		new DefaultProblemFactory(Locale.getDefault()));
+	ICompilationUnit sourceUnit = new CompilationUnit(s.toCharArray(), "<test>", null);
+
+	Parser parser = new Parser(reporter, optimizeStringLiterals);
+	CompilationResult compilationResult = new CompilationResult(sourceUnit, 0, 0, 0);
+	parser.parse(sourceUnit, compilationResult);
+	int problemCount = compilationResult.problemCount;
+	ParserCache.release(parser);
+
+	assertNull("Unexpected parser of another class", ParserCache.acquire(SourceParserForTest.class, reporter, optimizeStringLiterals));
+	Parser cachedParser = ParserCache.acquire(Parser.class, reporter, optimizeStringLiterals);
+	assertSame("Unexpected parser", parser, cachedParser);
+	assertNull("Parser should be acquired only once", ParserCache.acquire(Parser.class, reporter, optimizeStringLiterals));
+
+	compilationResult = new CompilationResult(sourceUnit, 0, 0, 0);
+	cachedParser.parse(sourceUnit, compilationResult);
+	assertEquals("Unexpected problem count", problemCount, compilationResult.problemCount);
+}
+static class SourceParserForTest extends Parser {
+	SourceParserForTest(ProblemReporter reporter) {
+		super(reporter, false);
+	}
+}
 }
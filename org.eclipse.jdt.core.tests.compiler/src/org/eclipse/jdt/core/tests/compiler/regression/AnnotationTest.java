@@ -10889,4 +10889,63 @@ public void test398657_2() throws Exception {
 
 	checkDisassembledClassFile(OUTPUT_DIR + File.separator  +"X.class", "X", expectedOutput, ClassFileBytesDisassembler.DETAILED);
 }
+// warnings discarded as soon as they are reported still count as used suppress warnings tokens
+public void testUnusedWarningTokenWithManyScopes() {
+	Map options = getCompilerOptions();
+	options.put(CompilerOptions.OPTION_ReportUnusedWarningToken, CompilerOptions.WARNING);
+	options.put(CompilerOptions.OPTION_ReportRawTypeReference, CompilerOptions.WARNING);
+	options.put(CompilerOptions.OPTION_ReportUncheckedTypeOperation, CompilerOptions.WARNING);
+	this.runNegativeTest(
+		true,
+		new String[] {
+			"X.java",
+			"import java.util.List;\n" +
+			"public class X {\n" +
+			"	@SuppressWarnings(\"unchecked\") void a(List<String> l, List r) { r.add(l); }\n" +
+			"	@SuppressWarnings(\"unchecked\") void b(List<String> l, List r) { r.add(l); }\n" +
+			"	@SuppressWarnings(\"unchecked\") void c(List<String> l, List r) { r.add(l); }\n" +
+			"	@SuppressWarnings(\"unchecked\") void d(List<String> l, List r) { r.size(); }\n" +
+			"	@SuppressWarnings({\"unchecked\", \"rawtypes\"}) void e(List<String> l, List r) { r.add(l); }\n" +
+			"	void f(List<String> l, List r) { r.add(l); }\n" +
+			"}\n",
+		},
+		null, options,
+		"----------\n" +
+		"1. WARNING in X.java (at line 3)\n" +
+		"	@SuppressWarnings(\"unchecked\") void a(List<String> l, List r) { r.add(l); }\n" +
+		"	                                                      ^^^^\n" +
+		"List is a raw type. References to generic type List<E> should be parameterized\n" +
+		"----------\n" +
+		"2. WARNING in X.java (at line 4)\n" +
+		"	@SuppressWarnings(\"unchecked\") void b(List<String> l, List r) { r.add(l); }\n" +
+		"	                                                      ^^^^\n" +
+		"List is a raw type. References to generic type List<E> should be parameterized\n" +
+		"----------\n" +
+		"3. WARNING in X.java (at line 5)\n" +
+		"	@SuppressWarnings(\"unchecked\") void c(List<String> l, List r) { r.add(l); }\n" +
+		"	                                                      ^^^^\n" +
+		"List is a raw type. References to generic type List<E> should be parameterized\n" +
+		"----------\n" +
+		"4. WARNING in X.java (at line 6)\n" +
+		"	@SuppressWarnings(\"unchecked\") void d(List<String> l, List r) { r.size(); }\n" +
+		"	                  ^^^^^^^^^^^\n" +
+		"Unnecessary @SuppressWarnings(\"unchecked\")\n" +
+		"----------\n" +
+		"5. WARNING in X.java (at line 6)\n" +
+		"	@SuppressWarnings(\"unchecked\") void d(List<String> l, List r) { r.size(); }\n" +
+		"	                                                      ^^^^\n" +
+		"List is a raw type. References to generic type List<E> should be parameterized\n" +
+		"----------\n" +
+		"6. WARNING in X.java (at line 8)\n" +
+		"	void f(List<String> l, List r) { r.add(l); }\n" +
+		"	                       ^^^^\n" +
+		"List is a raw type. References to generic type List<E> should be parameterized\n" +
+		"----------\n" +
+		"7. WARNING in X.java (at line 8)\n" +
+		"	void f(List<String> l, List r) { r.add(l); }\n" +
+		"	                                 ^^^^^^^^\n" +
+		"Type safety: The method add(Object) belongs to the raw type List. References to generic type List<E> should be parameterized\n" +
+		"----------\n",
+		null, null, JavacTestOptions.Excuse.EclipseHasSomeMoreWarnings);
+}
 }
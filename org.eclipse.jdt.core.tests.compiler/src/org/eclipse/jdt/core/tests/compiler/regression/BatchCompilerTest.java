@@ -1560,6 +1560,8 @@ public void test012(){
         "    -d <dir>           destination directory (if omitted, no directory is\n" +
         "                       created); this option can be overridden per source\n" +
         "                       directory\n" +
+        "    -d <file>.jar      write the class files into the given jar (or zip)\n" +
+        "                       file instead of a directory\n" +
         "    -d none            generate no .class files\n" +
         "    -encoding <enc>    specify default encoding for all source files. Each\n" + 
         "                       file/directory can override it when suffixed with\n" + 
@@ -13799,4 +13801,38 @@ public void test405225_extdirs() {
 		"",
 		true);
 }
+// class files can be written straight into a jar given as destination
+public void test_destination_jar() throws IOException {
+	String jarName = OUTPUT_DIR + File.separator + "out" + File.separator + "classes.jar";
+	this.runConformTest(
+		new String[] {
+			"p/X.java",
+			"package p;\n" +
+			"public class X {\n" +
+			"	Runnable r = new Runnable() {\n" +
+			"		public void run() {}\n" +
+			"	};\n" +
+			"}\n",
+			"Y.java",
+			"public class Y extends p.X {\n" +
+			"}\n"
+		},
+		"\"" + OUTPUT_DIR +  File.separator + "p" + File.separator + "X.java\""
+		+ " \"" + OUTPUT_DIR +  File.separator + "Y.java\""
+		+ " -1.5 -proceedOnError -d \"" + jarName + "\"",
+		"",
+		"",
+		true);
+	assertFalse("class file should not be written into the output directory",
+		new File(OUTPUT_DIR + File.separator + "p" + File.separator + "X.class").exists());
+	java.util.zip.ZipFile jar = new java.util.zip.ZipFile(jarName);
+	try {
+		assertNotNull("missing p/X.class", jar.getEntry("p/X.class"));
+		assertNotNull("missing p/X$1.class", jar.getEntry("p/X$1.class"));
+		assertNotNull("missing Y.class", jar.getEntry("Y.class"));
+		assertEquals("unexpected entries", 3, jar.size());
+	} finally {
+		jar.close();
+	}
+}
 }
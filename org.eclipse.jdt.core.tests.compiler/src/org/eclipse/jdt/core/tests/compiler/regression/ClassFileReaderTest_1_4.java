@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,11 +10,15 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.tests.compiler.regression;
 
+import java.io.File;
+
 import junit.framework.Test;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.util.ClassFileBytesDisassembler;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.env.IBinaryField;
 import org.eclipse.jdt.internal.compiler.env.IBinaryMethod;
 
 public class ClassFileReaderTest_1_4 extends AbstractRegressionTest {
@@ -2871,4 +2875,36 @@ public class ClassFileReaderTest_1_4 extends AbstractRegressionTest {
 		}
 	}
 
+	// members are decoded on demand when looked up by name
+	public void test081() throws Exception {
+		String source =
+			"public class X {\n" +
+			"	int f;\n" +
+			"	String g;\n" +
+			"	X(int i, int j) {}\n" +
+			"	void foo(String s) {}\n" +
+			"	void foo(String s, double d) {}\n" +
+			"	void bar() {}\n" +
+			"}";
+		compileAndDeploy(source, "", "X");
+		try {
+			ClassFileReader classFileReader = ClassFileReader.read(new File(EVAL_DIRECTORY, "X.class"));
+			IBinaryMethod[] methodInfos = classFileReader.getMethods("foo".toCharArray());
+			assertNotNull("No foo methods", methodInfos);
+			assertEquals("Wrong number of foo methods", 2, methodInfos.length);
+			assertEquals("Wrong descriptor", "(Ljava/lang/String;)V", new String(methodInfos[0].getMethodDescriptor()));
+			assertEquals("Wrong descriptor", "(Ljava/lang/String;D)V", new String(methodInfos[1].getMethodDescriptor()));
+			assertNull("Unexpected methods", classFileReader.getMethods("fo".toCharArray()));
+			IBinaryField fieldInfo = classFileReader.getField("g".toCharArray());
+			assertNotNull("No field g", fieldInfo);
+			assertEquals("Wrong type", "Ljava/lang/String;", new String(fieldInfo.getTypeName()));
+			assertNull("Unexpected field", classFileReader.getField("h".toCharArray()));
+			IBinaryMethod[] allMethodInfos = classFileReader.getMethods();
+			assertEquals("Wrong number of methods", 4, allMethodInfos.length);
+			assertSame("Method decoded twice", methodInfos[0], allMethodInfos[1]);
+			assertSame("Field decoded twice", fieldInfo, classFileReader.getFields()[1]);
+		} finally {
+			removeTempClass("X");
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,7 @@ import org.eclipse.jdt.core.compiler.InvalidInputException;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.parser.Scanner;
 import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
+import org.eclipse.jdt.internal.compiler.util.CharArrayInternTable;
 import org.eclipse.jdt.internal.core.util.PublicScanner;
 
 public class ScannerTest extends AbstractRegressionTest {
@@ -1340,4 +1341,38 @@ public class ScannerTest extends AbstractRegressionTest {
 			assertTrue("Should not fail with InvalidInputException", false);
 		}
 	}
+	/*
+	 * Ensures that the identifiers are shared by the scanners created with a shared identifiers table.
+	 */
+	public void test062() throws InvalidInputException {
+		char[] source1 = "class LongIdentifier { int abc; }".toCharArray();
+		char[] source2 = "interface I extends LongIdentifier { abc x; }".toCharArray();
+		Scanner.setSharedIdentifiers(new CharArrayInternTable(256));
+		try {
+			Scanner scanner1 = new Scanner();
+			Scanner scanner2 = new Scanner();
+			scanner1.setSource(source1);
+			scanner2.setSource(source2);
+			char[] longIdentifier1 = nextIdentifier(scanner1);
+			char[] abc1 = nextIdentifier(scanner1);
+			char[] i = nextIdentifier(scanner2);
+			char[] longIdentifier2 = nextIdentifier(scanner2);
+			char[] abc2 = nextIdentifier(scanner2);
+			assertEquals("Unexpected identifier", "I", new String(i));
+			assertEquals("Unexpected identifier", "LongIdentifier", new String(longIdentifier2));
+			assertEquals("Unexpected identifier", "abc", new String(abc2));
+			assertSame("Long identifiers should be shared", longIdentifier1, longIdentifier2);
+			assertSame("Short identifiers should be shared", abc1, abc2);
+		} finally {
+			Scanner.setSharedIdentifiers(null);
+		}
+	}
+	private char[] nextIdentifier(Scanner scanner) throws InvalidInputException {
+		int token;
+		while ((token = scanner.getNextToken()) != TerminalTokens.TokenNameEOF) {
+			if (token == TerminalTokens.TokenNameIdentifier)
+				return scanner.getCurrentIdentifierSource();
+		}
+		return null;
+	}
 }
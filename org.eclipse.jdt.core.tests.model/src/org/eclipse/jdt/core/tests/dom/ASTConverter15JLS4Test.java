@@ -13,7 +13,9 @@ package org.eclipse.jdt.core.tests.dom;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -11306,4 +11308,89 @@ public class ASTConverter15JLS4Test extends ConverterTestSetup {
 		assertEquals("Wrong number of types", 1, types.size());
 		assertEquals("Wrong number of body declarations", 3, ((TypeDeclaration) types.get(0)).bodyDeclarations().size());
 	}
+	/*
+	 * Ensures that a lazy binding resolution answers the same bindings as an eager one
+	 */
+	public void test0350() throws JavaModelException {
+		String contents =
+			"import java.util.*;\n" +
+			"public class X {\n" +
+			"	static int COUNT;\n" +
+			"	{\n" +
+			"		COUNT = ((1 + 2)) * (COUNT);\n" +
+			"	}\n" +
+			"	/**\n" +
+			"	 * @see #foo(String...)\n" +
+			"	 */\n" +
+			"	public List<Object> foo(String... args) {\n" +
+			"		List<Object> list = new ArrayList<Object>();\n" +
+			"		for (int i = 0; i < args.length; i++) {\n" +
+			"			list.add((Object) (args[i]));\n" +
+			"		}\n" +
+			"		Runnable r = new Runnable() {\n" +
+			"			/** @see X#COUNT */\n" +
+			"			public void run() {\n" +
+			"				System.out.println(this.toString() + X.this.hashCode());\n" +
+			"			}\n" +
+			"			void bar(int... values) {\n" +
+			"				COUNT += values.length;\n" +
+			"			}\n" +
+			"		};\n" +
+			"		r.run();\n" +
+			"		return list;\n" +
+			"	}\n" +
+			"}";
+		this.workingCopy = getWorkingCopy("/Converter15/src/X.java", true/*resolve*/);
+		this.workingCopy.getBuffer().setContents(contents);
+		String expected = collectBindings(false);
+		String actual = collectBindings(true);
+		assertEquals("Unexpected bindings", expected, actual);
+	}
+	/*
+	 * Ensures that the declaring node of a local variable is found with a lazy binding resolution
+	 */
+	public void test0351() throws JavaModelException {
+		String contents =
+			"public class X {\n" +
+			"	int foo() {\n" +
+			"		int i = 0;\n" +
+			"		return i;\n" +
+			"	}\n" +
+			"}";
+		this.workingCopy = getWorkingCopy("/Converter15/src/X.java", true/*resolve*/);
+		this.workingCopy.getBuffer().setContents(contents);
+		ASTParser parser = ASTParser.newParser(AST.JLS4);
+		parser.setSource(this.workingCopy);
+		parser.setResolveBindings(true);
+		parser.setLazyBindingResolution(true);
+		CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+		ReturnStatement statement = (ReturnStatement) getASTNode(unit, 0, 0, 1);
+		IBinding binding = ((SimpleName) statement.getExpression()).resolveBinding();
+		assertNotNull("No binding", binding);
+		ASTNode declaringNode = unit.findDeclaringNode(binding);
+		assertNotNull("No declaring node", declaringNode);
+		assertSame("Wrong declaring node", ((VariableDeclarationStatement) getASTNode(unit, 0, 0, 0)).fragments().get(0), declaringNode);
+		assertSame("Wrong declaring node", declaringNode, unit.findDeclaringNode(binding.getKey()));
+	}
+	private String collectBindings(boolean lazyBindingResolution) {
+		ASTParser parser = ASTParser.newParser(AST.JLS4);
+		parser.setSource(this.workingCopy);
+		parser.setResolveBindings(true);
+		parser.setLazyBindingResolution(lazyBindingResolution);
+		CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+		BindingsCollectorVisitor visitor = new BindingsCollectorVisitor();
+		unit.accept(visitor);
+		List bindings = new ArrayList();
+		for (Iterator iterator = visitor.getBindingsMap().entrySet().iterator(); iterator.hasNext(); ) {
+			Map.Entry entry = (Map.Entry) iterator.next();
+			ASTNode node = (ASTNode) entry.getKey();
+			bindings.add(node.getClass().getName() + '[' + node.getStartPosition() + ',' + node.getLength() + "] " + ((IBinding) entry.getValue()).getKey());
+		}
+		Collections.sort(bindings);
+		StringBuffer buffer = new StringBuffer();
+		for (int i = 0, max = bindings.size(); i < max; i++) {
+			buffer.append(bindings.get(i)).append('\n');
+		}
+		return String.valueOf(buffer);
+	}
 }
@@ -13038,4 +13038,102 @@ public void testBug405038_5() throws Exception {
 		"}\n"
 	);
 }
+/*
+ * Ensures that formatting several sources at once on several threads gives the same
+ * result as formatting them one after the other.
+ */
+public void testBulkFormat() throws Exception {
+	String[] sources = new String[20];
+	IRegion[][] regions = new IRegion[sources.length][];
+	for (int i = 0; i < sources.length; i++) {
+		sources[i] =
+			"public class X" + i + " {\n" +
+			"/**   Comment " + i + "   */\n" +
+			"  int foo(int a,int b)   {\n" +
+			"        return a+b*" + i + ";\n" +
+			"    }\n" +
+			"    // comment\n" +
+			"        void bar() {   foo(" + i + ", 0); }\n" +
+			"}\n";
+		if (i % 2 == 0) {
+			// format the foo method only
+			int start = sources[i].indexOf("int foo");
+			regions[i] = new IRegion[] {new Region(start, sources[i].indexOf('}') + 1 - start)};
+		}
+	}
+	int kind = CodeFormatter.K_COMPILATION_UNIT | CodeFormatter.F_INCLUDE_COMMENTS;
+	TextEdit[] edits = codeFormatter().format(kind, sources, regions, 0, LINE_SEPARATOR, 4);
+	assertEquals("Unexpected number of edits", sources.length, edits.length);
+	for (int i = 0; i < sources.length; i++) {
+		String expected = regions[i] == null
+			? runFormatter(codeFormatter(), sources[i], kind, 0, 0, sources[i].length(), LINE_SEPARATOR, false)
+			: runFormatter(codeFormatter(), sources[i], kind, 0, regions[i], LINE_SEPARATOR);
+		assertNotNull("Unexpected null edit for source #" + i, edits[i]);
+		assertSourceEquals("Unexpected formatted source #" + i, expected, org.eclipse.jdt.internal.core.util.Util.editedString(sources[i], edits[i]), false/*do not convert line delimiter*/);
+	}
+}
+/*
+ * Ensures that the method and constructor bodies outside the formatted regions are left
+ * untouched while the region is formatted as in a full format.
+ */
+public void testRegionsOutsideBodies() {
+	String source =
+		"public class A {\n" +
+		"	A() {\n" +
+		" super();   int  k=0;\n" +
+		"	}\n" +
+		"	void foo() {\n" +
+		" int   i=0;\n" +
+		"	}\n" +
+		"[#	void bar() {\n" +
+		"		int   j   =   0;\n" +
+		"	}#]\n" +
+		"	void baz() {\n" +
+		" int   l=0;   }\n" +
+		"}\n";
+	formatSource(source,
+		"public class A {\n" +
+		"	A() {\n" +
+		" super();   int  k=0;\n" +
+		"	}\n" +
+		"	void foo() {\n" +
+		" int   i=0;\n" +
+		"	}\n" +
+		"\n" +
+		"	void bar() {\n" +
+		"		int j = 0;\n" +
+		"	}\n" +
+		"	void baz() {\n" +
+		" int   l=0;   }\n" +
+		"}\n",
+		CodeFormatter.K_COMPILATION_UNIT,
+		0 /*no indentation*/,
+		true /*repeat formatting twice*/
+	);
+}
+/*
+ * Ensures that formatting a compilation unit directly to a string gives the same
+ * result than applying the formatter edits.
+ */
+public void testFormatToString() {
+	String source =
+		"package p;\n" +
+		"import java.util.*;\n" +
+		"public class X {\n" +
+		"/**   Comment   */\n" +
+		"  int foo(int a,int b)   {\n" +
+		"        return a+b;   // line comment\n" +
+		"    }\n" +
+		"\n" +
+		"\n" +
+		"\n" +
+		"        void bar(List l) {   for (Iterator i=l.iterator();i.hasNext();) { foo(0, 1); } }\n" +
+		"	/* comment */ String s   =   \"\";\n" +
+		"}\n";
+	int kind = CodeFormatter.K_COMPILATION_UNIT | CodeFormatter.F_INCLUDE_COMMENTS;
+	String expected = runFormatter(codeFormatter(), source, kind, 0, 0, source.length(), LINE_SEPARATOR, false);
+	String actual = codeFormatter().formatToString(kind, source, 0, LINE_SEPARATOR);
+	assertSourceEquals("Unexpected formatted source", expected, actual, false/*do not convert line delimiter*/);
+	assertSourceEquals("Unexpected formatted source for an already formatted source", expected, codeFormatter().formatToString(kind, actual, 0, LINE_SEPARATOR), false/*do not convert line delimiter*/);
+}
 }
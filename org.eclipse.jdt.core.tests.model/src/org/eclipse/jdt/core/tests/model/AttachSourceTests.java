@@ -11,6 +11,7 @@
 package org.eclipse.jdt.core.tests.model;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -1590,6 +1591,72 @@ public void testRootPath13() throws JavaModelException {
 		cf.getSource());
 	attachSource(root, null, null); // detach source
 }
+/**
+ * Ensures that the root paths of a source archive are reused by the next source mapper of the root,
+ * and computed again once the source archive changed.
+ */
+public void testRootPath14() throws Exception {
+	IJavaProject project = this.getJavaProject("/AttachSourceTests");
+	IPackageFragmentRoot root = project.getPackageFragmentRoot(this.getFile("/AttachSourceTests/full.jar"));
+	String zipPath = getExternalResourcePath("root14src.zip");
+	IFile zipFile = null;
+	try {
+		org.eclipse.jdt.core.tests.util.Util.createSourceZip(
+			new String[] {
+				"src/p1/p2/A.java",
+				"package p1.p2;\n" +
+				"public class A { // in src\n" +
+				"}"
+			},
+			zipPath);
+		zipFile = createFile("/AttachSourceTests/root14src.zip", org.eclipse.jdt.internal.compiler.util.Util.getFileByteContent(new File(zipPath)));
+		attachSource(root, "/AttachSourceTests/root14src.zip", null);
+		IClassFile cf = root.getPackageFragment("p1.p2").getClassFile("A.class");
+		assertSourceEquals(
+			"Unexpected source for class file",
+			"package p1.p2;\n" +
+			"public class A { // in src\n" +
+			"}",
+			cf.getSource());
+		IPath sourcePath = new Path("/AttachSourceTests/root14src.zip");
+		Object cachedRootPaths = JavaModelManager.getJavaModelManager().getCachedSourceAttachment(sourcePath);
+		assertNotNull("Root paths should be cached", cachedRootPaths);
+
+		// new source mapper for the unchanged source archive
+		root.close();
+		assertSourceEquals(
+			"Unexpected source for class file after closing the root",
+			"package p1.p2;\n" +
+			"public class A { // in src\n" +
+			"}",
+			cf.getSource());
+		assertSame("Root paths should be reused", cachedRootPaths, JavaModelManager.getJavaModelManager().getCachedSourceAttachment(sourcePath));
+
+		// new source mapper for a source archive with another root path
+		org.eclipse.jdt.core.tests.util.Util.createSourceZip(
+			new String[] {
+				"other/p1/p2/A.java",
+				"package p1.p2;\n" +
+				"public class A { // in other\n" +
+				"}"
+			},
+			zipPath);
+		zipFile.setContents(new ByteArrayInputStream(org.eclipse.jdt.internal.compiler.util.Util.getFileByteContent(new File(zipPath))), IResource.FORCE, null);
+		root.close();
+		assertSourceEquals(
+			"Unexpected source for class file after changing the source archive",
+			"package p1.p2;\n" +
+			"public class A { // in other\n" +
+			"}",
+			cf.getSource());
+		assertNotSame("Root paths should be computed again", cachedRootPaths, JavaModelManager.getJavaModelManager().getCachedSourceAttachment(sourcePath));
+	} finally {
+		attachSource(root, null, null); // detach source
+		if (zipFile != null)
+			deleteResource(zipFile);
+		deleteExternalResource("root14src.zip");
+	}
+}
 /**
  * @test bug 153133: [model] toggle breakpoint in constructor creates a class load breakpoint
  * @see "http://bugs.eclipse.org/bugs/show_bug.cgi?id=153133"
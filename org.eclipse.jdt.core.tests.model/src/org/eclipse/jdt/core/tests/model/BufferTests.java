@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,7 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 
 import org.eclipse.jdt.core.*;
+import org.eclipse.jdt.internal.core.BufferManager;
 
 import junit.framework.Test;
 
@@ -144,7 +145,161 @@ public void testClose() throws CoreException {
 	}
 }
 
+/*
+ * Ensures that the contents of an unchanged buffer closed by the buffer cache
+ * are reused when the buffer is opened again.
+ */
+public void testClosedContentsReused() throws CoreException {
+	try {
+		waitUntilIndexesReady();
+		createFile(
+			"P/x/y/A.java",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"}"
+		);
+		ICompilationUnit cu = getCompilationUnit("P/x/y/A.java");
+		IBuffer buffer = cu.getBuffer();
+		BufferManager manager = BufferManager.getDefaultBufferManager();
+		manager.closeCachedBuffers();
+		assertTrue("buffer should be closed", buffer.isClosed());
+		assertTrue("closed contents should be kept", manager.hasClosedContents(cu));
+
+		int reusedCount = manager.getReusedClosedContentsCount();
+		buffer = cu.getBuffer();
+		assertEquals("closed contents should be reused", reusedCount + 1, manager.getReusedClosedContentsCount());
+		assertSourceEquals(
+			"unexpected buffer contents",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"}",
+			buffer.getContents()
+		);
+	} finally {
+		deleteFile("P/x/y/A.java");
+	}
+}
+/*
+ * Ensures that the contents of a closed buffer are discarded when the contents of its file change.
+ */
+public void testClosedContentsDiscardedOnContentChange() throws CoreException {
+	try {
+		waitUntilIndexesReady();
+		createFile(
+			"P/x/y/A.java",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"}"
+		);
+		ICompilationUnit cu = getCompilationUnit("P/x/y/A.java");
+		cu.getBuffer();
+		BufferManager manager = BufferManager.getDefaultBufferManager();
+		manager.closeCachedBuffers();
+		assertTrue("closed contents should be kept", manager.hasClosedContents(cu));
+
+		editFile(
+			"P/x/y/A.java",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"  void foo() {}\n" +
+			"}"
+		);
+		assertTrue("closed contents should be discarded", !manager.hasClosedContents(cu));
+		assertSourceEquals(
+			"unexpected buffer contents",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"  void foo() {}\n" +
+			"}",
+			cu.getBuffer().getContents()
+		);
+	} finally {
+		deleteFile("P/x/y/A.java");
+	}
+}
+/*
+ * Ensures that the contents of a closed buffer are discarded when its file is deleted,
+ * so that they are not reused if the file is recreated.
+ */
+public void testClosedContentsDiscardedOnDeletion() throws CoreException {
+	try {
+		waitUntilIndexesReady();
+		createFile(
+			"P/x/y/A.java",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"}"
+		);
+		ICompilationUnit cu = getCompilationUnit("P/x/y/A.java");
+		cu.getBuffer();
+		BufferManager manager = BufferManager.getDefaultBufferManager();
+		manager.closeCachedBuffers();
+		assertTrue("closed contents should be kept", manager.hasClosedContents(cu));
 
+		deleteFile("P/x/y/A.java");
+		assertTrue("closed contents should be discarded", !manager.hasClosedContents(cu));
+
+		createFile(
+			"P/x/y/A.java",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"  void foo() {}\n" +
+			"}"
+		);
+		assertSourceEquals(
+			"unexpected buffer contents",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"  void foo() {}\n" +
+			"}",
+			cu.getBuffer().getContents()
+		);
+	} finally {
+		deleteFile("P/x/y/A.java");
+	}
+}
+/*
+ * Ensures that the contents of a closed buffer are discarded when the encoding of its file changes.
+ */
+public void testClosedContentsDiscardedOnEncodingChange() throws Exception {
+	try {
+		waitUntilIndexesReady();
+		IFile file = createFile(
+			"P/x/y/A.java",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"  String s = \"\u00e9\";\n" +
+			"}",
+			"UTF-8"
+		);
+		file.setCharset("ISO-8859-1", null);
+		ICompilationUnit cu = getCompilationUnit("P/x/y/A.java");
+		assertSourceEquals(
+			"unexpected buffer contents",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"  String s = \"\u00c3\u00a9\";\n" +
+			"}",
+			cu.getBuffer().getContents()
+		);
+		BufferManager manager = BufferManager.getDefaultBufferManager();
+		manager.closeCachedBuffers();
+		assertTrue("closed contents should be kept", manager.hasClosedContents(cu));
+
+		file.setCharset("UTF-8", null);
+		assertTrue("closed contents should be discarded", !manager.hasClosedContents(cu));
+		assertSourceEquals(
+			"unexpected buffer contents",
+			"package x.y;\n" +
+			"public class A {\n" +
+			"  String s = \"\u00e9\";\n" +
+			"}",
+			cu.getBuffer().getContents()
+		);
+	} finally {
+		deleteFile("P/x/y/A.java");
+	}
+}
 /**
  * Tests getting the underlying resource of a buffer.
  */
@@ -247,6 +247,7 @@ public static Test suite() {
 	suite.addTest(new ClasspathTests("testExtraLibraries15"));
 	suite.addTest(new ClasspathTests("testExtraLibraries16"));
 	suite.addTest(new ClasspathTests("testExtraLibraries17"));
+	suite.addTest(new ClasspathTests("testExtraLibraries18"));
 	suite.addTest(new ClasspathTests("testFixClasspath1"));
 	suite.addTest(new ClasspathTests("testFixClasspath2"));
 	suite.addTest(new ClasspathTests("testHasClasspathCycle"));
@@ -4032,6 +4033,42 @@ public void testExtraLibraries17() throws Exception {
 		deleteExternalResource("lib.jar");
 	}
 }
+/*
+ * Ensures that the Class-Path: clause of a jar is read again once the jar has changed,
+ * even though it was already read when the classpath was resolved before.
+ */
+public void testExtraLibraries18() throws Exception {
+	try {
+		IJavaProject p = createJavaProject("P");
+		addLibrary(p, "lib1.jar", null, new String[0], 
+			new String[] {
+				"META-INF/MANIFEST.MF",
+				"Manifest-Version: 1.0\n" +
+				"Class-Path: lib2.jar\n",
+			},
+			JavaCore.VERSION_1_4);
+		createFile("/P/lib2.jar", "");
+		createFile("/P/lib3.jar", "");
+		p.getResolvedClasspath(true);
+		createLibrary(p, "lib1.jar", null, new String[0], 
+			new String[] {
+				"META-INF/MANIFEST.MF",
+				"Manifest-Version: 1.0\n" +
+				"Class-Path: lib3.jar\n",
+			},
+			JavaCore.VERSION_1_4);
+		((JavaProject) p).resetResolvedClasspath();
+		assertClasspathEquals(
+			p.getResolvedClasspath(true), 
+			"/P[CPE_SOURCE][K_SOURCE][isExported:false]\n" + 
+			""+ getExternalJCLPathString() + "[CPE_LIBRARY][K_BINARY][isExported:false]\n" + 
+			"/P/lib3.jar[CPE_LIBRARY][K_BINARY][isExported:true]\n" + 
+			"/P/lib1.jar[CPE_LIBRARY][K_BINARY][isExported:true]"
+		);
+	} finally {
+		deleteProject("P");
+	}
+}
 /*
  * Ensures that a marker is removed if adding an internal jar that is on the classpath in another project
  * (regression test for https://bugs.eclipse.org/bugs/show_bug.cgi?id=213723 )
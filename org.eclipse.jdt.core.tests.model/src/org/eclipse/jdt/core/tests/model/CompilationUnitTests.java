@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -2128,6 +2128,33 @@ public void testStructureUnknownForCU() throws CoreException {
 		deleteFile("/P/src/p/Invalid.java");
 	}
 }
+/**
+ * Ensures that the "structure is unknown" flag is set for a compilation unit with a syntax error
+ * in a method body that cannot declare a local type.
+ */
+public void testStructureUnknownForCU2() throws CoreException {
+	try {
+		this.createFile(
+			"/P/src/p/Invalid.java",
+			"package p;\n" +
+			"public class Invalid {\n" +
+			"  void foo() {\n" +
+			"    int i = ;\n" +
+			"  }\n" +
+			"}");
+		ICompilationUnit badCU = getCompilationUnit("/P/src/p/Invalid.java");
+		assertElementDescendants(
+			"Unexpected children",
+			"Invalid.java\n" +
+			"  package p\n" +
+			"  class Invalid\n" +
+			"    void foo()",
+			badCU);
+		assertTrue("Structure is known for an invalid CU", !badCU.isStructureKnown());
+	} finally {
+		deleteFile("/P/src/p/Invalid.java");
+	}
+}
 
 /*
  * Ensure that the super flags is correctly reported
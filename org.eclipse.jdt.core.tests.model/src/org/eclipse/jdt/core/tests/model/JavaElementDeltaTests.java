@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -740,6 +740,62 @@ public void testBatchOperation() throws CoreException {
 		deleteProject("P");
 	}
 }
+/*
+ * Ensures that adding then removing many compilation units in several projects in an IWorkspaceRunnable
+ * reports one delta with one affected child per compilation unit.
+ */
+public void testBatchOperationManyFiles() throws CoreException {
+	final int fileCount = 1000;
+	try {
+		createJavaProject("P1", new String[] {"src"}, "bin");
+		createJavaProject("P2", new String[] {"src"}, "bin");
+		createFolder("P1/src/p");
+		createFolder("P2/src/p");
+		startDeltas();
+		ResourcesPlugin.getWorkspace().run(
+			new IWorkspaceRunnable() {
+				public void run(IProgressMonitor monitor) throws CoreException {
+					for (int i = 0; i < fileCount; i++) {
+						createFile("P1/src/p/X" + i + ".java", "package p; public class X" + i + " {}");
+						createFile("P2/src/p/X" + i + ".java", "package p; public class X" + i + " {}");
+					}
+				}
+			},
+			null);
+		IJavaElementDelta delta = this.deltaListener.getLastDelta();
+		assertEquals("Unexpected number of projects", 2, delta.getAffectedChildren().length);
+		for (int i = 1; i <= 2; i++) {
+			IPackageFragment pkg = getPackage("P" + i + "/src/p");
+			IJavaElementDelta pkgDelta = this.deltaListener.getDeltaFor(pkg);
+			assertNotNull("No delta for " + pkg, pkgDelta);
+			assertEquals("Unexpected number of added units", fileCount, pkgDelta.getAddedChildren().length);
+		}
+
+		clearDeltas();
+		ResourcesPlugin.getWorkspace().run(
+			new IWorkspaceRunnable() {
+				public void run(IProgressMonitor monitor) throws CoreException {
+					for (int i = 0; i < fileCount; i++) {
+						deleteFile("P1/src/p/X" + i + ".java");
+						deleteFile("P2/src/p/X" + i + ".java");
+					}
+				}
+			},
+			null);
+		delta = this.deltaListener.getLastDelta();
+		assertEquals("Unexpected number of projects", 2, delta.getAffectedChildren().length);
+		for (int i = 1; i <= 2; i++) {
+			IPackageFragment pkg = getPackage("P" + i + "/src/p");
+			IJavaElementDelta pkgDelta = this.deltaListener.getDeltaFor(pkg);
+			assertNotNull("No delta for " + pkg, pkgDelta);
+			assertEquals("Unexpected number of removed units", fileCount, pkgDelta.getRemovedChildren().length);
+		}
+	} finally {
+		stopDeltas();
+		deleteProject("P1");
+		deleteProject("P2");
+	}
+}
 /*
  * Ensures that if a project's output folder is used as a lib folder in another project, building
  * the first project results in the correct delta in the other project.
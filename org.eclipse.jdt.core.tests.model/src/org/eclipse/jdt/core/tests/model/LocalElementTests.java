@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -643,4 +643,44 @@ public class LocalElementTests extends ModifyingResourceTests {
 			deleteFile("/P/X.java");
 		}
 	}
+	/*
+	 * Ensures that the local types are found in a compilation unit that has methods without local types.
+	 */
+	public void testLocalType11() throws CoreException {
+		try {
+			createFile(
+					"/P/X.java",
+					"public class X {\n" +
+					"  void foo() {\n" +
+					"    int i = 0;\n" +
+					"  }\n" +
+					"  void bar() {\n" +
+					"    class Y {\n" +
+					"    }\n" +
+					"  }\n" +
+					"  X() {\n" +
+					"    this.foo(); // a new class in a comment\n" +
+					"  }\n" +
+					"  Object baz() {\n" +
+					"    return new Object() {};\n" +
+					"  }\n" +
+					"}"
+			);
+			ICompilationUnit cu = getCompilationUnit("/P/X.java");
+			assertElementDescendants(
+					"Unexpected compilation unit contents",
+					"X.java\n" +
+					"  class X\n" +
+					"    void foo()\n" +
+					"    void bar()\n" +
+					"      class Y\n" +
+					"    X()\n" +
+					"    Object baz()\n" +
+					"      class <anonymous #1>",
+					cu);
+			assertTrue("Structure should be known", cu.isStructureKnown());
+		} finally {
+			deleteFile("/P/X.java");
+		}
+	}
 }
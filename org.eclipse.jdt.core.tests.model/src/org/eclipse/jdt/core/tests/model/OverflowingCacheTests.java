@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -378,6 +378,43 @@ public class OverflowingCacheTests extends ModifyingResourceTests {
 		}
 	}
 
+	/**
+	 * Creates an empty BufferCache of size 20, inserts buffers of different lengths
+	 * and ensures that each buffer takes a space that depends on its length.
+	 */
+	public void testBufferCacheSpace() {
+		int spaceLimit = 20;
+		OverflowingLRUCache cache = new BufferCache(spaceLimit);
+
+		// 3 buffers of 5 units of characters each take 6 units of space
+		for (int i = 0; i < 3; i++) {
+			OverflowingTestBuffer buffer = newBuffer(5 * BufferCache.CHARS_PER_SPACE_UNIT, cache);
+			cache.put(new OverflowingTestOpenable(buffer, null), buffer);
+		}
+		assertEquals("current space incorrect ", 18, cache.getCurrentSpace());
+
+		// an empty buffer takes 1 unit of space
+		OverflowingTestBuffer emptyBuffer = new OverflowingTestBuffer(false, cache);
+		cache.put(new OverflowingTestOpenable(emptyBuffer, null), emptyBuffer);
+		assertEquals("current space incorrect ", 19, cache.getCurrentSpace());
+
+		// another big buffer removes the least recently used buffers
+		OverflowingTestBuffer bigBuffer = newBuffer(5 * BufferCache.CHARS_PER_SPACE_UNIT, cache);
+		OverflowingTestOpenable bigOpenable = new OverflowingTestOpenable(bigBuffer, null);
+		cache.put(bigOpenable, bigBuffer);
+		assertEquals("wrong value", bigBuffer, cache.get(bigOpenable));
+		assertTrue("space limit exceeded", cache.getCurrentSpace() <= spaceLimit);
+		assertEquals("overflow space incorrect ", 0, cache.getOverflow());
+	}
+
+	private OverflowingTestBuffer newBuffer(final int length, OverflowingLRUCache cache) {
+		return new OverflowingTestBuffer(false, cache) {
+			public int getLength() {
+				return length;
+			}
+		};
+	}
+
 	/**
 	 * Creates an empty BufferCache of size 500, inserts 1000 buffers
 	 * and ensures that the cache has 334 buffers left in it. When the
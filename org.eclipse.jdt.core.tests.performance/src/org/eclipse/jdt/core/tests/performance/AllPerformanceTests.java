@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -52,6 +52,7 @@ public class AllPerformanceTests extends junit.framework.TestCase {
 	 */
 	public static Class[] getAdditionalTestClasses() {
 		return new Class[] {
+			FullSourceWorkspaceCharOperationTests.class,
 		};
 	}
 
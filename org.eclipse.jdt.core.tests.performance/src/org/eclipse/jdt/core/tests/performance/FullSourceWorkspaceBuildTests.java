@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -273,7 +273,7 @@ public class FullSourceWorkspaceBuildTests extends FullSourceWorkspaceTests {
 			}
 		}
 
-		compile(sources, options, classpath, null, log, logFileName);
+		compile(sources, options, classpath, compliance, log, logFileName);
 	}
 
 	// compile the sources present in this plugin directory using batch compiler
@@ -698,6 +698,28 @@ public class FullSourceWorkspaceBuildTests extends FullSourceWorkspaceTests {
 		build(JDT_CORE_PROJECT, warningOptions(1/*all warnings*/), false);
 	}
 
+	/**
+	 * JDT/Core project full build with JavaCore default options, the compiler using a single thread.
+	 * To be compared with {@link #testFullBuildProjectDefault()} where the source files are read
+	 * and parsed, processed and written on separate threads.
+	 *
+	 * @throws CoreException
+	 * @throws IOException
+	 */
+	public void testFullBuildProjectSingleThread() throws CoreException, IOException {
+		tagAsSummary("Build JDT/Core project (single thread)", false); // do NOT put in fingerprint
+		String previous = System.getProperty("jdt.compiler.useSingleThread");
+		System.setProperty("jdt.compiler.useSingleThread", "true");
+		try {
+			build(JDT_CORE_PROJECT, warningOptions(0/*default warnings*/), false);
+		} finally {
+			if (previous == null)
+				System.getProperties().remove("jdt.compiler.useSingleThread");
+			else
+				System.setProperty("jdt.compiler.useSingleThread", previous);
+		}
+	}
+
 	/**
 	 * Batch compiler build with no warning
 	 *
@@ -752,6 +774,68 @@ public class FullSourceWorkspaceBuildTests extends FullSourceWorkspaceTests {
 		compile(JavaCore.PLUGIN_ID, ALL_OPTIONS, null, false/*no log*/, JDT_CORE_SRC_PATHS);
 	}
 
+	/**
+	 * Compile JDT/Core compiler and batch compiler sources for a 1.6 target, hence with stack map frames.
+	 * These sources include large methods (e.g. the generated parser ones) with
+	 * many branch targets.
+	 *
+	 * @throws IOException
+	 */
+	public void testCompileJDTCoreCompiler16() throws IOException, CoreException {
+		tagAsSummary("Compile JDT/Core compiler with cmd line (1.6)", false); // do NOT put in fingerprint
+		compile(JavaCore.PLUGIN_ID, "-nowarn", "1.6", false/*no log*/, new String[] { "compiler", "batch" });
+	}
+
+	/**
+	 * Compile a generated type whose methods declare hundreds of locals, hence stress
+	 * the flow analysis of variables which do not fit in the flow info bits.
+	 *
+	 * @throws IOException
+	 */
+	public void testCompileWideMethods() throws IOException {
+		tagAsSummary("Compile wide methods with cmd line", false); // do NOT put in fingerprint
+		String workspacePath = ResourcesPlugin.getWorkspace().getRoot().getLocation().toFile().getCanonicalPath();
+		File sourceFile = new File(workspacePath, "WideMethods.java");
+		org.eclipse.jdt.core.tests.util.Util.writeToFile(wideMethodsSource(20/*methods*/, 300/*locals*/), sourceFile.getPath());
+		String source = sourceFile.getPath();
+		if (source.indexOf(" ") > 0) {
+			source = "\"" + source + "\"";
+		}
+		try {
+			compile(" " + source, "-warn:+null", "", "1.5", false/*no log*/, workspacePath + File.separator + getName() + ".log");
+		} finally {
+			sourceFile.delete();
+		}
+	}
+
+	/*
+	 * Answer the source of a type with the given number of methods, each of them
+	 * declaring the given number of locals which are checked for null in branches and loops.
+	 */
+	private String wideMethodsSource(int methods, int locals) {
+		StringBuffer buffer = new StringBuffer("public class WideMethods {\n");
+		for (int m = 0; m < methods; m++) {
+			buffer.append("\tvoid method").append(m).append("(boolean b) {\n");
+			for (int i = 0; i < locals; i++) {
+				buffer.append("\t\tObject o").append(i).append(" = b ? null : this;\n");
+			}
+			for (int i = 0; i < locals; i++) {
+				int next = (i + 1) % locals;
+				buffer.append("\t\tif (o").append(i).append(" != null) {\n");
+				buffer.append("\t\t\to").append(next).append(".toString();\n");
+				buffer.append("\t\t} else {\n");
+				buffer.append("\t\t\to").append(i).append(" = o").append((i + 7) % locals).append(";\n");
+				buffer.append("\t\t}\n");
+				buffer.append("\t\twhile (o").append(i).append(" == null && b) {\n");
+				buffer.append("\t\t\to").append(i).append(" = new Object();\n");
+				buffer.append("\t\t}\n");
+			}
+			buffer.append("\t}\n");
+		}
+		buffer.append("}\n");
+		return buffer.toString();
+	}
+
 	/**
 	 * Compile JDT/Core project with default warnings
 	 *
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.performance;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+import junit.framework.Test;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.parser.Scanner;
+import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
+
+/**
+ * Performance tests for the {@link CharOperation} primitives the compiler, the indexer
+ * and the search engine rely on, run over the identifiers of Parser.java.
+ */
+public class FullSourceWorkspaceCharOperationTests extends FullSourceWorkspaceTests {
+
+	// Tests counters
+	private static int TESTS_COUNT = 0;
+	private final static int WARMUP_COUNT = 3;
+	private final static int REPEAT = 200;
+
+	// Log files
+	private static PrintStream[] LOG_STREAMS = new PrintStream[DIM_NAMES.length];
+
+	// Identifiers of the parser source and the qualified names built from them
+	static char[][] IDENTIFIERS;
+	static char[][][] COMPOUND_NAMES;
+	static char[][] QUALIFIED_NAMES;
+
+/**
+ * @param name
+ */
+public FullSourceWorkspaceCharOperationTests(String name) {
+	super(name);
+}
+
+static {
+//	TESTS_NAMES = new String[] {
+//	};
+}
+public static Test suite() {
+	Test suite = buildSuite(testClass());
+	TESTS_COUNT = suite.countTestCases();
+	createPrintStream(testClass(), LOG_STREAMS, TESTS_COUNT, null);
+	return suite;
+}
+
+private static Class testClass() {
+	return FullSourceWorkspaceCharOperationTests.class;
+}
+
+protected void setUp() throws Exception {
+	super.setUp();
+	if (IDENTIFIERS == null) {
+		ArrayList identifiers = new ArrayList();
+		Scanner scanner = new Scanner();
+		scanner.setSource(PARSER_WORKING_COPY.getSource().toCharArray());
+		int token;
+		while ((token = scanner.getNextToken()) != TerminalTokens.TokenNameEOF) {
+			if (token == TerminalTokens.TokenNameIdentifier) {
+				identifiers.add(scanner.getCurrentIdentifierSource());
+			}
+		}
+		int length = identifiers.size();
+		IDENTIFIERS = new char[length][];
+		identifiers.toArray(IDENTIFIERS);
+		// build compound names from consecutive identifiers, e.g. {this, scanner, source}
+		COMPOUND_NAMES = new char[length][][];
+		QUALIFIED_NAMES = new char[length][];
+		for (int i = 0; i < length; i++) {
+			int segments = 1 + i % 5;
+			char[][] compoundName = new char[segments][];
+			for (int j = 0; j < segments; j++) {
+				compoundName[j] = IDENTIFIERS[(i + j) % length];
+			}
+			COMPOUND_NAMES[i] = compoundName;
+			QUALIFIED_NAMES[i] = CharOperation.concatWith(compoundName, '.');
+		}
+	}
+}
+
+/* (non-Javadoc)
+ * @see junit.framework.TestCase#tearDown()
+ */
+protected void tearDown() throws Exception {
+
+	// End of execution => one test less
+	TESTS_COUNT--;
+
+	// Log perf result
+	if (LOG_DIR != null) {
+		logPerfResult(LOG_STREAMS, TESTS_COUNT);
+	}
+
+	// Release data when all tests are done
+	if (TESTS_COUNT == 0) {
+		IDENTIFIERS = null;
+		COMPOUND_NAMES = null;
+		QUALIFIED_NAMES = null;
+	}
+	super.tearDown();
+}
+
+/*
+ * Run the given primitive over the test data: warm up first, then measure.
+ */
+private void measure(int kind) {
+	int count = 0;
+	for (int i = 0; i < WARMUP_COUNT; i++) {
+		count += run(kind);
+	}
+	resetCounters();
+	for (int i = 0; i < MEASURES_COUNT; i++) {
+		runGc();
+		startMeasuring();
+		for (int j = 0; j < REPEAT; j++) {
+			count += run(kind);
+		}
+		stopMeasuring();
+	}
+	commitMeasurements();
+	assertPerformance();
+	if (DEBUG) {
+		System.out.println("	- "+count+" matches");
+	}
+}
+
+private int run(int kind) {
+	int count = 0;
+	char[][] identifiers = IDENTIFIERS;
+	char[][] qualifiedNames = QUALIFIED_NAMES;
+	int length = identifiers.length;
+	switch (kind) {
+		case 0: // equals on identifiers and on qualified names
+			for (int i = 1; i < length; i++) {
+				if (CharOperation.equals(identifiers[i - 1], identifiers[i])) count++;
+				if (CharOperation.equals(qualifiedNames[i - 1], qualifiedNames[i])) count++;
+				if (CharOperation.equals(qualifiedNames[i], qualifiedNames[i])) count++;
+			}
+			break;
+		case 1: // prefixEquals, case sensitive or not
+			for (int i = 1; i < length; i++) {
+				if (CharOperation.prefixEquals(identifiers[i - 1], qualifiedNames[i])) count++;
+				if (CharOperation.prefixEquals(identifiers[i - 1], identifiers[i], false)) count++;
+			}
+			break;
+		case 2: // hashCode
+			for (int i = 0; i < length; i++) {
+				count += CharOperation.hashCode(identifiers[i]) & 1;
+				count += CharOperation.hashCode(qualifiedNames[i]) & 1;
+			}
+			break;
+		case 3: // indexOf and lastIndexOf
+			for (int i = 0; i < length; i++) {
+				if (CharOperation.indexOf('.', qualifiedNames[i]) >= 0) count++;
+				if (CharOperation.lastIndexOf('.', qualifiedNames[i]) >= 0) count++;
+			}
+			break;
+		case 4: // concatWith and splitOn
+			char[][][] compoundNames = COMPOUND_NAMES;
+			for (int i = 0; i < length; i++) {
+				count += CharOperation.concatWith(compoundNames[i], '.').length;
+				count += CharOperation.splitOn('.', qualifiedNames[i]).length;
+			}
+			break;
+		case 5: // camelCaseMatch
+			for (int i = 1; i < length; i++) {
+				char[] identifier = identifiers[i - 1];
+				char[] pattern = identifier.length > 3 ? CharOperation.subarray(identifier, 0, 3) : identifier;
+				if (CharOperation.camelCaseMatch(pattern, identifiers[i])) count++;
+			}
+			break;
+	}
+	return count;
+}
+
+/**
+ * Performance test for CharOperation#equals(char[], char[]).
+ */
+public void testEquals() {
+	tagAsSummary("CharOperation equals", false); // do NOT put in fingerprint
+	measure(0);
+}
+
+/**
+ * Performance test for CharOperation#prefixEquals(char[], char[]).
+ */
+public void testPrefixEquals() {
+	tagAsSummary("CharOperation prefixEquals", false); // do NOT put in fingerprint
+	measure(1);
+}
+
+/**
+ * Performance test for CharOperation#hashCode(char[]).
+ */
+public void testHashCode() {
+	tagAsSummary("CharOperation hashCode", false); // do NOT put in fingerprint
+	measure(2);
+}
+
+/**
+ * Performance test for CharOperation#indexOf(char, char[]) and CharOperation#lastIndexOf(char, char[]).
+ */
+public void testIndexOf() {
+	tagAsSummary("CharOperation indexOf", false); // do NOT put in fingerprint
+	measure(3);
+}
+
+/**
+ * Performance test for CharOperation#concatWith(char[][], char) and CharOperation#splitOn(char, char[]).
+ */
+public void testConcatWith() {
+	tagAsSummary("CharOperation concatWith", false); // do NOT put in fingerprint
+	measure(4);
+}
+
+/**
+ * Performance test for CharOperation#camelCaseMatch(char[], char[]).
+ */
+public void testCamelCaseMatch() {
+	tagAsSummary("CharOperation camelCaseMatch", false); // do NOT put in fingerprint
+	measure(5);
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,10 +12,12 @@ package org.eclipse.jdt.core.tests.performance;
 
 import java.io.File;
 import java.io.PrintStream;
+import java.util.List;
 
 import junit.framework.Test;
 
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.formatter.CodeFormatter;
 import org.eclipse.jdt.core.tests.util.Util;
@@ -157,6 +159,49 @@ public void testFormatDefaultBigFile() {
 	assertPerformance();
 }
 
+/**
+ * Format all the JDT/Core compilation units at once using code formatter default options,
+ * distributing them on as many threads as there are available processors.
+ */
+public void testFormatDefaultAllUnits() throws JavaModelException {
+	tagAsSummary("Format all units with default options", false); // do NOT put in fingerprint
+
+	// Read sources
+	List units = getProjectCompilationUnits(JDT_CORE_PROJECT);
+	int length = units.size();
+	String[] sources = new String[length];
+	int chars = 0;
+	for (int i=0; i<length; i++) {
+		sources[i] = ((ICompilationUnit) units.get(i)).getSource();
+		chars += sources[i].length();
+	}
+	int threads = Runtime.getRuntime().availableProcessors();
+
+	// Warm up
+	int warmup = WARMUP_COUNT;
+	for (int i=0; i<warmup; i++) {
+		long start = System.currentTimeMillis();
+		new DefaultCodeFormatter().format(CodeFormatter.K_COMPILATION_UNIT, sources, null, 0, null, threads);
+		if (i==0) {
+			System.out.println("	Time to format "+length+" units ("+chars+" chars) on "+threads+" threads = "+(System.currentTimeMillis()-start)+"ms");
+		}
+	}
+
+	// Measures
+	resetCounters();
+	int measures = MEASURES_COUNT;
+	for (int i=0; i<measures; i++) {
+		runGc();
+		startMeasuring();
+		new DefaultCodeFormatter().format(CodeFormatter.K_COMPILATION_UNIT, sources, null, 0, null, threads);
+		stopMeasuring();
+	}
+
+	// Commit
+	commitMeasurements();
+	assertPerformance();
+}
+
 protected void resetCounters() {
 	// do nothing
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -1040,6 +1040,62 @@ public void testPopulateTwoBigJars() throws CoreException {
 	}
 }
 
+/*
+ * Performance test for the opening of the class files of the JRE packages most referenced by the workspace.
+ * Also reports the memory held by the Java model for each opened class file, as the infos of these
+ * class files share their names (e.g. selectors, descriptors, signatures).
+ */
+public void testPopulateJREPackages() throws CoreException {
+
+	IJavaProject project = null;
+	try {
+		project = createJavaProject("JREProject");
+		AbstractJavaModelTests.waitUntilIndexesReady();
+		AbstractJavaModelTests.waitForAutoBuild();
+		IPackageFragmentRoot root = project.getPackageFragmentRoots()[0];
+		String[] packageNames = new String[] {"java.io", "java.lang", "java.util"};
+		int classFilesCount = 0;
+		for (int i = 0; i < packageNames.length; i++)
+			classFilesCount += root.getPackageFragment(packageNames[i]).getClassFiles().length;
+		assertTrue("Unexpected empty JRE packages", classFilesCount > 0);
+
+		// warm up
+		for (int i = 0; i < WARMUP_COUNT / 10; i++) {
+			project.close();
+			openClassFiles(root, packageNames);
+		}
+
+		// measure performance
+		Runtime runtime = Runtime.getRuntime();
+		long footprint = 0;
+		for (int i = 0; i < MEASURES_COUNT; i++) {
+			project.close();
+			runGc();
+			long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+			startMeasuring();
+			openClassFiles(root, packageNames);
+			stopMeasuring();
+			runGc();
+			footprint += runtime.totalMemory() - runtime.freeMemory() - usedMemory;
+		}
+		if (MEASURES_COUNT > 0)
+			System.out.println("  - "+classFilesCount+" class files opened: "+(footprint / MEASURES_COUNT / classFilesCount)+" bytes per class file");
+
+		commitMeasurements();
+		assertPerformance();
+	} finally {
+		if (project != null)
+			project.getProject().delete(false, null);
+	}
+}
+private void openClassFiles(IPackageFragmentRoot root, String[] packageNames) throws JavaModelException {
+	for (int i = 0; i < packageNames.length; i++) {
+		IClassFile[] classFiles = root.getPackageFragment(packageNames[i]).getClassFiles();
+		for (int j = 0; j < classFiles.length; j++)
+			classFiles[j].getType().getChildren();
+	}
+}
+
 /*
  * Performance test for looking up package fragments
  * (see bug 72683 Slow code assist in Display view)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,6 +23,7 @@
 package org.eclipse.jdt.internal.compiler.batch;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -55,6 +56,7 @@ import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.zip.ZipOutputStream;
 
 import org.eclipse.jdt.core.compiler.CategorizedProblem;
 import org.eclipse.jdt.core.compiler.CharOperation;
@@ -485,6 +487,21 @@ public class Main implements ProblemSeverities, SuffixConstants {
 				}
 			}
 		}
+		/**
+		 * Logs a class file written as the given entry of the given archive,
+		 * the path of which is the path of the archive and the entry name separated by '|'.
+		 */
+		public void logArchiveClassFile(String archiveName, String entryName) {
+			if ((this.tagBits & Logger.XML) != 0) {
+				File f = new File(archiveName);
+				try {
+					this.parameters.put(Logger.PATH, f.getCanonicalPath() + '|' + entryName);
+					printTag(Logger.CLASS_FILE, this.parameters, true, true);
+				} catch (IOException e) {
+					logNoClassFileCreated(archiveName, entryName, e);
+				}
+			}
+		}
 		public void logClasspath(FileSystem.Classpath[] classpaths) {
 			if (classpaths == null) return;
 			if ((this.tagBits & Logger.XML) != 0) {
@@ -692,6 +709,22 @@ public class Main implements ProblemSeverities, SuffixConstants {
 				}));
 		}
 
+		public void logNoArchiveCreated(String archiveName, IOException e) {
+			if ((this.tagBits & Logger.XML) != 0) {
+				this.parameters.put(Logger.MESSAGE, this.main.bind("output.noArchiveCreated", //$NON-NLS-1$
+					new String[] {
+						archiveName,
+						e.getMessage()
+					}));
+				printTag(Logger.ERROR_TAG, this.parameters, true, true);
+			}
+			this.printlnErr(this.main.bind("output.noArchiveCreated", //$NON-NLS-1$
+				new String[] {
+					archiveName,
+					e.getMessage()
+				}));
+		}
+
 		/**
 		 * @param exportedClassFilesCounter
 		 */
@@ -1312,6 +1345,9 @@ public class Main implements ProblemSeverities, SuffixConstants {
 	public String[] filenames;
 	public String[] classNames;
 	// overrides of destinationPath on a directory argument basis
+	// archives being written for destination paths that name a .jar or .zip file
+	// (destination path -> ZipOutputStream), closed once the compilation is done
+	private Map outputArchives;
 	public int globalErrorsCount;
 	public int globalProblemsCount;
 	public int globalTasksCount;
@@ -4015,6 +4051,11 @@ public void outputClassFiles(CompilationResult unitResult) {
 			currentDestinationPath = compilationUnit.destinationPath;
 			generateClasspathStructure = true;
 		} // else leave currentDestinationPath null
+		ZipOutputStream archive = null;
+		if (generateClasspathStructure && isOutputArchive(currentDestinationPath)) {
+			archive = getOutputArchive(currentDestinationPath);
+			if (archive == null) currentDestinationPath = null; // reported already
+		}
 		if (currentDestinationPath != null) {
 			for (int i = 0, fileCount = classFiles.length; i < fileCount; i++) {
 				// retrieve the key and the corresponding classfile
@@ -4024,6 +4065,26 @@ public void outputClassFiles(CompilationResult unitResult) {
 				char[] relativeName = new char[length + 6];
 				System.arraycopy(filename, 0, relativeName, 0, length);
 				System.arraycopy(SuffixConstants.SUFFIX_class, 0, relativeName, length, 6);
+				if (archive != null) {
+					// archive entries always use '/' as separator
+					String entryName = new String(relativeName);
+					try {
+						if (this.compilerOptions.verbose)
+							this.out.println(
+								Messages.bind(
+									Messages.compilation_write,
+									new String[] {
+										String.valueOf(this.exportedClassFilesCounter+1),
+										entryName
+									}));
+						Util.writeToArchive(archive, entryName, classFile);
+						this.logger.logArchiveClassFile(currentDestinationPath, entryName);
+						this.exportedClassFilesCounter++;
+					} catch (IOException e) {
+						this.logger.logNoClassFileCreated(currentDestinationPath, entryName, e);
+					}
+					continue;
+				}
 				CharOperation.replace(relativeName, '/', File.separatorChar);
 				String relativeStringName = new String(relativeName);
 				try {
@@ -4049,9 +4110,62 @@ public void outputClassFiles(CompilationResult unitResult) {
 					this.logger.logNoClassFileCreated(currentDestinationPath, relativeStringName, e);
 				}
 			}
-			this.batchCompiler.lookupEnvironment.releaseClassFiles(classFiles);
 		}
 	}
+	if (unitResult != null) {
+		// give the class files back to the pool even if they were not written out (-d none, errors)
+		this.batchCompiler.lookupEnvironment.releaseClassFiles(unitResult.getClassFiles());
+	}
+}
+/*
+ * Answer whether class files for the given destination path are to be
+ * written into a .jar or .zip archive rather than into a directory tree.
+ */
+private static boolean isOutputArchive(String destinationPath) {
+	if (destinationPath == null) return false;
+	int length = destinationPath.length();
+	if (length < 4 || destinationPath.charAt(length - 4) != '.') return false;
+	String extension = destinationPath.substring(length - 3).toLowerCase();
+	if (!extension.equals("jar") && !extension.equals("zip")) return false; //$NON-NLS-1$ //$NON-NLS-2$
+	return !new File(destinationPath).isDirectory(); // an existing directory wins
+}
+/*
+ * Answer the archive class files are written into for the given destination
+ * path, creating it on first use, or null if it could not be created.
+ */
+private ZipOutputStream getOutputArchive(String archiveName) {
+	if (this.outputArchives == null) {
+		this.outputArchives = new HashMap();
+	} else if (this.outputArchives.containsKey(archiveName)) {
+		return (ZipOutputStream) this.outputArchives.get(archiveName);
+	}
+	ZipOutputStream archive = null;
+	try {
+		File file = new File(archiveName);
+		File parent = file.getParentFile();
+		if (parent != null && !parent.exists()) {
+			parent.mkdirs();
+		}
+		archive = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+	} catch (IOException e) {
+		this.logger.logNoArchiveCreated(archiveName, e);
+	}
+	this.outputArchives.put(archiveName, archive); // null records the failure so as to report it only once
+	return archive;
+}
+private void closeOutputArchives() {
+	if (this.outputArchives == null) return;
+	for (Iterator iterator = this.outputArchives.entrySet().iterator(); iterator.hasNext();) {
+		Map.Entry entry = (Map.Entry) iterator.next();
+		ZipOutputStream archive = (ZipOutputStream) entry.getValue();
+		if (archive == null) continue;
+		try {
+			archive.close();
+		} catch (IOException e) {
+			this.logger.logNoArchiveCreated((String) entry.getKey(), e);
+		}
+	}
+	this.outputArchives = null;
 }
 /*
  *  Low-level API performing the actual compilation
@@ -4098,6 +4212,7 @@ public void performCompilation() {
 		this.logger.startLoggingSources();
 		this.batchCompiler.compile(getCompilationUnits());
 	} finally {
+		closeOutputArchives();
 		this.logger.endLoggingSources();
 	}
 
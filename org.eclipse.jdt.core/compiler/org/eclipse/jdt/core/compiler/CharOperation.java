@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.compiler;
 
+import java.util.Arrays;
+
 import org.eclipse.jdt.internal.compiler.parser.ScannerHelper;
 
 /**
@@ -1661,17 +1663,9 @@ public static final boolean equals(
  * @return true if the two arrays are identical character by character, otherwise false
  */
 public static final boolean equals(char[] first, char[] second) {
-	if (first == second)
-		return true;
-	if (first == null || second == null)
-		return false;
-	if (first.length != second.length)
-		return false;
-
-	for (int i = first.length; --i >= 0;)
-		if (first[i] != second[i])
-			return false;
-	return true;
+	// Arrays#equals(char[], char[]) is intrinsified by the VM and compares several characters at a time,
+	// which makes a difference on long arrays (qualified names, file names, sources)
+	return Arrays.equals(first, second);
 }
 
 /**
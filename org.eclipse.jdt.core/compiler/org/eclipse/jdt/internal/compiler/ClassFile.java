@@ -14,11 +14,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.core.compiler.CategorizedProblem;
@@ -3194,8 +3191,7 @@ public class ClassFile implements TypeConstants, TypeIds {
 		StackMapFrameCodeStream stackMapFrameCodeStream = (StackMapFrameCodeStream) this.codeStream;
 		stackMapFrameCodeStream.removeFramePosition(code_length);
 		if (stackMapFrameCodeStream.hasFramePositions()) {
-			Map frames = new HashMap();
-			List realFrames = traverse(isClinit ? null : methodBinding, max_locals, this.contents, codeAttributeOffset + 14, code_length, frames, isClinit);
+			List realFrames = traverse(isClinit ? null : methodBinding, max_locals, this.contents, codeAttributeOffset + 14, code_length, isClinit);
 			int numberOfFrames = realFrames.size();
 			if (numberOfFrames > 1) {
 				int stackMapTableAttributeOffset = localContentsOffset;
@@ -3371,8 +3367,7 @@ public class ClassFile implements TypeConstants, TypeIds {
 		StackMapFrameCodeStream stackMapFrameCodeStream = (StackMapFrameCodeStream) this.codeStream;
 		stackMapFrameCodeStream.removeFramePosition(code_length);
 		if (stackMapFrameCodeStream.hasFramePositions()) {
-			Map frames = new HashMap();
-			List realFrames = traverse(isClinit ? null: methodBinding, max_locals, this.contents, codeAttributeOffset + 14, code_length, frames, isClinit);
+			List realFrames = traverse(isClinit ? null: methodBinding, max_locals, this.contents, codeAttributeOffset + 14, code_length, isClinit);
 			int numberOfFrames = realFrames.size();
 			if (numberOfFrames > 1) {
 				int stackMapTableAttributeOffset = localContentsOffset;
@@ -4242,30 +4237,25 @@ public class ClassFile implements TypeConstants, TypeIds {
 		this.contentsOffset += 2;
 	}
 	
-	private List filterFakeFrames(Set realJumpTargets, Map frames, int codeLength) {
+	private List filterFakeFrames(boolean[] realJumpTargets, StackMapFrame[] frames, int codeLength) {
 		// no more frame to generate
 		// filter out "fake" frames
-		realJumpTargets.remove(new Integer(codeLength));
+		realJumpTargets[codeLength + 1] = false;
 		List result = new ArrayList();
-		for (Iterator iterator = realJumpTargets.iterator(); iterator.hasNext(); ) {
-			Integer jumpTarget = (Integer) iterator.next();
-			StackMapFrame frame = (StackMapFrame) frames.get(jumpTarget);
-			if (frame != null) {
+		// frames are indexed by pc + 1, hence are already sorted
+		for (int i = 0, max = frames.length; i < max; i++) {
+			StackMapFrame frame = frames[i];
+			if (frame != null && realJumpTargets[i]) {
 				result.add(frame);
 			}
 		}
-		Collections.sort(result, new Comparator() {
-			public int compare(Object o1, Object o2) {
-				StackMapFrame frame = (StackMapFrame) o1;
-				StackMapFrame frame2 = (StackMapFrame) o2;
-				return frame.pc - frame2.pc;
-			}
-		});
 		return result;
 	}
 
-	public List traverse(MethodBinding methodBinding, int maxLocals, byte[] bytecodes, int codeOffset, int codeLength, Map frames, boolean isClinit) {
-		Set realJumpTarget = new HashSet(); 
+	public List traverse(MethodBinding methodBinding, int maxLocals, byte[] bytecodes, int codeOffset, int codeLength, boolean isClinit) {
+		// real jump targets and frames are indexed by pc + 1, the initial frame being at pc -1
+		boolean[] realJumpTarget = new boolean[codeLength + 2];
+		StackMapFrame[] frames = new StackMapFrame[codeLength + 2];
 
 		StackMapFrameCodeStream stackMapFrameCodeStream = (StackMapFrameCodeStream) this.codeStream;
 		int[] framePositions = stackMapFrameCodeStream.getFramePositions();
@@ -5529,11 +5519,14 @@ public class ClassFile implements TypeConstants, TypeIds {
 		return filterFakeFrames(realJumpTarget, frames, codeLength);
 	}
 
-	private void addRealJumpTarget(Set realJumpTarget, int pc) {
-		realJumpTarget.add(new Integer(pc));
+	private void addRealJumpTarget(boolean[] realJumpTarget, int pc) {
+		int index = pc + 1;
+		if (index >= 0 && index < realJumpTarget.length) {
+			realJumpTarget[index] = true;
+		}
 	}
-	private void add(Map frames, StackMapFrame frame) {
-		frames.put(new Integer(frame.pc), frame);
+	private void add(StackMapFrame[] frames, StackMapFrame frame) {
+		frames[frame.pc + 1] = frame;
 	}
 	private final int u1At(byte[] reference, int relativeOffset,
 			int structOffset) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -692,55 +692,71 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	 *  ->  build compilation unit declarations, their bindings and record their results.
 	 */
 	protected void internalBeginToCompile(ICompilationUnit[] sourceUnits, int maxUnits) {
-		if (!this.useSingleThread && maxUnits >= ReadManager.THRESHOLD)
-			this.parser.readManager = new ReadManager(sourceUnits, maxUnits);
-
-		// Switch the current policy and compilation result for this unit to the requested one.
-		for (int i = 0; i < maxUnits; i++) {
-			CompilationResult unitResult = null;
-			try {
-				if (this.options.verbose) {
-					this.out.println(
-						Messages.bind(Messages.compilation_request,
-						new String[] {
-							String.valueOf(i + 1),
-							String.valueOf(maxUnits),
-							new String(sourceUnits[i].getFileName())
-						}));
-				}
-				// diet parsing for large collection of units
-				CompilationUnitDeclaration parsedUnit;
-				unitResult = new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
-				long parseStart = System.currentTimeMillis();
-				if (this.totalUnits < this.parseThreshold) {
-					parsedUnit = this.parser.parse(sourceUnits[i], unitResult);
-				} else {
-					parsedUnit = this.parser.dietParse(sourceUnits[i], unitResult);
-				}
-				long resolveStart = System.currentTimeMillis();
-				this.stats.parseTime += resolveStart - parseStart;
-				// initial type binding creation
-				this.lookupEnvironment.buildTypeBindings(parsedUnit, null /*no access restriction*/);
-				this.stats.resolveTime += System.currentTimeMillis() - resolveStart;
-				addCompilationUnit(sourceUnits[i], parsedUnit);
-				ImportReference currentPackage = parsedUnit.currentPackage;
-				if (currentPackage != null) {
-					unitResult.recordPackageName(currentPackage.tokens);
+		ParseManager parseManager = null;
+		if (!this.useSingleThread && maxUnits >= ReadManager.THRESHOLD) {
+			// subclasses configuring a parser of their own or asking for full parses keep parsing on this thread
+			if (this.parseThreshold <= 0 && this.parser.getClass() == Parser.class && ParseManager.THREAD_COUNT > 1)
+				parseManager = new ParseManager(this, sourceUnits, maxUnits);
+			else
+				this.parser.readManager = new ReadManager(sourceUnits, maxUnits);
+		}
+		try {
+			// Switch the current policy and compilation result for this unit to the requested one.
+			for (int i = 0; i < maxUnits; i++) {
+				CompilationResult unitResult = null;
+				try {
+					if (this.options.verbose) {
+						this.out.println(
+							Messages.bind(Messages.compilation_request,
+							new String[] {
+								String.valueOf(i + 1),
+								String.valueOf(maxUnits),
+								new String(sourceUnits[i].getFileName())
+							}));
+					}
+					// diet parsing for large collection of units
+					CompilationUnitDeclaration parsedUnit;
+					long parseStart = System.currentTimeMillis();
+					if (parseManager != null) {
+						parsedUnit = parseManager.getParsedUnit(i);
+						parsedUnit.problemReporter = this.problemReporter;
+						unitResult = parsedUnit.compilationResult;
+					} else {
+						unitResult = new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
+						if (this.totalUnits < this.parseThreshold) {
+							parsedUnit = this.parser.parse(sourceUnits[i], unitResult);
+						} else {
+							parsedUnit = this.parser.dietParse(sourceUnits[i], unitResult);
+						}
+					}
+					long resolveStart = System.currentTimeMillis();
+					this.stats.parseTime += resolveStart - parseStart;
+					// initial type binding creation
+					this.lookupEnvironment.buildTypeBindings(parsedUnit, null /*no access restriction*/);
+					this.stats.resolveTime += System.currentTimeMillis() - resolveStart;
+					addCompilationUnit(sourceUnits[i], parsedUnit);
+					ImportReference currentPackage = parsedUnit.currentPackage;
+					if (currentPackage != null) {
+						unitResult.recordPackageName(currentPackage.tokens);
+					}
+					//} catch (AbortCompilationUnit e) {
+					//	requestor.acceptResult(unitResult.tagAsAccepted());
+				} catch (AbortCompilation a) {
+					// best effort to find a way for reporting this problem:
+					if (a.compilationResult == null)
+						a.compilationResult = unitResult;
+					throw a;
+				} finally {
+					sourceUnits[i] = null; // no longer hold onto the unit
 				}
-				//} catch (AbortCompilationUnit e) {
-				//	requestor.acceptResult(unitResult.tagAsAccepted());
-			} catch (AbortCompilation a) {
-				// best effort to find a way for reporting this problem:
-				if (a.compilationResult == null)
-					a.compilationResult = unitResult;
-				throw a;
-			} finally {
-				sourceUnits[i] = null; // no longer hold onto the unit
 			}
-		}
-		if (this.parser.readManager != null) {
-			this.parser.readManager.shutdown();
-			this.parser.readManager = null;
+		} finally {
+			if (parseManager != null)
+				parseManager.shutdown();
+			if (this.parser.readManager != null) {
+				this.parser.readManager.shutdown();
+				this.parser.readManager = null;
+			}
 		}
 		// binding resolution
 		this.lookupEnvironment.completeTypeBindings();
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.compiler;
+
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.problem.AbortCompilation;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+
+/**
+ * Diet parses the initial set of compilation units on background threads, each with its own parser,
+ * while the compiler thread builds the type bindings of the units in their original order.
+ */
+public class ParseManager implements Runnable {
+	Compiler compiler;
+	ICompilationUnit[] units;
+	int nextUnitToParse;
+	CompilationUnitDeclaration[] parsedUnits;
+	Throwable[] caughtExceptions;
+	Thread[] parsingThreads;
+
+	public static final int THRESHOLD = ReadManager.THRESHOLD;
+	public static final int THREAD_COUNT = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+
+public ParseManager(Compiler compiler, ICompilationUnit[] files, int length) {
+	this.compiler = compiler;
+	synchronized (this) {
+		this.units = new ICompilationUnit[length];
+		System.arraycopy(files, 0, this.units, 0, length);
+		this.nextUnitToParse = 0;
+		this.parsedUnits = new CompilationUnitDeclaration[length];
+		this.caughtExceptions = new Throwable[length];
+		this.parsingThreads = new Thread[THREAD_COUNT];
+		for (int i = THREAD_COUNT; --i >= 0;) {
+			this.parsingThreads[i] = new Thread(this, "Compiler Source File Parser"); //$NON-NLS-1$
+			this.parsingThreads[i].setDaemon(true);
+			this.parsingThreads[i].start();
+		}
+	}
+}
+
+/*
+ * Answer the diet parsed unit at the given index, waiting for it if it is not available yet.
+ * Rethrows in the compiler thread the exception caught while parsing it.
+ */
+public synchronized CompilationUnitDeclaration getParsedUnit(int index) throws Error {
+	while (this.parsedUnits[index] == null && this.caughtExceptions[index] == null) {
+		try {
+			wait(250);
+		} catch (InterruptedException ignore) { // ignore
+		}
+	}
+	Throwable caughtException = this.caughtExceptions[index];
+	if (caughtException != null) {
+		if (caughtException instanceof Error)
+			throw (Error) caughtException;
+		throw (RuntimeException) caughtException;
+	}
+	CompilationUnitDeclaration parsedUnit = this.parsedUnits[index];
+	this.parsedUnits[index] = null; // no longer hold onto the unit
+	return parsedUnit;
+}
+
+public void run() {
+	// problems are reported against each unit's own compilation result, so the parsers only share the reporter's settings
+	ProblemReporter problemReporter = this.compiler.problemReporter;
+	Parser parser = new Parser(
+		new ProblemReporter(problemReporter.policy, this.compiler.options, problemReporter.problemFactory),
+		this.compiler.options.parseLiteralExpressionsAsConstants);
+	int maxUnits = this.units.length;
+	while (true) {
+		int index;
+		ICompilationUnit unit;
+		synchronized (this) {
+			if (this.parsingThreads == null || this.nextUnitToParse >= maxUnits) return;
+			index = this.nextUnitToParse++;
+			unit = this.units[index];
+			this.units[index] = null;
+		}
+		CompilationResult unitResult = new CompilationResult(unit, index, maxUnits, this.compiler.options.maxProblemsPerUnit);
+		CompilationUnitDeclaration parsedUnit = null;
+		Throwable caughtException = null;
+		try {
+			parsedUnit = parser.dietParse(unit, unitResult);
+		} catch (AbortCompilation a) {
+			if (a.compilationResult == null)
+				a.compilationResult = unitResult;
+			caughtException = a;
+		} catch (Error e) {
+			caughtException = e;
+		} catch (RuntimeException e) {
+			caughtException = e;
+		}
+		synchronized (this) {
+			this.parsedUnits[index] = parsedUnit;
+			if (caughtException != null) {
+				this.caughtExceptions[index] = caughtException;
+				this.nextUnitToParse = maxUnits; // the compiler thread will stop at this unit
+			}
+			notifyAll();
+		}
+	}
+}
+
+public synchronized void shutdown() {
+	this.parsingThreads = null; // mark the parse manager as shutting down so that the parsing threads stop
+	notifyAll();
+}
+}
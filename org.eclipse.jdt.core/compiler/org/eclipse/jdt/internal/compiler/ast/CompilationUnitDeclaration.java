@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -76,6 +76,7 @@ public class CompilationUnitDeclaration extends ASTNode implements ProblemSeveri
 	Annotation[] suppressWarningAnnotations;
 	long[] suppressWarningScopePositions; // (start << 32) + end
 	int suppressWarningsCount;
+	IrritantSet[] discardedIrritants; // irritants of the warnings already discarded by discardSuppressedWarning(...)
 
 public CompilationUnitDeclaration(ProblemReporter problemReporter, CompilationResult compilationResult, int sourceLength) {
 	this.problemReporter = problemReporter;
@@ -212,6 +213,8 @@ public void finalizeProblems() {
 	CategorizedProblem[] problems = this.compilationResult.problems;
 	int problemCount = this.compilationResult.problemCount;
 	IrritantSet[] foundIrritants = new IrritantSet[this.suppressWarningsCount];
+	if (this.discardedIrritants != null)
+		System.arraycopy(this.discardedIrritants, 0, foundIrritants, 0, Math.min(this.discardedIrritants.length, this.suppressWarningsCount));
 	CompilerOptions options = this.scope.compilerOptions();
 	boolean hasMandatoryErrors = false;
 	nextProblem: for (int iProblem = 0, length = problemCount; iProblem < length; iProblem++) {
@@ -416,6 +419,38 @@ public boolean isSuppressed(CategorizedProblem problem) {
 	return false;
 }
 
+/**
+ * Answer true if a warning with the given id and positions is suppressed by one of the
+ * SuppressWarnings recorded so far. The warning is then accounted for as if finalizeProblems()
+ * had discarded it, so that the problem does not need to be created at all.
+ */
+public boolean discardSuppressedWarning(int problemId, int start, int end) {
+	if (this.suppressWarningsCount == 0) return false;
+	int irritant = ProblemReporter.getIrritant(problemId);
+	if (irritant == 0) return false;
+	for (int iSuppress = 0, suppressCount = this.suppressWarningsCount; iSuppress < suppressCount; iSuppress++) {
+		long position = this.suppressWarningScopePositions[iSuppress];
+		int startSuppress = (int) (position >>> 32);
+		int endSuppress = (int) position;
+		if (start < startSuppress) continue;
+		if (end > endSuppress) continue;
+		if (!this.suppressWarningIrritants[iSuppress].isSet(irritant)) continue;
+		if (this.discardedIrritants == null) {
+			this.discardedIrritants = new IrritantSet[this.suppressWarningIrritants.length];
+		} else if (this.discardedIrritants.length <= iSuppress) {
+			int length = this.discardedIrritants.length;
+			System.arraycopy(this.discardedIrritants, 0, this.discardedIrritants = new IrritantSet[this.suppressWarningIrritants.length], 0, length);
+		}
+		if (this.discardedIrritants[iSuppress] == null) {
+			this.discardedIrritants[iSuppress] = new IrritantSet(irritant);
+		} else {
+			this.discardedIrritants[iSuppress].set(irritant);
+		}
+		return true;
+	}
+	return false;
+}
+
 public boolean hasErrors() {
 	return this.ignoreFurtherInvestigation;
 }
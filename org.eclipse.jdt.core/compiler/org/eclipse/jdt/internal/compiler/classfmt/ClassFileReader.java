@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,9 +11,13 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.classfmt;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
@@ -22,6 +26,7 @@ import org.eclipse.jdt.internal.compiler.env.*;
 import org.eclipse.jdt.internal.compiler.impl.Constant;
 import org.eclipse.jdt.internal.compiler.lookup.TagBits;
 import org.eclipse.jdt.internal.compiler.lookup.TypeIds;
+import org.eclipse.jdt.internal.compiler.util.CharArrayInternTable;
 import org.eclipse.jdt.internal.compiler.util.Util;
 
 public class ClassFileReader extends ClassFileStruct implements IBinaryType {
@@ -34,6 +39,9 @@ public class ClassFileReader extends ClassFileStruct implements IBinaryType {
 	private AnnotationInfo[] annotations;
 	private FieldInfo[] fields;
 	private int fieldsCount;
+	// offsets of the members not yet decoded, null once all of them have been decoded
+	private int[] fieldOffsets;
+	private int[] methodOffsets;
 
 	// initialized in case the .class file is a nested type
 	private InnerClassInfo innerInfo;
@@ -255,25 +263,24 @@ public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInit
 		this.fieldsCount = u2At(readOffset);
 		readOffset += 2;
 		if (this.fieldsCount != 0) {
-			FieldInfo field;
+			// only record where each field starts, field infos are decoded on demand
 			this.fields = new FieldInfo[this.fieldsCount];
+			this.fieldOffsets = new int[this.fieldsCount];
 			for (int i = 0; i < this.fieldsCount; i++) {
-				field = FieldInfo.createField(this.reference, this.constantPoolOffsets, readOffset);
-				this.fields[i] = field;
-				readOffset += field.sizeInBytes();
+				this.fieldOffsets[i] = readOffset;
+				readOffset = skipMember(readOffset);
 			}
 		}
 		// Read the methods
 		this.methodsCount = u2At(readOffset);
 		readOffset += 2;
 		if (this.methodsCount != 0) {
+			// only record where each method starts, method infos are decoded on demand
 			this.methods = new MethodInfo[this.methodsCount];
-			boolean isAnnotationType = (this.accessFlags & ClassFileConstants.AccAnnotation) != 0;
+			this.methodOffsets = new int[this.methodsCount];
 			for (int i = 0; i < this.methodsCount; i++) {
-				this.methods[i] = isAnnotationType
-					? AnnotationMethodInfo.createAnnotationMethod(this.reference, this.constantPoolOffsets, readOffset)
-					: MethodInfo.createMethod(this.reference, this.constantPoolOffsets, readOffset);
-				readOffset += this.methods[i].sizeInBytes();
+				this.methodOffsets[i] = readOffset;
+				readOffset = skipMember(readOffset);
 			}
 		}
 
@@ -495,9 +502,36 @@ public char[] getEnclosingTypeName() {
  * @return org.eclipse.jdt.internal.compiler.api.IBinaryField[]
  */
 public IBinaryField[] getFields() {
+	if (this.fieldOffsets != null) {
+		for (int i = 0; i < this.fieldsCount; i++) {
+			if (this.fields[i] == null)
+				this.fields[i] = FieldInfo.createField(this.reference, this.constantPoolOffsets, this.fieldOffsets[i]);
+		}
+		this.fieldOffsets = null;
+	}
 	return this.fields;
 }
 
+/**
+ * Answer the field named fieldName or null if there is none.
+ * Only this field gets decoded if the other fields have not been requested yet.
+ */
+public IBinaryField getField(char[] fieldName) {
+	for (int i = 0; i < this.fieldsCount; i++) {
+		FieldInfo field = this.fields[i];
+		if (field == null) {
+			// field name is the second u2 of the field_info structure
+			if (!utf8Equals(u2At(this.fieldOffsets[i] + 2), fieldName))
+				continue;
+			field = this.fields[i] = FieldInfo.createField(this.reference, this.constantPoolOffsets, this.fieldOffsets[i]);
+		} else if (!CharOperation.equals(field.getName(), fieldName)) {
+			continue;
+		}
+		return field;
+	}
+	return null;
+}
+
 /**
  * @see org.eclipse.jdt.internal.compiler.env.IDependent#getFileName()
  */
@@ -611,9 +645,48 @@ public IBinaryNestedType[] getMemberTypes() {
  * @return org.eclipse.jdt.internal.compiler.api.env.IBinaryMethod[]
  */
 public IBinaryMethod[] getMethods() {
+	if (this.methodOffsets != null) {
+		for (int i = 0; i < this.methodsCount; i++) {
+			if (this.methods[i] == null)
+				this.methods[i] = createMethod(i);
+		}
+		this.methodOffsets = null;
+	}
 	return this.methods;
 }
 
+/**
+ * Answer the methods named selector or null if there is none.
+ * Only these methods get decoded if the other methods have not been requested yet.
+ */
+public IBinaryMethod[] getMethods(char[] selector) {
+	IBinaryMethod[] result = null;
+	int count = 0;
+	for (int i = 0; i < this.methodsCount; i++) {
+		MethodInfo method = this.methods[i];
+		if (method == null) {
+			// method name is the second u2 of the method_info structure
+			if (!utf8Equals(u2At(this.methodOffsets[i] + 2), selector))
+				continue;
+			method = this.methods[i] = createMethod(i);
+		} else if (!CharOperation.equals(method.getSelector(), selector)) {
+			continue;
+		}
+		if (result == null)
+			result = new IBinaryMethod[this.methodsCount - i];
+		result[count++] = method;
+	}
+	if (result != null && count != result.length)
+		System.arraycopy(result, 0, result = new IBinaryMethod[count], 0, count);
+	return result;
+}
+
+private MethodInfo createMethod(int index) {
+	return (this.accessFlags & ClassFileConstants.AccAnnotation) != 0
+		? AnnotationMethodInfo.createAnnotationMethod(this.reference, this.constantPoolOffsets, this.methodOffsets[index])
+		: MethodInfo.createMethod(this.reference, this.constantPoolOffsets, this.methodOffsets[index]);
+}
+
 /*
 public static void main(String[] args) throws ClassFormatException, IOException {
 	if (args == null || args.length != 1) {
@@ -831,141 +904,305 @@ public boolean hasStructuralChanges(byte[] newBytes) {
  */
 public boolean hasStructuralChanges(byte[] newBytes, boolean orderRequired, boolean excludesSynthetic) {
 	try {
-		ClassFileReader newClassFile =
-			new ClassFileReader(newBytes, this.classFileName);
-		// type level comparison
-		// modifiers
-		if (getModifiers() != newClassFile.getModifiers())
-			return true;
+		return hasStructuralChanges(new ClassFileReader(newBytes, this.classFileName), orderRequired, excludesSynthetic);
+	} catch (ClassFormatException e) {
+		return true;
+	}
+}
+
+/**
+ * Check if the receiver has structural changes compare to the given reader of the new .class file.
+ * See {@link #hasStructuralChanges(byte[], boolean, boolean)} for the changes that are structural.
+ * @param newClassFile the reader of the .class file we want to compare the receiver to
+ * @param orderRequired a boolean indicating whether the members should be sorted or not
+ * @param excludesSynthetic a boolean indicating whether the synthetic members should be used in the comparison
+ * @return boolean Returns true is there is a structural change between the two .class files, false otherwise
+ */
+public boolean hasStructuralChanges(ClassFileReader newClassFile, boolean orderRequired, boolean excludesSynthetic) {
+	// type level comparison
+	// modifiers
+	if (getModifiers() != newClassFile.getModifiers())
+		return true;
 
-		// only consider a portion of the tagbits which indicate a structural change for dependents
-		// e.g. @Override change has no influence outside
-		long OnlyStructuralTagBits = TagBits.AnnotationTargetMASK // different @Target status ?
-			| TagBits.AnnotationDeprecated // different @Deprecated status ?
-			| TagBits.AnnotationRetentionMASK // different @Retention status ?
-			| TagBits.HierarchyHasProblems; // different hierarchy status ?
+	// only consider a portion of the tagbits which indicate a structural change for dependents
+	// e.g. @Override change has no influence outside
+	long OnlyStructuralTagBits = TagBits.AnnotationTargetMASK // different @Target status ?
+		| TagBits.AnnotationDeprecated // different @Deprecated status ?
+		| TagBits.AnnotationRetentionMASK // different @Retention status ?
+		| TagBits.HierarchyHasProblems; // different hierarchy status ?
 
-		// meta-annotations
-		if ((getTagBits() & OnlyStructuralTagBits) != (newClassFile.getTagBits() & OnlyStructuralTagBits))
+	// meta-annotations
+	if ((getTagBits() & OnlyStructuralTagBits) != (newClassFile.getTagBits() & OnlyStructuralTagBits))
+		return true;
+	// annotations
+	if (hasStructuralAnnotationChanges(getAnnotations(), newClassFile.getAnnotations()))
+		return true;
+
+	// generic signature
+	if (!CharOperation.equals(getGenericSignature(), newClassFile.getGenericSignature()))
+		return true;
+	// superclass
+	if (!CharOperation.equals(getSuperclassName(), newClassFile.getSuperclassName()))
+		return true;
+	// interfaces
+	char[][] newInterfacesNames = newClassFile.getInterfaceNames();
+	if (this.interfaceNames != newInterfacesNames) { // TypeConstants.NoSuperInterfaces
+		int newInterfacesLength = newInterfacesNames == null ? 0 : newInterfacesNames.length;
+		if (newInterfacesLength != this.interfacesCount)
 			return true;
-		// annotations
-		if (hasStructuralAnnotationChanges(getAnnotations(), newClassFile.getAnnotations()))
+		for (int i = 0, max = this.interfacesCount; i < max; i++)
+			if (!CharOperation.equals(this.interfaceNames[i], newInterfacesNames[i]))
+				return true;
+	}
+
+	// member types
+	IBinaryNestedType[] currentMemberTypes = getMemberTypes();
+	IBinaryNestedType[] otherMemberTypes = newClassFile.getMemberTypes();
+	if (currentMemberTypes != otherMemberTypes) { // TypeConstants.NoMemberTypes
+		int currentMemberTypeLength = currentMemberTypes == null ? 0 : currentMemberTypes.length;
+		int otherMemberTypeLength = otherMemberTypes == null ? 0 : otherMemberTypes.length;
+		if (currentMemberTypeLength != otherMemberTypeLength)
 			return true;
+		for (int i = 0; i < currentMemberTypeLength; i++)
+			if (!CharOperation.equals(currentMemberTypes[i].getName(), otherMemberTypes[i].getName())
+				|| currentMemberTypes[i].getModifiers() != otherMemberTypes[i].getModifiers())
+					return true;
+	}
 
-		// generic signature
-		if (!CharOperation.equals(getGenericSignature(), newClassFile.getGenericSignature()))
+	// fields
+	FieldInfo[] fieldInfos = (FieldInfo[]) getFields();
+	FieldInfo[] otherFieldInfos = (FieldInfo[]) newClassFile.getFields();
+	int otherFieldInfosLength = otherFieldInfos == null ? 0 : otherFieldInfos.length;
+	boolean compareFields = true;
+	if (this.fieldsCount == otherFieldInfosLength) {
+		int i = 0;
+		for (; i < this.fieldsCount; i++)
+			if (hasStructuralFieldChanges(fieldInfos[i], otherFieldInfos[i])) break;
+		if ((compareFields = i != this.fieldsCount) && !orderRequired && !excludesSynthetic)
 			return true;
-		// superclass
-		if (!CharOperation.equals(getSuperclassName(), newClassFile.getSuperclassName()))
+	}
+	if (compareFields) {
+		if (this.fieldsCount != otherFieldInfosLength && !excludesSynthetic)
 			return true;
-		// interfaces
-		char[][] newInterfacesNames = newClassFile.getInterfaceNames();
-		if (this.interfaceNames != newInterfacesNames) { // TypeConstants.NoSuperInterfaces
-			int newInterfacesLength = newInterfacesNames == null ? 0 : newInterfacesNames.length;
-			if (newInterfacesLength != this.interfacesCount)
+		if (orderRequired) {
+			if (this.fieldsCount != 0)
+				Arrays.sort(fieldInfos);
+			if (otherFieldInfosLength != 0)
+				Arrays.sort(otherFieldInfos);
+		}
+		if (excludesSynthetic) {
+			if (hasNonSyntheticFieldChanges(fieldInfos, otherFieldInfos))
 				return true;
-			for (int i = 0, max = this.interfacesCount; i < max; i++)
-				if (!CharOperation.equals(this.interfaceNames[i], newInterfacesNames[i]))
+		} else {
+			for (int i = 0; i < this.fieldsCount; i++)
+				if (hasStructuralFieldChanges(fieldInfos[i], otherFieldInfos[i]))
 					return true;
 		}
+	}
 
-		// member types
-		IBinaryNestedType[] currentMemberTypes = getMemberTypes();
-		IBinaryNestedType[] otherMemberTypes = newClassFile.getMemberTypes();
-		if (currentMemberTypes != otherMemberTypes) { // TypeConstants.NoMemberTypes
-			int currentMemberTypeLength = currentMemberTypes == null ? 0 : currentMemberTypes.length;
-			int otherMemberTypeLength = otherMemberTypes == null ? 0 : otherMemberTypes.length;
-			if (currentMemberTypeLength != otherMemberTypeLength)
+	// methods
+	MethodInfo[] methodInfos = (MethodInfo[]) getMethods();
+	MethodInfo[] otherMethodInfos = (MethodInfo[]) newClassFile.getMethods();
+	int otherMethodInfosLength = otherMethodInfos == null ? 0 : otherMethodInfos.length;
+	boolean compareMethods = true;
+	if (this.methodsCount == otherMethodInfosLength) {
+		int i = 0;
+		for (; i < this.methodsCount; i++)
+			if (hasStructuralMethodChanges(methodInfos[i], otherMethodInfos[i])) break;
+		if ((compareMethods = i != this.methodsCount) && !orderRequired && !excludesSynthetic)
+			return true;
+	}
+	if (compareMethods) {
+		if (this.methodsCount != otherMethodInfosLength && !excludesSynthetic)
+			return true;
+		if (orderRequired) {
+			if (this.methodsCount != 0)
+				Arrays.sort(methodInfos);
+			if (otherMethodInfosLength != 0)
+				Arrays.sort(otherMethodInfos);
+		}
+		if (excludesSynthetic) {
+			if (hasNonSyntheticMethodChanges(methodInfos, otherMethodInfos))
 				return true;
-			for (int i = 0; i < currentMemberTypeLength; i++)
-				if (!CharOperation.equals(currentMemberTypes[i].getName(), otherMemberTypes[i].getName())
-					|| currentMemberTypes[i].getModifiers() != otherMemberTypes[i].getModifiers())
-						return true;
+		} else {
+			for (int i = 0; i < this.methodsCount; i++)
+				if (hasStructuralMethodChanges(methodInfos[i], otherMethodInfos[i]))
+					return true;
 		}
+	}
 
-		// fields
-		FieldInfo[] otherFieldInfos = (FieldInfo[]) newClassFile.getFields();
-		int otherFieldInfosLength = otherFieldInfos == null ? 0 : otherFieldInfos.length;
-		boolean compareFields = true;
-		if (this.fieldsCount == otherFieldInfosLength) {
-			int i = 0;
-			for (; i < this.fieldsCount; i++)
-				if (hasStructuralFieldChanges(this.fields[i], otherFieldInfos[i])) break;
-			if ((compareFields = i != this.fieldsCount) && !orderRequired && !excludesSynthetic)
-				return true;
+	// missing types
+	char[][][] missingTypes = getMissingTypeNames();
+	char[][][] newMissingTypes = newClassFile.getMissingTypeNames();
+	if (missingTypes != null) {
+		if (newMissingTypes == null) {
+			return true;
+		}
+		int length = missingTypes.length;
+		if (length != newMissingTypes.length) {
+			return true;
 		}
-		if (compareFields) {
-			if (this.fieldsCount != otherFieldInfosLength && !excludesSynthetic)
+		for (int i = 0; i < length; i++) {
+			if (!CharOperation.equals(missingTypes[i], newMissingTypes[i])) {
 				return true;
-			if (orderRequired) {
-				if (this.fieldsCount != 0)
-					Arrays.sort(this.fields);
-				if (otherFieldInfosLength != 0)
-					Arrays.sort(otherFieldInfos);
-			}
-			if (excludesSynthetic) {
-				if (hasNonSyntheticFieldChanges(this.fields, otherFieldInfos))
-					return true;
-			} else {
-				for (int i = 0; i < this.fieldsCount; i++)
-					if (hasStructuralFieldChanges(this.fields[i], otherFieldInfos[i]))
-						return true;
 			}
 		}
+	} else if (newMissingTypes != null) {
+		return true;
+	}
+	return false;
+}
 
-		// methods
-		MethodInfo[] otherMethodInfos = (MethodInfo[]) newClassFile.getMethods();
-		int otherMethodInfosLength = otherMethodInfos == null ? 0 : otherMethodInfos.length;
-		boolean compareMethods = true;
-		if (this.methodsCount == otherMethodInfosLength) {
-			int i = 0;
-			for (; i < this.methodsCount; i++)
-				if (hasStructuralMethodChanges(this.methods[i], otherMethodInfos[i])) break;
-			if ((compareMethods = i != this.methodsCount) && !orderRequired && !excludesSynthetic)
-				return true;
+/**
+ * Answer a digest of the structure of the receiver, i.e. of the elements compared by
+ * {@link #hasStructuralChanges(byte[])}: modifiers, meta-annotations and annotations, generic
+ * signature, superclass, superinterfaces, member types, non-synthetic fields (including their constant
+ * values) and methods, and missing types. The members are sorted, so the digest does not depend
+ * on their order in the class file.
+ * Two class files which have structural changes compared to one another have different
+ * fingerprints, which allows to detect structural changes without keeping the previous class file
+ * around. The opposite does not hold: some changes which are not considered structural by
+ * {@link #hasStructuralChanges(byte[])} may still change the fingerprint (e.g. the value of
+ * an annotation which is an array).
+ *
+ * @return the digest of the structure of the receiver, or null if it could not be computed
+ */
+public byte[] getStructuralFingerprint() {
+	MessageDigest digest;
+	try {
+		digest = MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+	} catch (NoSuchAlgorithmException e) {
+		return null;
+	}
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+	DataOutputStream out = new DataOutputStream(bytes);
+	try {
+		// same portion of the tagbits as the one considered by hasStructuralChanges(byte[], boolean, boolean)
+		long OnlyStructuralTagBits = TagBits.AnnotationTargetMASK
+			| TagBits.AnnotationDeprecated
+			| TagBits.AnnotationRetentionMASK
+			| TagBits.HierarchyHasProblems;
+		out.writeInt(getModifiers());
+		out.writeLong(getTagBits() & OnlyStructuralTagBits);
+		writeAnnotations(getAnnotations(), out);
+		writeName(getGenericSignature(), out);
+		writeName(getSuperclassName(), out);
+		writeNames(getInterfaceNames(), out);
+
+		IBinaryNestedType[] memberTypes = getMemberTypes();
+		int length = memberTypes == null ? 0 : memberTypes.length;
+		out.writeInt(length);
+		for (int i = 0; i < length; i++) {
+			writeName(memberTypes[i].getName(), out);
+			out.writeInt(memberTypes[i].getModifiers());
 		}
-		if (compareMethods) {
-			if (this.methodsCount != otherMethodInfosLength && !excludesSynthetic)
-				return true;
-			if (orderRequired) {
-				if (this.methodsCount != 0)
-					Arrays.sort(this.methods);
-				if (otherMethodInfosLength != 0)
-					Arrays.sort(otherMethodInfos);
-			}
-			if (excludesSynthetic) {
-				if (hasNonSyntheticMethodChanges(this.methods, otherMethodInfos))
-					return true;
-			} else {
-				for (int i = 0; i < this.methodsCount; i++)
-					if (hasStructuralMethodChanges(this.methods[i], otherMethodInfos[i]))
-						return true;
+
+		FieldInfo[] fieldInfos = (FieldInfo[]) getFields();
+		if (fieldInfos != null) {
+			System.arraycopy(fieldInfos, 0, fieldInfos = new FieldInfo[length = fieldInfos.length], 0, length);
+			Arrays.sort(fieldInfos); // do not reorder the members of the receiver
+			for (int i = 0; i < length; i++) {
+				FieldInfo field = fieldInfos[i];
+				if (field.isSynthetic()) continue;
+				out.writeByte('F');
+				writeName(field.getGenericSignature(), out);
+				out.writeInt(field.getModifiers());
+				out.writeBoolean((field.getTagBits() & TagBits.AnnotationDeprecated) != 0);
+				writeAnnotations(field.getAnnotations(), out);
+				writeName(field.getName(), out);
+				writeName(field.getTypeName(), out);
+				if (field.hasConstant()) {
+					Constant constant = field.getConstant();
+					out.writeInt(constant.typeID());
+					out.writeUTF(constant.getClass().getName());
+					out.writeUTF(constant.typeID() == TypeIds.T_JavaLangString ? constant.stringValue() : constant.toString());
+				} else {
+					out.writeInt(-1);
+				}
 			}
 		}
 
-		// missing types
-		char[][][] missingTypes = getMissingTypeNames();
-		char[][][] newMissingTypes = newClassFile.getMissingTypeNames();
-		if (missingTypes != null) {
-			if (newMissingTypes == null) {
-				return true;
-			}
-			int length = missingTypes.length;
-			if (length != newMissingTypes.length) {
-				return true;
-			}
+		MethodInfo[] methodInfos = (MethodInfo[]) getMethods();
+		if (methodInfos != null) {
+			System.arraycopy(methodInfos, 0, methodInfos = new MethodInfo[length = methodInfos.length], 0, length);
+			Arrays.sort(methodInfos); // do not reorder the members of the receiver
 			for (int i = 0; i < length; i++) {
-				if (!CharOperation.equals(missingTypes[i], newMissingTypes[i])) {
-					return true;
-				}
+				MethodInfo method = methodInfos[i];
+				if (method.isSynthetic() || method.isClinit()) continue;
+				out.writeByte('M');
+				writeName(method.getGenericSignature(), out);
+				out.writeInt(method.getModifiers());
+				out.writeBoolean((method.getTagBits() & TagBits.AnnotationDeprecated) != 0);
+				writeAnnotations(method.getAnnotations(), out);
+				int annotatedParametersCount = method.getAnnotatedParametersCount();
+				out.writeInt(annotatedParametersCount);
+				for (int j = 0; j < annotatedParametersCount; j++)
+					writeAnnotations(method.getParameterAnnotations(j), out);
+				writeName(method.getSelector(), out);
+				writeName(method.getMethodDescriptor(), out);
+				writeNames(method.getExceptionTypeNames(), out);
 			}
-		} else if (newMissingTypes != null) {
-			return true;
 		}
-		return false;
-	} catch (ClassFormatException e) {
-		return true;
+
+		char[][][] missingTypes = getMissingTypeNames();
+		length = missingTypes == null ? 0 : missingTypes.length;
+		out.writeInt(length);
+		for (int i = 0; i < length; i++)
+			writeNames(missingTypes[i], out);
+		out.flush();
+	} catch (IOException e) {
+		return null; // cannot happen when writing into memory
 	}
+	return digest.digest(bytes.toByteArray());
+}
+
+private static void writeAnnotations(IBinaryAnnotation[] annotations, DataOutputStream out) throws IOException {
+	int length = annotations == null ? 0 : annotations.length;
+	out.writeInt(length);
+	for (int i = 0; i < length; i++) {
+		writeName(annotations[i].getTypeName(), out);
+		IBinaryElementValuePair[] pairs = annotations[i].getElementValuePairs();
+		int pairsLength = pairs == null ? 0 : pairs.length;
+		out.writeInt(pairsLength);
+		for (int j = 0; j < pairsLength; j++) {
+			writeName(pairs[j].getName(), out);
+			writeElementValue(pairs[j].getValue(), out);
+		}
+	}
+}
+
+private static void writeElementValue(Object value, DataOutputStream out) throws IOException {
+	if (value instanceof Object[]) {
+		Object[] values = (Object[]) value;
+		out.writeByte('[');
+		out.writeInt(values.length);
+		for (int i = 0, length = values.length; i < length; i++)
+			writeElementValue(values[i], out);
+	} else if (value instanceof IBinaryAnnotation) {
+		out.writeByte('@');
+		writeAnnotations(new IBinaryAnnotation[] {(IBinaryAnnotation) value}, out);
+	} else {
+		// constants, class literals and enum constants all have a descriptive toString()
+		out.writeByte('=');
+		out.writeUTF(String.valueOf(value));
+	}
+}
+
+private static void writeName(char[] name, DataOutputStream out) throws IOException {
+	if (name == null) {
+		out.writeInt(-1);
+		return;
+	}
+	out.writeInt(name.length);
+	for (int i = 0, length = name.length; i < length; i++)
+		out.writeChar(name[i]);
+}
+
+private static void writeNames(char[][] names, DataOutputStream out) throws IOException {
+	int length = names == null ? 0 : names.length;
+	out.writeInt(length);
+	for (int i = 0; i < length; i++)
+		writeName(names[i], out);
 }
 
 private boolean hasStructuralAnnotationChanges(IBinaryAnnotation[] currentAnnotations, IBinaryAnnotation[] otherAnnotations) {
@@ -1108,6 +1345,9 @@ private boolean hasStructuralMethodChanges(MethodInfo currentMethodInfo, MethodI
  */
 private void initialize() throws ClassFormatException {
 	try {
+		// decode all members before the bytes are discarded
+		getFields();
+		getMethods();
 		for (int i = 0, max = this.fieldsCount; i < max; i++) {
 			this.fields[i].initialize();
 		}
@@ -1132,6 +1372,25 @@ private void initialize() throws ClassFormatException {
 	}
 }
 
+/**
+ * Replaces the names decoded from the class file (e.g. super type names, member selectors, descriptors
+ * and signatures) with the equal ones found in the given table, so that the many binary types kept
+ * in memory at once share them. Does nothing if the receiver was not fully initialized.
+ * The names are shared afterwards and must not be modified.
+ */
+public void internNames(CharArrayInternTable names) {
+	if (this.reference != null) return;
+	this.superclassName = intern(names, this.superclassName);
+	intern(names, this.interfaceNames);
+	this.signature = intern(names, this.signature);
+	for (int i = 0, max = this.fieldsCount; i < max; i++) {
+		this.fields[i].internNames(names);
+	}
+	for (int i = 0, max = this.methodsCount; i < max; i++) {
+		this.methods[i].internNames(names);
+	}
+}
+
 /**
  * Answer true if the receiver is an anonymous type, false otherwise
  *
@@ -1185,6 +1444,18 @@ public boolean isNestedType() {
 	return this.innerInfo != null;
 }
 
+/*
+ * Answer the offset right after the field_info or method_info structure starting at offset.
+ */
+private int skipMember(int offset) {
+	int attributesCount = u2At(offset + 6);
+	int readOffset = offset + 8;
+	for (int i = 0; i < attributesCount; i++) {
+		readOffset += (6 + u4At(readOffset + 2));
+	}
+	return readOffset;
+}
+
 /**
  * Answer the source file name attribute. Return null if there is no source file attribute for the receiver.
  *
@@ -1204,4 +1475,34 @@ public String toString() {
 	print.flush();
 	return out.toString();
 }
+
+/*
+ * Answer whether the utf8 constant at the given constant pool index decodes to the given characters,
+ * without allocating the decoded value.
+ */
+private boolean utf8Equals(int constantPoolIndex, char[] chars) {
+	int utf8Offset = this.constantPoolOffsets[constantPoolIndex];
+	int length = u2At(utf8Offset + 1);
+	if (length < chars.length)
+		return false; // each char needs at least one byte
+	int readOffset = utf8Offset + 3;
+	int end = readOffset + length;
+	int index = 0;
+	int charsLength = chars.length;
+	while (readOffset < end) {
+		if (index == charsLength)
+			return false;
+		int x = this.reference[readOffset++] & 0xFF;
+		if ((0x80 & x) != 0) {
+			if ((x & 0x20) != 0) {
+				x = ((x & 0xF) << 12) | ((this.reference[readOffset++] & 0x3F) << 6) | (this.reference[readOffset++] & 0x3F);
+			} else {
+				x = ((x & 0x1F) << 6) | (this.reference[readOffset++] & 0x3F);
+			}
+		}
+		if (chars[index++] != (char) x)
+			return false;
+	}
+	return index == charsLength;
+}
 }
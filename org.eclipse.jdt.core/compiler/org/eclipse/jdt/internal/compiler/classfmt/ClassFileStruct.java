@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.classfmt;
 
+import org.eclipse.jdt.internal.compiler.util.CharArrayInternTable;
+
 abstract public class ClassFileStruct {
 	byte[] reference;
 	int[] constantPoolOffsets;
@@ -25,6 +27,15 @@ public double doubleAt(int relativeOffset) {
 public float floatAt(int relativeOffset) {
 	return (Float.intBitsToFloat(i4At(relativeOffset)));
 }
+static char[] intern(CharArrayInternTable names, char[] name) {
+	if (name == null) return null;
+	return names.intern(name, 0, name.length);
+}
+static void intern(CharArrayInternTable names, char[][] nameArray) {
+	if (nameArray == null) return;
+	for (int i = nameArray.length; --i >= 0;)
+		nameArray[i] = intern(names, nameArray[i]);
+}
 public int i4At(int relativeOffset) {
 	int position = relativeOffset + this.structOffset;
 	return ((this.reference[position++] & 0xFF) << 24) | ((this.reference[position++] & 0xFF) << 16) | ((this.reference[position++] & 0xFF) << 8) + (this.reference[position] & 0xFF);
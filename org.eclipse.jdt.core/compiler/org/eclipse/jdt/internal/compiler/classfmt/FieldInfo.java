@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import org.eclipse.jdt.internal.compiler.env.IBinaryAnnotation;
 import org.eclipse.jdt.internal.compiler.env.IBinaryField;
 import org.eclipse.jdt.internal.compiler.impl.*;
 import org.eclipse.jdt.internal.compiler.lookup.TypeIds;
+import org.eclipse.jdt.internal.compiler.util.CharArrayInternTable;
 import org.eclipse.jdt.internal.compiler.util.Util;
 
 public class FieldInfo extends ClassFileStruct implements IBinaryField, Comparable {
@@ -223,6 +224,14 @@ protected void initialize() {
 	getGenericSignature();
 	reset();
 }
+/*
+ * Shares the names decoded by initialize() with the other fields having equal ones.
+ */
+void internNames(CharArrayInternTable names) {
+	this.name = intern(names, this.name);
+	this.descriptor = intern(names, this.descriptor);
+	this.signature = intern(names, this.signature);
+}
 /**
  * Return true if the field is a synthetic field, false otherwise.
  * @return boolean
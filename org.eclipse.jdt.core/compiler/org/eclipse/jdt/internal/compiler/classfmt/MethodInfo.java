@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import org.eclipse.jdt.internal.compiler.codegen.AttributeNamesConstants;
 import org.eclipse.jdt.internal.compiler.codegen.ConstantPool;
 import org.eclipse.jdt.internal.compiler.env.IBinaryAnnotation;
 import org.eclipse.jdt.internal.compiler.env.IBinaryMethod;
+import org.eclipse.jdt.internal.compiler.util.CharArrayInternTable;
 import org.eclipse.jdt.internal.compiler.util.Util;
 
 public class MethodInfo extends ClassFileStruct implements IBinaryMethod, Comparable {
@@ -304,6 +305,16 @@ protected void initialize() {
 	getArgumentNames();
 	reset();
 }
+/*
+ * Shares the names decoded by initialize() with the other methods having equal ones.
+ */
+void internNames(CharArrayInternTable names) {
+	this.name = intern(names, this.name);
+	this.descriptor = intern(names, this.descriptor);
+	this.signature = intern(names, this.signature);
+	intern(names, this.exceptionNames);
+	intern(names, this.argumentNames);
+}
 /**
  * Answer true if the method is a class initializer, false otherwise.
  * @return boolean
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 IBM Corporation and others.
+ * Copyright (c) 2006, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,7 +12,6 @@ package org.eclipse.jdt.internal.compiler.codegen;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -124,13 +123,15 @@ public class StackMapFrameCodeStream extends CodeStream {
 		}
 	}
 
-	static class FramePosition {
-		int counter;
-	}
-
 	public int[] stateIndexes;
 	public int stateIndexesCounter;
-	private HashMap framePositions;
+	/*
+	 * Frame positions indexed by pc: 0 if there is no frame at the given pc, otherwise
+	 * 1 + the number of additional times the frame position was recorded
+	 */
+	private int[] framePositions;
+	private int framePositionsCount;
+	private int maxFramePosition = -1;
 	public Set exceptionMarkers;
 	public ArrayList stackDepthMarkers;
 	public ArrayList stackMarkers;
@@ -203,12 +204,16 @@ public void addExceptionMarker(int pc, TypeBinding typeBinding) {
 	}
 }
 public void addFramePosition(int pc) {
-	Integer newEntry = new Integer(pc);
-	FramePosition value;
-	if ((value = (FramePosition) this.framePositions.get(newEntry)) != null) {
-		value.counter++;
-	} else {
-		this.framePositions.put(newEntry, new FramePosition());
+	if (pc < 0) return; // not a valid frame position
+	int length = this.framePositions.length;
+	if (pc >= length) {
+		int newLength = length * 2;
+		if (newLength <= pc) newLength = pc + 1;
+		System.arraycopy(this.framePositions, 0, (this.framePositions = new int[newLength]), 0, length);
+	}
+	if (this.framePositions[pc]++ == 0) {
+		this.framePositionsCount++;
+		if (pc > this.maxFramePosition) this.maxFramePosition = pc;
 	}
 }
 public void optimizeBranch(int oldPosition, BranchLabel lbl) {
@@ -216,15 +221,26 @@ public void optimizeBranch(int oldPosition, BranchLabel lbl) {
 	removeFramePosition(oldPosition);
 }
 public void removeFramePosition(int pc) {
-	Integer entry = new Integer(pc);
-	FramePosition value;
-	if ((value = (FramePosition) this.framePositions.get(entry)) != null) {
-		value.counter--;
-		if (value.counter <= 0) {
-			this.framePositions.remove(entry);
+	if (pc < 0 || pc > this.maxFramePosition) return;
+	int value = this.framePositions[pc];
+	if (value != 0) {
+		if (value <= 2) {
+			this.framePositions[pc] = 0;
+			this.framePositionsCount--;
+		} else {
+			this.framePositions[pc] = value - 1;
 		}
 	}
 }
+private void clearFramePositions() {
+	if (this.framePositions == null) {
+		this.framePositions = new int[64];
+	} else if (this.maxFramePosition >= 0) {
+		Arrays.fill(this.framePositions, 0, this.maxFramePosition + 1, 0);
+	}
+	this.framePositionsCount = 0;
+	this.maxFramePosition = -1;
+}
 public void addVariable(LocalVariableBinding localBinding) {
 	if (localBinding.initializationPCs == null) {
 		record(localBinding);
@@ -386,14 +402,13 @@ public ExceptionMarker[] getExceptionMarkers() {
 	return markers;
 }
 public int[] getFramePositions() {
-	Set set = this.framePositions.keySet();
-	int size = set.size();
+	int size = this.framePositionsCount;
 	int[] positions = new int[size];
-	int n = 0;
-	for (Iterator iterator = set.iterator(); iterator.hasNext(); ) {
-		positions[n++] = ((Integer) iterator.next()).intValue();
+	for (int pc = 0, n = 0; n < size; pc++) {
+		if (this.framePositions[pc] != 0) {
+			positions[n++] = pc;
+		}
 	}
-	Arrays.sort(positions);
 //  System.out.print('[');
 //  for (int n = 0; n < size; n++) {
 //  	if (n != 0) System.out.print(',');
@@ -419,13 +434,13 @@ public StackMarker[] getStackMarkers() {
 	return result;
 }
 public boolean hasFramePositions() {
-	return this.framePositions.size() != 0;
+	return this.framePositionsCount != 0;
 }
 public void init(ClassFile targetClassFile) {
 	super.init(targetClassFile);
 	this.stateIndexesCounter = 0;
 	if (this.framePositions != null) {
-		this.framePositions.clear();
+		clearFramePositions();
 	}
 	if (this.exceptionMarkers != null) {
 		this.exceptionMarkers.clear();
@@ -440,11 +455,7 @@ public void init(ClassFile targetClassFile) {
 
 public void initializeMaxLocals(MethodBinding methodBinding) {
 	super.initializeMaxLocals(methodBinding);
-	if (this.framePositions == null) {
-		this.framePositions = new HashMap();
-	} else {
-		this.framePositions.clear();
-	}
+	clearFramePositions();
 }
 public void popStateIndex() {
 	this.stateIndexesCounter--;
@@ -483,7 +494,7 @@ public void reset(ClassFile givenClassFile) {
 	super.reset(givenClassFile);
 	this.stateIndexesCounter = 0;
 	if (this.framePositions != null) {
-		this.framePositions.clear();
+		clearFramePositions();
 	}
 	if (this.exceptionMarkers != null) {
 		this.exceptionMarkers.clear();
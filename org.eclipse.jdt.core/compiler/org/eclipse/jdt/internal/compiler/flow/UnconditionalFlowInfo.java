@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -88,6 +88,9 @@ public class UnconditionalFlowInfo extends FlowInfo {
 		// extra[0] holds definiteInits values, extra[1] potentialInits, etc.
 		// lifecycle is extra == null or else all extra[]'s are allocated
 		// arrays which have the same size
+	private boolean extraShared;
+		// extra may be shared with copies of this flow info (see #copy()),
+		// in which case it must be copied before being modified (see #unshareExtra())
 
 	public int maxFieldCount; // limit between fields and locals
 
@@ -172,6 +175,7 @@ private FlowInfo addInfoFrom(FlowInfo inits, boolean handleInits) {
 		this.tagBits |= NULL_FLAG_MASK; // in all cases - avoid forgetting extras
 	}
 	// treating extra storage
+	unshareExtra();
 	if (this.extra != null || otherInits.extra != null) {
 		int mergeLimit = 0, copyLimit = 0;
 		if (this.extra != null) {
@@ -318,6 +322,7 @@ public FlowInfo addPotentialInitializationsFrom(FlowInfo inits) {
 	// union of potentially set ones
 	this.potentialInits |= otherInits.potentialInits;
 	// treating extra storage
+	unshareExtra();
 	if (this.extra != null) {
 		if (otherInits.extra != null) {
 			// both sides have extra storage
@@ -429,6 +434,7 @@ public UnconditionalFlowInfo addPotentialNullInfoFrom(
 		}
 	}
 	// extra storage management
+	unshareExtra();
 	if (otherInits.extra != null) {
 		int mergeLimit = 0, copyLimit = otherInits.extra[0].length;
 		if (this.extra == null) {
@@ -623,20 +629,19 @@ public FlowInfo copy() {
 	copy.tagBits = this.tagBits;
 	copy.maxFieldCount = this.maxFieldCount;
 	if (this.extra != null) {
-		int length;
-		copy.extra = new long[extraLength][];
-		System.arraycopy(this.extra[0], 0,
-			(copy.extra[0] = new long[length = this.extra[0].length]), 0,
-			length);
-		System.arraycopy(this.extra[1], 0,
-			(copy.extra[1] = new long[length]), 0, length);
 		if (hasNullInfo) {
-			for (int j = 2; j < extraLength; j++) {
-				System.arraycopy(this.extra[j], 0,
-					(copy.extra[j] = new long[length]), 0, length);
-			}
+			// share the extra storage until either side modifies it
+			copy.extra = this.extra;
+			copy.extraShared = this.extraShared = true;
 		}
 		else {
+			int length;
+			copy.extra = new long[extraLength][];
+			System.arraycopy(this.extra[0], 0,
+				(copy.extra[0] = new long[length = this.extra[0].length]), 0,
+				length);
+			System.arraycopy(this.extra[1], 0,
+				(copy.extra[1] = new long[length]), 0, length);
 			for (int j = 2; j < extraLength; j++) {
 				copy.extra[j] = new long[length];
 			}
@@ -657,6 +662,7 @@ public UnconditionalFlowInfo discardInitializationInfo() {
 	this.definiteInits =
 		this.potentialInits = 0;
 	if (this.extra != null) {
+		unshareExtra();
 		for (int i = 0, length = this.extra[0].length; i < length; i++) {
 			this.extra[0][i] = this.extra[1][i] = 0;
 		}
@@ -680,6 +686,7 @@ public UnconditionalFlowInfo discardNonFieldInitializations() {
 		this.nullBit4 &= mask;
 	}
 	// use extra vector
+	unshareExtra();
 	if (this.extra == null) {
 		return this; // if vector not yet allocated, then not initialized
 	}
@@ -1070,6 +1077,7 @@ public void markAsComparedEqualToNonNull(LocalVariableBinding local) {
 		}
 		else {
 			// use extra vector
+			unshareExtra();
 			int vectorIndex = (position / BitCacheSize) - 1;
 			if (this.extra == null) {
 				int length = vectorIndex + 1;
@@ -1164,6 +1172,7 @@ public void markAsComparedEqualToNull(LocalVariableBinding local) {
 		}
 		else {
 			// use extra vector
+			unshareExtra();
 			int vectorIndex = (position / BitCacheSize) - 1;
 			mask = 1L << (position % BitCacheSize);
 			if (this.extra == null) {
@@ -1231,6 +1240,7 @@ final private void markAsDefinitelyAssigned(int position) {
 		}
 		else {
 			// use extra vector
+			unshareExtra();
 			int vectorIndex = (position / BitCacheSize) - 1;
 			if (this.extra == null) {
 				int length = vectorIndex + 1;
@@ -1289,6 +1299,7 @@ public void markAsDefinitelyNonNull(LocalVariableBinding local) {
     	}
     	else {
     		// use extra vector
+    		unshareExtra();
     		int vectorIndex = (position / BitCacheSize) - 1;
     		if (this.extra == null) {
     			int length = vectorIndex + 1;
@@ -1343,6 +1354,7 @@ public void markAsDefinitelyNull(LocalVariableBinding local) {
     	}
     	else {
     		// use extra vector
+    		unshareExtra();
     		int vectorIndex = (position / BitCacheSize) - 1;
     		if (this.extra == null) {
     			int length = vectorIndex + 1;
@@ -1404,6 +1416,7 @@ public void markAsDefinitelyUnknown(LocalVariableBinding local) {
 		}
 		else {
 			// use extra vector
+			unshareExtra();
 			int vectorIndex = (position / BitCacheSize) - 1;
 			if (this.extra == null) {
 				int length = vectorIndex + 1;
@@ -1449,6 +1462,7 @@ public void resetNullInfo(LocalVariableBinding local) {
             this.nullBit4 &= mask;
         } else {
     		// use extra vector
+    		unshareExtra();
     		int vectorIndex = (position / BitCacheSize) - 1;
     		if (this.extra == null || vectorIndex >= this.extra[2].length) {
     			// in case we attempt to reset the null info of a variable that has not been encountered
@@ -1486,6 +1500,7 @@ public void markPotentiallyUnknownBit(LocalVariableBinding local) {
 			}
         } else {
     		// use extra vector
+    		unshareExtra();
     		int vectorIndex = (position / BitCacheSize) - 1;
     		if (this.extra == null) {
 				int length = vectorIndex + 1;
@@ -1536,6 +1551,7 @@ public void markPotentiallyNullBit(LocalVariableBinding local) {
 			}
         } else {
     		// use extra vector
+    		unshareExtra();
     		int vectorIndex = (position / BitCacheSize) - 1;
     		if (this.extra == null) {
 				int length = vectorIndex + 1;
@@ -1586,6 +1602,7 @@ public void markPotentiallyNonNullBit(LocalVariableBinding local) {
 			}
         } else {
     		// use extra vector
+    		unshareExtra();
     		int vectorIndex  = (position / BitCacheSize) - 1;
     		if (this.extra == null) {
 				int length = vectorIndex + 1;
@@ -1721,6 +1738,7 @@ public UnconditionalFlowInfo mergedWith(UnconditionalFlowInfo otherInits) {
 	}
 
 	// treating extra storage
+	unshareExtra();
 	if (this.extra != null || otherInits.extra != null) {
 		int mergeLimit = 0, copyLimit = 0, resetLimit = 0;
 		int i;
@@ -1917,6 +1935,22 @@ public FlowInfo safeInitsWhenTrue() {
 	return copy();
 }
 
+/**
+ * Make sure that the extra storage of this flow info is not shared with any other
+ * flow info, so that it can be modified.
+ */
+private void unshareExtra() {
+	if (this.extraShared) {
+		long[][] sharedExtra = this.extra;
+		this.extra = new long[extraLength][];
+		for (int j = 0; j < extraLength; j++) {
+			int length = sharedExtra[j].length;
+			System.arraycopy(sharedExtra[j], 0, (this.extra[j] = new long[length]), 0, length);
+		}
+		this.extraShared = false;
+	}
+}
+
 public FlowInfo setReachMode(int reachMode) {
 	if (this == DEAD_END) {// cannot modify DEAD_END
 		return this;
@@ -1931,6 +1965,7 @@ public FlowInfo setReachMode(int reachMode) {
 			// see InitializationTest#test090 (and others)
 			this.potentialInits = 0;
 			if (this.extra != null) {
+				unshareExtra();
 				for (int i = 0, length = this.extra[0].length;
 						i < length; i++) {
 					this.extra[1][i] = 0;
@@ -2087,6 +2122,7 @@ public void resetAssignmentInfo(int position) {
 			this.potentialInits &= mask;
 		} else {
 			// use extra vector
+			unshareExtra();
 			int vectorIndex = (position / BitCacheSize) - 1;
 			if (this.extra == null || vectorIndex >= this.extra[0].length) return;	// variable doesnt exist in flow info
 			long mask;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -858,6 +858,10 @@ protected TypeDeclaration[] recoveredTypes;
 protected int recoveredTypePtr;
 protected int nextTypeStart;
 protected TypeDeclaration pendingRecoveredType;
+// recovery budget (see #setRecoveryBudget(int))
+protected int maxRecoveryAttempts = Integer.MAX_VALUE;
+private CompilationUnitDeclaration recoveryBudgetUnit;
+private int recoveryAttempts;
 public RecoveryScanner recoveryScanner;
 //scanner token
 public Scanner scanner;
@@ -9608,7 +9612,7 @@ protected void parse() {
 				this.hasError = true;
 			}
 			int previousToken = this.currentToken;
-			if (resumeOnSyntaxError()) {
+			if (spendRecoveryBudget() && resumeOnSyntaxError()) {
 				if (act == ERROR_ACTION && previousToken != 0) this.lastErrorEndPosition = errorPos;
 				act = START_STATE;
 				this.stateStackTop = -1;
@@ -9743,7 +9747,7 @@ protected void parse() {
 					this.recoveryScanner.getData();
 			}
 
-			if (this.methodRecoveryActivated && this.options.performStatementsRecovery) {
+			if (this.methodRecoveryActivated && this.options.performStatementsRecovery && spendRecoveryBudget()) {
 				this.methodRecoveryActivated = false;
 				recoverStatements();
 				this.methodRecoveryActivated = true;
@@ -10489,6 +10493,7 @@ protected void pushOnRealBlockStack(int i){
 	this.realBlockStack[this.realBlockPtr] = i;
 }
 protected void recoverStatements() {
+	RecoveryStatistics.record(RecoveryStatistics.STATEMENTS_RECOVERIES);
 	class MethodVisitor extends ASTVisitor {
 		public ASTVisitor typeVisitor;
 
@@ -10802,6 +10807,37 @@ private void reportSyntaxErrorsForSkippedMethod(TypeDeclaration[] types){
 		}
 	}
 }
+/**
+ * Releases the references this parser holds on the last parsed source and unit,
+ * e.g. before keeping it for later reuse.
+ */
+public void release() {
+	initialize();
+	this.scanner.setSource((char[]) null);
+	this.recoveryScanner = null;
+	this.recoveryBudgetUnit = null;
+}
+/**
+ * Resets this parser so that it can be reused with the given problem reporter,
+ * whose options may differ from the ones this parser was created with.
+ * The internal stacks are kept to avoid growing them again.
+ */
+public void reset(ProblemReporter reporter, boolean optimizeLiterals) {
+	this.problemReporter = reporter;
+	this.options = reporter.options;
+	this.optimizeStringLiterals = optimizeLiterals;
+	initializeScanner();
+	this.javadocParser = createJavadocParser();
+	this.recoveryScanner = null;
+	this.readManager = null;
+	this.reportOnlyOneSyntaxError = false;
+	this.reportSyntaxErrorIsRequired = true;
+	this.methodRecoveryActivated = false;
+	this.statementRecoveryActivated = false;
+	this.maxRecoveryAttempts = Integer.MAX_VALUE;
+	this.recoveryBudgetUnit = null;
+	initialize();
+}
 /**
  * Reset modifiers buffer and comment stack. Should be call only for nodes that claim both.
  */
@@ -10881,6 +10917,7 @@ protected boolean resumeAfterRecovery() {
 	}
 }
 protected boolean resumeOnSyntaxError() {
+	RecoveryStatistics.record(RecoveryStatistics.PARSER_RECOVERIES);
 	/* request recovery initialization */
 	if (this.currentElement == null){
 		// Reset javadoc before restart parsing after recovery
@@ -10917,6 +10954,18 @@ protected boolean resumeOnSyntaxError() {
 	/* attempt to reset state in order to resume to parse loop */
 	return resumeAfterRecovery();
 }
+/**
+ * Limits the syntax error recovery performed for each compilation unit to the given
+ * number of attempts (restarts of this parser, repairs while diagnosing the errors,
+ * recovery of the statements).
+ * The budget only depends on the source, so that a given unit is always recovered the same way.
+ * Once the budget of a unit is exhausted, its syntax errors are no longer recovered
+ * nor reported, except the ones already found.
+ */
+public void setRecoveryBudget(int maxAttempts) {
+	this.maxRecoveryAttempts = maxAttempts;
+	this.recoveryBudgetUnit = null;
+}
 public void setMethodsFullRecovery(boolean enabled) {
 	this.options.performMethodsFullRecovery = enabled;
 }
@@ -10924,6 +10973,25 @@ public void setStatementsRecovery(boolean enabled) {
 	if(enabled) this.options.performMethodsFullRecovery = true;
 	this.options.performStatementsRecovery = enabled;
 }
+/**
+ * Spends one recovery attempt from the budget of the unit being parsed.
+ * Answers false if the budget is exhausted, in which case no more recovery
+ * should be attempted.
+ */
+public boolean spendRecoveryBudget() {
+	if (this.recoveryBudgetUnit != this.compilationUnit) {
+		this.recoveryBudgetUnit = this.compilationUnit;
+		this.recoveryAttempts = 0;
+	}
+	if (this.recoveryAttempts < 0) return false; // already exhausted
+	if (this.recoveryAttempts >= this.maxRecoveryAttempts) {
+		this.recoveryAttempts = -1;
+		RecoveryStatistics.record(RecoveryStatistics.EXHAUSTED_BUDGETS);
+		return false;
+	}
+	this.recoveryAttempts++;
+	return true;
+}
 public String toString() {
 
 
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.parser;
+
+import java.lang.ref.SoftReference;
+
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+
+/**
+ * Keeps one released parser per thread so that short-lived clients (e.g. reconcile
+ * or code snippet parsing) can reuse its internal stacks instead of creating a new
+ * parser each time. The cached parser is softly referenced so that it can be
+ * garbage collected when memory is low.
+ */
+public final class ParserCache {
+
+	private static final ThreadLocal ReleasedParser = new ThreadLocal();
+
+private ParserCache() {
+	// non-instantiable
+}
+
+/**
+ * Answers the parser of the given class released by the current thread, reset to use
+ * the given problem reporter, or <code>null</code> if there is none.
+ * The parser must be given back using {@link #release(Parser)} once done with it.
+ */
+public static Parser acquire(Class parserClass, ProblemReporter problemReporter, boolean optimizeStringLiterals) {
+	SoftReference reference = (SoftReference) ReleasedParser.get();
+	if (reference == null) return null;
+	Parser parser = (Parser) reference.get();
+	if (parser == null || parser.getClass() != parserClass) return null;
+	ReleasedParser.set(null);
+	parser.reset(problemReporter, optimizeStringLiterals);
+	return parser;
+}
+
+/**
+ * Gives back the given parser, which must no longer be used by the caller.
+ */
+public static void release(Parser parser) {
+	parser.release();
+	ReleasedParser.set(new SoftReference(parser));
+}
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.parser;
+
+/**
+ * Process-wide counters of the syntax error recovery performed by all the parsers.
+ */
+public final class RecoveryStatistics {
+
+	/** Number of times a parser resumed after a syntax error */
+	public static final int PARSER_RECOVERIES = 0;
+	/** Number of times the statements of a unit were recovered */
+	public static final int STATEMENTS_RECOVERIES = 1;
+	/** Number of times the syntax errors were diagnosed */
+	public static final int DIAGNOSES = 2;
+	/** Number of repairs attempted while diagnosing syntax errors */
+	public static final int REPAIRS = 3;
+	/** Number of times a unit exhausted its recovery budget */
+	public static final int EXHAUSTED_BUDGETS = 4;
+
+	private static final String[] NAMES = {
+		"parser recoveries", //$NON-NLS-1$
+		"statements recoveries", //$NON-NLS-1$
+		"diagnoses", //$NON-NLS-1$
+		"repairs", //$NON-NLS-1$
+		"exhausted budgets", //$NON-NLS-1$
+	};
+	private static final long[] COUNTERS = new long[NAMES.length];
+
+private RecoveryStatistics() {
+	// non-instantiable
+}
+
+/**
+ * Answers the value of the given counter.
+ */
+public static long getCount(int counter) {
+	synchronized (COUNTERS) {
+		return COUNTERS[counter];
+	}
+}
+
+/**
+ * Increments the given counter.
+ */
+public static void record(int counter) {
+	synchronized (COUNTERS) {
+		COUNTERS[counter]++;
+	}
+}
+
+/**
+ * Resets all the counters.
+ */
+public static void reset() {
+	synchronized (COUNTERS) {
+		for (int i = 0, length = COUNTERS.length; i < length; i++)
+			COUNTERS[i] = 0;
+	}
+}
+
+/**
+ * Answers a printable representation of all the counters.
+ */
+public static String print() {
+	StringBuffer buffer = new StringBuffer("Syntax error recovery statistics:"); //$NON-NLS-1$
+	synchronized (COUNTERS) {
+		for (int i = 0, length = COUNTERS.length; i < length; i++) {
+			buffer.append("\n\t").append(NAMES[i]).append(": ").append(COUNTERS[i]); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+	return buffer.toString();
+}
+}
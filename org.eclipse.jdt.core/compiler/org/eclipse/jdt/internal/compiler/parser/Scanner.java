@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.compiler.InvalidInputException;
 import org.eclipse.jdt.internal.compiler.CompilationResult;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.util.CharArrayInternTable;
 import org.eclipse.jdt.internal.compiler.util.Util;
 
 /**
@@ -184,6 +185,9 @@ public class Scanner implements TerminalTokens {
 		newEntry4 = 0,
 		newEntry5 = 0,
 		newEntry6 = 0;
+	// optional table shared by all the scanners to avoid duplicating identifiers
+	private static CharArrayInternTable SharedIdentifiers;
+	private CharArrayInternTable identifiers;
 	public boolean insideRecovery = false;
 
 	public static final int RoundBracket = 0;
@@ -212,6 +216,7 @@ public Scanner(
 		boolean isTaskCaseSensitive) {
 
 	this.eofPosition = Integer.MAX_VALUE;
+	this.identifiers = SharedIdentifiers;
 	this.tokenizeComments = tokenizeComments;
 	this.tokenizeWhiteSpace = tokenizeWhiteSpace;
 	this.sourceLevel = sourceLevel;
@@ -440,9 +445,7 @@ public char[] getCurrentIdentifierSource() {
 		case 6 :
 			return optimizedCurrentTokenSource6();
 	}
-	char[] result = new char[length];
-	System.arraycopy(this.source, this.startPosition, result, 0, length);
-	return result;
+	return newIdentifier(length);
 }
 public int getCurrentTokenEndPosition(){
 	return this.currentPosition - 1;
@@ -2304,6 +2307,18 @@ final char[] optimizedCurrentTokenSource1() {
 			return new char[] {charOne};
 	}
 }
+/*
+ * Answer the identifier made of the given number of characters from the start position,
+ * shared with the other scanners if possible.
+ */
+private char[] newIdentifier(int length) {
+	if (this.identifiers != null) {
+		return this.identifiers.intern(this.source, this.startPosition, length);
+	}
+	char[] result = new char[length];
+	System.arraycopy(this.source, this.startPosition, result, 0, length);
+	return result;
+}
 final char[] optimizedCurrentTokenSource2() {
 	//try to return the same char[] build only once
 
@@ -2328,8 +2343,7 @@ final char[] optimizedCurrentTokenSource2() {
 	}
 	//--------add the entry-------
 	if (++max >= InternalTableSize) max = 0;
-	char[] r;
-	System.arraycopy(src, start, r= new char[2], 0, 2);
+	char[] r = newIdentifier(2);
 	//newIdentCount++;
 	return table[this.newEntry2 = max] = r; //(r = new char[] {c0, c1});
 }
@@ -2358,8 +2372,7 @@ final char[] optimizedCurrentTokenSource3() {
 	}
 	//--------add the entry-------
 	if (++max >= InternalTableSize) max = 0;
-	char[] r;
-	System.arraycopy(src, start, r= new char[3], 0, 3);
+	char[] r = newIdentifier(3);
 	//newIdentCount++;
 	return table[this.newEntry3 = max] = r; //(r = new char[] {c0, c1, c2});
 }
@@ -2394,8 +2407,7 @@ final char[] optimizedCurrentTokenSource4() {
 	}
 	//--------add the entry-------
 	if (++max >= InternalTableSize) max = 0;
-	char[] r;
-	System.arraycopy(src, start, r= new char[4], 0, 4);
+	char[] r = newIdentifier(4);
 	//newIdentCount++;
 	return table[this.newEntry4 = max] = r; //(r = new char[] {c0, c1, c2, c3});
 }
@@ -2432,8 +2444,7 @@ final char[] optimizedCurrentTokenSource5() {
 	}
 	//--------add the entry-------
 	if (++max >= InternalTableSize) max = 0;
-	char[] r;
-	System.arraycopy(src, start, r= new char[5], 0, 5);
+	char[] r = newIdentifier(5);
 	//newIdentCount++;
 	return table[this.newEntry5 = max] = r; //(r = new char[] {c0, c1, c2, c3, c4});
 }
@@ -2472,8 +2483,7 @@ final char[] optimizedCurrentTokenSource6() {
 	}
 	//--------add the entry-------
 	if (++max >= InternalTableSize) max = 0;
-	char[] r;
-	System.arraycopy(src, start, r= new char[6], 0, 6);
+	char[] r = newIdentifier(6);
 	//newIdentCount++;
 	return table[this.newEntry6 = max] = r; //(r = new char[] {c0, c1, c2, c3, c4, c5});
 }
@@ -4061,6 +4071,15 @@ public void unicodeStore(char character) {
 	this.withoutUnicodeBuffer[pos] = character;
 }
 
+/**
+ * Sets the table used by the scanners created from now on to share the identifiers
+ * they answer, so that equal identifiers found in different sources are identical
+ * arrays. A <code>null</code> table means that each scanner only shares the short
+ * identifiers it finds.
+ */
+public static void setSharedIdentifiers(CharArrayInternTable table) {
+	SharedIdentifiers = table;
+}
 public static boolean isIdentifier(int token) {
 	return token == TerminalTokens.TokenNameIdentifier;
 }
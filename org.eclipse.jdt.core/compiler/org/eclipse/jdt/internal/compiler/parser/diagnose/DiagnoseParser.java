@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.parser.Parser;
 import org.eclipse.jdt.internal.compiler.parser.ParserBasicInformation;
 import org.eclipse.jdt.internal.compiler.parser.RecoveryScanner;
+import org.eclipse.jdt.internal.compiler.parser.RecoveryStatistics;
 import org.eclipse.jdt.internal.compiler.parser.ScannerHelper;
 import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
 import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
@@ -187,6 +188,7 @@ public class DiagnoseParser implements ParserBasicInformation, TerminalTokens {
 
 
 	public void diagnoseParse(boolean record) {
+		RecoveryStatistics.record(RecoveryStatistics.DIAGNOSES);
 		this.reportProblem = true;
 		boolean oldRecord = false;
 		if(this.recoveryScanner != null) {
@@ -375,6 +377,7 @@ public class DiagnoseParser implements ParserBasicInformation, TerminalTokens {
 					// An error was detected.
 					//
 					RepairCandidate candidate = errorRecovery(this.currentToken, forceRecoveryAfterLBracketMissing);
+					RecoveryStatistics.record(RecoveryStatistics.REPAIRS);
 
 					forceRecoveryAfterLBracketMissing = false;
 
@@ -382,6 +385,10 @@ public class DiagnoseParser implements ParserBasicInformation, TerminalTokens {
 						return;
 					}
 
+					if(!this.parser.spendRecoveryBudget()) {
+						return;
+					}
+
 					if(this.parser.problemReporter().options.maxProblemsPerUnit < this.parser.compilationUnit.compilationResult.problemCount) {
 						if(this.recoveryScanner == null || !this.recoveryScanner.record) return;
 						this.reportProblem = false;
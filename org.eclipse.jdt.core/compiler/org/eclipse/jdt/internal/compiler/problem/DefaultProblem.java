@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,10 @@ public class DefaultProblem extends CategorizedProblem {
 	private int severity;
 	private String[] arguments;
 	private String message;
+	// when not null, the message is only rendered when first asked for
+	private DefaultProblemFactory messageFactory;
+	private int elaborationId;
+	private String[] messageArguments;
 
 	// cannot directly point to IJavaModelMarker constants from within batch compiler
 	private static final String MARKER_TYPE_PROBLEM = "org.eclipse.jdt.core.problem"; //$NON-NLS-1$
@@ -54,6 +58,29 @@ public DefaultProblem(
 	this.column = column;
 }
 
+/*
+ * Problem which message is rendered from the factory templates on demand, so that no message
+ * gets formatted for problems which are never displayed.
+ */
+DefaultProblem(
+	char[] originatingFileName,
+	DefaultProblemFactory messageFactory,
+	int elaborationId,
+	String[] messageArguments,
+	int id,
+	String[] stringArguments,
+	int severity,
+	int startPosition,
+	int endPosition,
+	int line,
+	int column) {
+
+	this(originatingFileName, (String) null, id, stringArguments, severity, startPosition, endPosition, line, column);
+	this.messageFactory = messageFactory;
+	this.elaborationId = elaborationId;
+	this.messageArguments = messageArguments;
+}
+
 public String errorReportSource(char[] unitSource) {
 	//extra from the source the innacurate     token
 	//and "highlight" it using some underneath ^^^^^
@@ -189,6 +216,9 @@ public String getMarkerType() {
  * @return java.lang.String
  */
 public String getMessage() {
+	if (this.message == null && this.messageFactory != null) {
+		this.message = this.messageFactory.getLocalizedMessage(this.id, this.elaborationId, this.messageArguments);
+	}
 	return this.message;
 }
 
@@ -280,8 +310,9 @@ public void setSourceStart(int sourceStart) {
 
 public String toString() {
 	String s = "Pb(" + (this.id & IProblem.IgnoreCategoriesMask) + ") "; //$NON-NLS-1$ //$NON-NLS-2$
-	if (this.message != null) {
-		s += this.message;
+	String problemMessage = getMessage();
+	if (problemMessage != null) {
+		s += problemMessage;
 	} else {
 		if (this.arguments != null)
 			for (int i = 0; i < this.arguments.length; i++)
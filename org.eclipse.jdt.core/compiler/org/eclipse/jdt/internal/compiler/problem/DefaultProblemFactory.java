@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -74,7 +74,9 @@ public CategorizedProblem createProblem(
 
 	return new DefaultProblem(
 		originatingFileName,
-		this.getLocalizedMessage(problemId, messageArguments),
+		this,
+		0, // no message elaboration
+		messageArguments,
 		problemId,
 		problemArguments,
 		severity,
@@ -96,7 +98,9 @@ public CategorizedProblem createProblem(
 	int columnNumber) {
 	return new DefaultProblem(
 		originatingFileName,
-		this.getLocalizedMessage(problemId, elaborationId, messageArguments),
+		this,
+		elaborationId,
+		messageArguments,
 		problemId,
 		problemArguments,
 		severity,
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -138,6 +138,13 @@ public void handle(
 		}
 	}
 
+	// suppressed warnings are discarded before computing their positions and message
+	if ((severity & ProblemSeverities.Error) == 0) {
+		CompilationUnitDeclaration unitDecl = referenceContext.getCompilationUnitDeclaration();
+		if (unitDecl != null && unitDecl.discardSuppressedWarning(problemId, problemStartPosition, problemEndPosition))
+			return;
+	}
+
 	int[] lineEnds;
 	int lineNumber = problemStartPosition >= 0
 			? Util.getLineNumber(problemStartPosition, lineEnds = unitResult.getLineSeparatorPositions(), 0, lineEnds.length-1)
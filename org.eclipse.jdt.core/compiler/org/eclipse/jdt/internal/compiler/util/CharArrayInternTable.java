@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.util;
+
+/**
+ * A bounded, thread-safe table used to share equal char arrays (e.g. identifiers)
+ * across several clients.
+ * <p>
+ * The table is made of buckets of a few entries. When a bucket is full, its oldest
+ * entry is replaced by the new one, hence the memory held by the table never exceeds
+ * its capacity, at the cost of returning a new char array for an evicted value.
+ * The arrays answered by the table must never be modified.
+ * </p>
+ */
+public final class CharArrayInternTable {
+
+	private static final int BUCKET_SIZE = 4;
+	private static final int LOCKS = 64; // must be a power of 2
+
+	private final char[][] entries;
+	private final byte[] nextEntries;
+	private final int bucketMask;
+	private final Object[] locks;
+
+/**
+ * Creates a table able to hold at least the given number of char arrays.
+ */
+public CharArrayInternTable(int capacity) {
+	int buckets = LOCKS;
+	while (buckets * BUCKET_SIZE < capacity)
+		buckets <<= 1;
+	this.entries = new char[buckets * BUCKET_SIZE][];
+	this.nextEntries = new byte[buckets];
+	this.bucketMask = buckets - 1;
+	this.locks = new Object[LOCKS];
+	for (int i = 0; i < LOCKS; i++)
+		this.locks[i] = new Object();
+}
+
+/**
+ * Removes all the char arrays from this table.
+ */
+public void clear() {
+	for (int lock = 0; lock < LOCKS; lock++) {
+		synchronized (this.locks[lock]) {
+			for (int bucket = lock, max = this.nextEntries.length; bucket < max; bucket += LOCKS) {
+				for (int i = bucket * BUCKET_SIZE, end = i + BUCKET_SIZE; i < end; i++)
+					this.entries[i] = null;
+				this.nextEntries[bucket] = 0;
+			}
+		}
+	}
+}
+
+/**
+ * Answers the char array of this table equal to the given characters of the source,
+ * adding a copy of these characters to the table if there is no such array.
+ */
+public char[] intern(char[] source, int start, int length) {
+	int hash = 0;
+	for (int i = start, end = start + length; i < end; i++)
+		hash = 31 * hash + source[i];
+	hash ^= (hash >>> 16);
+	int bucket = hash & this.bucketMask;
+	synchronized (this.locks[bucket & (LOCKS - 1)]) {
+		int base = bucket * BUCKET_SIZE;
+		next : for (int i = base, end = base + BUCKET_SIZE; i < end; i++) {
+			char[] entry = this.entries[i];
+			if (entry == null) break; // entries are added in order
+			if (entry.length != length) continue next;
+			for (int j = 0; j < length; j++)
+				if (entry[j] != source[start + j]) continue next;
+			return entry;
+		}
+		char[] result = new char[length];
+		System.arraycopy(source, start, result, 0, length);
+		int next = this.nextEntries[bucket];
+		this.entries[base + next] = result;
+		this.nextEntries[bucket] = (byte) ((next + 1) % BUCKET_SIZE);
+		return result;
+	}
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,7 +12,6 @@
 package org.eclipse.jdt.internal.compiler.util;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -24,11 +23,14 @@ import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.HashSet;
 import java.util.List;
 import java.util.StringTokenizer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.ClassFile;
@@ -225,7 +227,6 @@ public class Util implements SuffixConstants {
 	}
 
 	private static final int DEFAULT_READING_SIZE = 8192;
-	private static final int DEFAULT_WRITING_SIZE = 1024;
 	public final static String UTF_8 = "UTF-8";	//$NON-NLS-1$
 	public static final String LINE_SEPARATOR = System.getProperty("line.separator"); //$NON-NLS-1$
 
@@ -975,36 +976,34 @@ public class Util implements SuffixConstants {
 	 */
 	public static void writeToDisk(boolean generatePackagesStructure, String outputPath, String relativeFileName, ClassFile classFile) throws IOException {
 		FileOutputStream file = getFileOutputStream(generatePackagesStructure, outputPath, relativeFileName);
-		/* use java.nio to write
-		if (true) {
-			FileChannel ch = file.getChannel();
-			try {
-				ByteBuffer buffer = ByteBuffer.allocate(classFile.headerOffset + classFile.contentsOffset);
-				buffer.put(classFile.header, 0, classFile.headerOffset);
-				buffer.put(classFile.contents, 0, classFile.contentsOffset);
-				buffer.flip();
-				while (true) {
-					if (ch.write(buffer) == 0) break;
-				}
-			} finally {
-				ch.close();
-			}
-			return;
-		}
-		*/
-		BufferedOutputStream output = new BufferedOutputStream(file, DEFAULT_WRITING_SIZE);
-//		BufferedOutputStream output = new BufferedOutputStream(file);
+		// gathering write of the header and the contents, so as to avoid concatenating them
+		FileChannel channel = file.getChannel();
 		try {
-			// if no IOException occured, output cannot be null
-			output.write(classFile.header, 0, classFile.headerOffset);
-			output.write(classFile.contents, 0, classFile.contentsOffset);
-			output.flush();
-		} catch(IOException e) {
-			throw e;
+			ByteBuffer[] buffers = new ByteBuffer[] {
+				ByteBuffer.wrap(classFile.header, 0, classFile.headerOffset),
+				ByteBuffer.wrap(classFile.contents, 0, classFile.contentsOffset)
+			};
+			while (buffers[1].hasRemaining()) {
+				channel.write(buffers);
+			}
 		} finally {
-			output.close();
+			file.close();
 		}
 	}
+	/**
+	 * Add the given class file to the given archive, as an entry of the given name.
+	 * The entry name must use '/' as separator.
+	 * @param archive the archive to write into
+	 * @param entryName the name of the entry, e.g. "p1/p2/A.class"
+	 * @param classFile the given classFile to write
+	 * @throws IOException if the entry cannot be written, e.g. if it is already present in the archive
+	 */
+	public static void writeToArchive(ZipOutputStream archive, String entryName, ClassFile classFile) throws IOException {
+		archive.putNextEntry(new ZipEntry(entryName));
+		archive.write(classFile.header, 0, classFile.headerOffset);
+		archive.write(classFile.contents, 0, classFile.contentsOffset);
+		archive.closeEntry();
+	}
 	public static void recordNestedType(ClassFile classFile, TypeBinding typeBinding) {
 		if (classFile.visitedTypes == null) {
 			classFile.visitedTypes = new HashSet(3);
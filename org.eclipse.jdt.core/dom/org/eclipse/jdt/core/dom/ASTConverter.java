@@ -75,6 +75,19 @@ class ASTConverter {
 	protected boolean resolveBindings;
 	Scanner scanner;
 	private DefaultCommentMapper commentMapper;
+	/*
+	 * Set when the nodes of method and initializer bodies are recorded on demand only
+	 * (see DefaultBindingResolver#materializeLazyBody(ASTNode)).
+	 */
+	boolean lazyBindings;
+	/*
+	 * Compiler nodes whose positions or bits are altered during a lazy conversion, along with
+	 * their original sourceStart, sourceEnd and bits, so that a body can be converted again
+	 * starting from the same state.
+	 */
+	private org.eclipse.jdt.internal.compiler.ast.ASTNode[] alteredNodes;
+	private int[] alteredNodesState;
+	private int alteredNodesCount;
 
 	public ASTConverter(Map options, boolean resolveBindings, IProgressMonitor monitor) {
 		this.resolveBindings = resolveBindings;
@@ -365,7 +378,20 @@ class ASTConverter {
 		if (fields[index] instanceof org.eclipse.jdt.internal.compiler.ast.Initializer) {
 			org.eclipse.jdt.internal.compiler.ast.Initializer oldInitializer = (org.eclipse.jdt.internal.compiler.ast.Initializer) fields[index];
 			Initializer initializer = new Initializer(this.ast);
-			initializer.setBody(convert(oldInitializer.block));
+			if (this.resolveBindings && this.lazyBindings) {
+				// the nodes of the body are recorded on demand
+				Block block;
+				this.resolveBindings = false;
+				try {
+					block = convert(oldInitializer.block);
+				} finally {
+					this.resolveBindings = true;
+				}
+				this.ast.getBindingResolver().recordLazyBody(block, oldInitializer);
+				initializer.setBody(block);
+			} else {
+				initializer.setBody(convert(oldInitializer.block));
+			}
 			setModifiers(initializer, oldInitializer);
 			initializer.setSourceRange(oldInitializer.declarationSourceStart, oldInitializer.sourceEnd - oldInitializer.declarationSourceStart + 1);
 			// The javadoc comment is now got from list store in compilation unit declaration
@@ -384,6 +410,76 @@ class ASTConverter {
 		}
 	}
 
+	/*
+	 * Converts the explicit constructor call and the statements of the given method into the given block.
+	 */
+	private void convertBodyStatements(org.eclipse.jdt.internal.compiler.ast.AbstractMethodDeclaration methodDeclaration, Block block) {
+		if (methodDeclaration instanceof org.eclipse.jdt.internal.compiler.ast.ConstructorDeclaration) {
+			org.eclipse.jdt.internal.compiler.ast.ExplicitConstructorCall explicitConstructorCall = ((org.eclipse.jdt.internal.compiler.ast.ConstructorDeclaration) methodDeclaration).constructorCall;
+			if (explicitConstructorCall != null && explicitConstructorCall.accessMode != org.eclipse.jdt.internal.compiler.ast.ExplicitConstructorCall.ImplicitSuper) {
+				block.statements().add(convert(explicitConstructorCall));
+			}
+		}
+		org.eclipse.jdt.internal.compiler.ast.Statement[] statements = methodDeclaration.statements;
+		int statementsLength = statements == null ? 0 : statements.length;
+		for (int i = 0; i < statementsLength; i++) {
+			if (statements[i] instanceof org.eclipse.jdt.internal.compiler.ast.LocalDeclaration) {
+				checkAndAddMultipleLocalDeclaration(statements, i, block.statements());
+			} else {
+				final Statement statement = convert(statements[i]);
+				if (statement != null) {
+					block.statements().add(statement);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Converts again the body of the given method or initializer into the given AST, recording all its nodes
+	 * in the binding resolver of that AST. The names and this expressions whose scope is to be looked up are
+	 * left in the pending sets.
+	 */
+	Block convertLazyBody(AST bodyAST, org.eclipse.jdt.internal.compiler.ast.ASTNode declaration) {
+		AST currentAST = this.ast;
+		DocCommentParser currentDocParser = this.docParser;
+		// restore the compiler nodes of this body as they were before the first conversion
+		int start, end;
+		if (declaration instanceof org.eclipse.jdt.internal.compiler.ast.AbstractMethodDeclaration) {
+			start = ((org.eclipse.jdt.internal.compiler.ast.AbstractMethodDeclaration) declaration).bodyStart;
+			end = ((org.eclipse.jdt.internal.compiler.ast.AbstractMethodDeclaration) declaration).bodyEnd;
+		} else {
+			start = ((org.eclipse.jdt.internal.compiler.ast.Initializer) declaration).block.sourceStart;
+			end = ((org.eclipse.jdt.internal.compiler.ast.Initializer) declaration).block.sourceEnd;
+		}
+		for (int i = this.alteredNodesCount - 1; i >= 0; i--) {
+			int index = i * 3;
+			int sourceStart = this.alteredNodesState[index];
+			if (sourceStart >= start && sourceStart <= end) {
+				org.eclipse.jdt.internal.compiler.ast.ASTNode node = this.alteredNodes[i];
+				node.sourceStart = sourceStart;
+				node.sourceEnd = this.alteredNodesState[index + 1];
+				node.bits = this.alteredNodesState[index + 2];
+			}
+		}
+		this.lazyBindings = false;
+		this.monitor = null; // the conversion this monitor was given for is over
+		this.pendingNameScopeResolution = null;
+		this.pendingThisExpressionScopeResolution = null;
+		setAST(bodyAST);
+		try {
+			if (declaration instanceof org.eclipse.jdt.internal.compiler.ast.AbstractMethodDeclaration) {
+				Block block = new Block(this.ast);
+				convertBodyStatements((org.eclipse.jdt.internal.compiler.ast.AbstractMethodDeclaration) declaration, block);
+				return block;
+			}
+			return convert(((org.eclipse.jdt.internal.compiler.ast.Initializer) declaration).block);
+		} finally {
+			this.ast = currentAST;
+			this.docParser = currentDocParser;
+			this.lazyBindings = true;
+		}
+	}
+
 	protected void checkAndAddMultipleLocalDeclaration(org.eclipse.jdt.internal.compiler.ast.Statement[] stmts, int index, List blockStatements) {
 		if (index > 0
 				&& stmts[index - 1] instanceof org.eclipse.jdt.internal.compiler.ast.LocalDeclaration) {
@@ -526,19 +622,17 @@ class ASTConverter {
 				methodDecl.setBody(block);
 			}
 			if (block != null && (statements != null || explicitConstructorCall != null)) {
-				if (explicitConstructorCall != null && explicitConstructorCall.accessMode != org.eclipse.jdt.internal.compiler.ast.ExplicitConstructorCall.ImplicitSuper) {
-					block.statements().add(convert(explicitConstructorCall));
-				}
-				int statementsLength = statements == null ? 0 : statements.length;
-				for (int i = 0; i < statementsLength; i++) {
-					if (statements[i] instanceof org.eclipse.jdt.internal.compiler.ast.LocalDeclaration) {
-						checkAndAddMultipleLocalDeclaration(statements, i, block.statements());
-					} else {
-						final Statement statement = convert(statements[i]);
-						if (statement != null) {
-							block.statements().add(statement);
-						}
+				if (this.resolveBindings && this.lazyBindings) {
+					// the nodes of the body are recorded on demand
+					this.resolveBindings = false;
+					try {
+						convertBodyStatements(methodDeclaration, block);
+					} finally {
+						this.resolveBindings = true;
 					}
+					this.ast.getBindingResolver().recordLazyBody(block, methodDeclaration);
+				} else {
+					convertBodyStatements(methodDeclaration, block);
 				}
 			}
 			if (block != null
@@ -783,6 +877,7 @@ class ASTConverter {
 		final boolean isVarArgs = argument.isVarArgs();
 		if (isVarArgs && extraDimensions == 0) {
 			// remove the ellipsis from the type source end
+			recordAlteredNode(argument.type);
 			argument.type.sourceEnd = retrieveEllipsisStartPosition(argument.type.sourceStart, typeSourceEnd);
 		}
 		Type type = convertType(argument.type);
@@ -1144,6 +1239,7 @@ class ASTConverter {
 		CastExpression castExpression = new CastExpression(this.ast);
 		castExpression.setSourceRange(expression.sourceStart, expression.sourceEnd - expression.sourceStart + 1);
 		TypeReference type = expression.type;
+		recordAlteredNode(type);
 		trimWhiteSpacesAndComments(type);
 		castExpression.setType(convertType(type));
 		castExpression.setExpression(convert(expression.expression));
@@ -1851,12 +1947,7 @@ class ASTConverter {
 				if (comment != null && comment.isDocComment() && comment.getParent() == null) {
 					Javadoc docComment = (Javadoc) comment;
 					if (this.resolveBindings) {
-						recordNodes(docComment, javadoc);
-						// resolve member and method references binding
-						Iterator tags = docComment.tags().listIterator();
-						while (tags.hasNext()) {
-							recordNodes(javadoc, (TagElement) tags.next());
-						}
+						recordJavadoc(javadoc, docComment);
 					}
 					bodyDeclaration.setJavadoc(docComment);
 				}
@@ -2911,6 +3002,7 @@ class ASTConverter {
 			recordNodes(parenthesizedExpression, expression);
 		}
 		parenthesizedExpression.setSourceRange(expression.sourceStart, expression.sourceEnd - expression.sourceStart + 1);
+		recordAlteredNode(expression);
 		adjustSourcePositionsForParent(expression);
 		trimWhiteSpacesAndComments(expression);
 		// decrement the number of parenthesis
@@ -3657,7 +3749,7 @@ class ASTConverter {
 
 	}
 
-	private BlockScope lookupScope(ASTNode node) {
+	BlockScope lookupScope(ASTNode node) {
 		ASTNode currentNode = node;
 		while(currentNode != null
 			&&!(currentNode instanceof MethodDeclaration)
@@ -3703,6 +3795,38 @@ class ASTConverter {
 		return abstractMethodDeclaration.scope;
 	}
 
+	/*
+	 * Remembers the current positions and bits of a compiler node that is about to be altered,
+	 * so that its body can be converted again later on.
+	 */
+	private void recordAlteredNode(org.eclipse.jdt.internal.compiler.ast.ASTNode node) {
+		if (!this.lazyBindings) return;
+		if (this.alteredNodes == null) {
+			this.alteredNodes = new org.eclipse.jdt.internal.compiler.ast.ASTNode[10];
+			this.alteredNodesState = new int[30];
+		} else if (this.alteredNodesCount == this.alteredNodes.length) {
+			System.arraycopy(this.alteredNodes, 0, this.alteredNodes = new org.eclipse.jdt.internal.compiler.ast.ASTNode[this.alteredNodesCount * 2], 0, this.alteredNodesCount);
+			System.arraycopy(this.alteredNodesState, 0, this.alteredNodesState = new int[this.alteredNodesCount * 6], 0, this.alteredNodesCount * 3);
+		}
+		int index = this.alteredNodesCount * 3;
+		this.alteredNodesState[index] = node.sourceStart;
+		this.alteredNodesState[index + 1] = node.sourceEnd;
+		this.alteredNodesState[index + 2] = node.bits;
+		this.alteredNodes[this.alteredNodesCount++] = node;
+	}
+
+	/*
+	 * Records the nodes of the given doc comment and of its member and method references.
+	 */
+	void recordJavadoc(org.eclipse.jdt.internal.compiler.ast.Javadoc javadoc, Javadoc docComment) {
+		recordNodes(docComment, javadoc);
+		// resolve member and method references binding
+		Iterator tags = docComment.tags().listIterator();
+		while (tags.hasNext()) {
+			recordNodes(javadoc, (TagElement) tags.next());
+		}
+	}
+
 	protected void recordName(Name name, org.eclipse.jdt.internal.compiler.ast.ASTNode compilerNode) {
 		if (compilerNode != null) {
 			recordNodes(name, compilerNode);
@@ -709,6 +709,37 @@ public class ASTParser {
 		}
 	}
 
+	/**
+	 * Requests that the nodes of method and initializer bodies are only prepared
+	 * for binding resolution when one of their nodes is asked for its binding.
+	 *
+	 * <p>When lazy binding resolution is enabled, the abstract syntax tree retains
+	 * the compiler representation of the source, and the correspondence between the
+	 * nodes of a method or initializer body and the compiler nodes is computed the first
+	 * time a binding is requested for a node of that body. This reduces the memory footprint
+	 * and the creation time of resolved abstract syntax trees when bindings are requested
+	 * for a small number of nodes only. The resolved bindings are the same as the ones
+	 * obtained without lazy binding resolution, except for nodes of a body that was
+	 * modified before any of its nodes was asked for its binding.</p>
+	 *
+	 * <p>Default to <code>false</code>.</p>
+	 *
+	 * <p>This has no effect if there is no binding resolution, or if the kind used in
+	 * {@link #setKind(int)} is not {@link #K_COMPILATION_UNIT}.</p>
+	 *
+	 * @param enabled <code>true</code> if method and initializer bodies should be
+	 *   prepared for binding resolution on demand, and <code>false</code> otherwise
+	 * @see #setResolveBindings(boolean)
+	 * @since 3.9
+	 */
+	public void setLazyBindingResolution(boolean enabled) {
+		if (enabled) {
+			this.bits |= CompilationUnitResolver.LAZY_BINDING_RESOLUTION;
+		} else {
+			this.bits &= ~CompilationUnitResolver.LAZY_BINDING_RESOLUTION;
+		}
+	}
+
     /**
      * Sets the working copy owner using when resolving bindings, where
      * <code>null</code> means the primary owner. Defaults to the primary owner.
@@ -891,6 +922,9 @@ public class ASTParser {
 				if ((this.bits & CompilationUnitResolver.BINDING_RECOVERY) != 0) {
 					flags |= ICompilationUnit.ENABLE_BINDINGS_RECOVERY;
 				}
+				if ((this.bits & CompilationUnitResolver.LAZY_BINDING_RESOLUTION) != 0) {
+					flags |= CompilationUnitResolver.LAZY_BINDINGS;
+				}
 				CompilationUnitResolver.resolve(compilationUnits, bindingKeys, requestor, this.apiLevel, this.compilerOptions, this.project, this.workingCopyOwner, flags, monitor);
 			} else {
 				CompilationUnitResolver.parse(compilationUnits, requestor, this.apiLevel, this.compilerOptions, flags, monitor);
@@ -985,6 +1019,9 @@ public class ASTParser {
 				if ((this.bits & CompilationUnitResolver.BINDING_RECOVERY) != 0) {
 					flags |= ICompilationUnit.ENABLE_BINDINGS_RECOVERY;
 				}
+				if ((this.bits & CompilationUnitResolver.LAZY_BINDING_RESOLUTION) != 0) {
+					flags |= CompilationUnitResolver.LAZY_BINDINGS;
+				}
 				CompilationUnitResolver.resolve(sourceFilePaths, encodings, bindingKeys, requestor, this.apiLevel, this.compilerOptions, getClasspath(), flags, monitor);
 			} else {
 				CompilationUnitResolver.parse(sourceFilePaths, encodings, requestor, this.apiLevel, this.compilerOptions, flags, monitor);
@@ -1175,6 +1212,9 @@ public class ASTParser {
 						if ((this.bits & CompilationUnitResolver.BINDING_RECOVERY) != 0) {
 							flags |= ICompilationUnit.ENABLE_BINDINGS_RECOVERY;
 						}
+						if ((this.bits & CompilationUnitResolver.LAZY_BINDING_RESOLUTION) != 0) {
+							flags |= CompilationUnitResolver.LAZY_BINDINGS;
+						}
 						try {
 							// parse and resolve
 							compilationUnitDeclaration =
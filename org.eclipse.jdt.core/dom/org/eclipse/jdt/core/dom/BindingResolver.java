@@ -289,6 +289,21 @@ class BindingResolver {
 		return null;
 	}
 
+	/**
+	 * This method is used to record a method or initializer body whose nodes
+	 * are only recorded when one of them is asked for its binding.
+	 * <p>
+	 * The default implementation of this method does nothing.
+	 * Subclasses may reimplement.
+	 * </p>
+	 *
+	 * @param body the body whose nodes have not been recorded
+	 * @param declaration the compiler method or initializer declaring the body
+	 */
+	void recordLazyBody(Block body, org.eclipse.jdt.internal.compiler.ast.ASTNode declaration) {
+		// default implementation: do nothing
+	}
+
 	/**
 	 * This method is used to record the scope and its corresponding node.
 	 * <p>
@@ -43,6 +43,7 @@ import org.eclipse.jdt.internal.compiler.env.ISourceType;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.lookup.AnnotationBinding;
 import org.eclipse.jdt.internal.compiler.lookup.Binding;
+import org.eclipse.jdt.internal.compiler.lookup.CompilationUnitScope;
 import org.eclipse.jdt.internal.compiler.lookup.ExtraCompilerModifiers;
 import org.eclipse.jdt.internal.compiler.lookup.PackageBinding;
 import org.eclipse.jdt.internal.compiler.parser.Parser;
@@ -72,6 +73,13 @@ class CompilationUnitResolver extends Compiler {
 	public static final int IGNORE_METHOD_BODIES = 0x8;
 	public static final int BINDING_RECOVERY = 0x10;
 	public static final int INCLUDE_RUNNING_VM_BOOTCLASSPATH = 0x20;
+	public static final int LAZY_BINDING_RESOLUTION = 0x40;
+
+	/*
+	 * Internal flag passed along with the ICompilationUnit flags to request
+	 * the lazy recording of method and initializer bodies (see ASTParser#setLazyBindingResolution(boolean)).
+	 */
+	static final int LAZY_BINDINGS = 0x10000;
 
 	/* A list of int */
 	static class IntArrayList {
@@ -280,7 +288,7 @@ class CompilationUnitResolver extends Compiler {
 		CompilationUnit compilationUnit = null;
 		ASTConverter converter = new ASTConverter(options, needToResolveBindings, monitor);
 		if (needToResolveBindings) {
-			resolver = new DefaultBindingResolver(compilationUnitDeclaration.scope, owner, bindingTables, (flags & ICompilationUnit.ENABLE_BINDINGS_RECOVERY) != 0, fromJavaProject);
+			resolver = newBindingResolver(compilationUnitDeclaration.scope, converter, owner, bindingTables, flags, fromJavaProject);
 			ast.setFlag(flags | AST.RESOLVED_BINDINGS);
 		} else {
 			resolver = new BindingResolver();
@@ -295,6 +303,25 @@ class CompilationUnitResolver extends Compiler {
 		return compilationUnit;
 	}
 
+	/*
+	 * Creates the binding resolver of an AST about to be converted by the given converter,
+	 * setting up the lazy recording of method and initializer bodies if requested.
+	 */
+	private static DefaultBindingResolver newBindingResolver(
+			CompilationUnitScope scope,
+			ASTConverter converter,
+			WorkingCopyOwner owner,
+			DefaultBindingResolver.BindingTables bindingTables,
+			int flags,
+			boolean fromJavaProject) {
+		DefaultBindingResolver resolver = new DefaultBindingResolver(scope, owner, bindingTables, (flags & ICompilationUnit.ENABLE_BINDINGS_RECOVERY) != 0, fromJavaProject);
+		if ((flags & LAZY_BINDINGS) != 0) {
+			converter.lazyBindings = true;
+			resolver.lazyConverter = converter;
+		}
+		return resolver;
+	}
+
 	protected static CompilerOptions getCompilerOptions(Map options, boolean statementsRecovery) {
 		CompilerOptions compilerOptions = new CompilerOptions(options);
 		compilerOptions.performMethodsFullRecovery = statementsRecovery;
@@ -879,7 +906,7 @@ class CompilationUnitResolver extends Compiler {
 						ast.setFlag(flags | AST.RESOLVED_BINDINGS);
 						ast.setDefaultNodeFlag(ASTNode.ORIGINAL);
 						ASTConverter converter = new ASTConverter(compilerOptions, true/*need to resolve bindings*/, this.monitor);
-						BindingResolver resolver = new DefaultBindingResolver(unit.scope, owner, this.bindingTables, (flags & ICompilationUnit.ENABLE_BINDINGS_RECOVERY) != 0, this.fromJavaProject);
+						BindingResolver resolver = newBindingResolver(unit.scope, converter, owner, this.bindingTables, flags, this.fromJavaProject);
 						ast.setBindingResolver(resolver);
 						converter.setAST(ast);
 						CompilationUnit compilationUnit = converter.convert(unit, contents);
@@ -1012,7 +1039,7 @@ class CompilationUnitResolver extends Compiler {
 						ast.setFlag(flags | AST.RESOLVED_BINDINGS);
 						ast.setDefaultNodeFlag(ASTNode.ORIGINAL);
 						ASTConverter converter = new ASTConverter(compilerOptions, true/*need to resolve bindings*/, this.monitor);
-						BindingResolver resolver = new DefaultBindingResolver(unit.scope, null, this.bindingTables, (flags & ICompilationUnit.ENABLE_BINDINGS_RECOVERY) != 0, this.fromJavaProject);
+						BindingResolver resolver = newBindingResolver(unit.scope, converter, null, this.bindingTables, flags, this.fromJavaProject);
 						ast.setBindingResolver(resolver);
 						converter.setAST(ast);
 						CompilationUnit compilationUnit = converter.convert(unit, contents);
@@ -11,8 +11,12 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.dom;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.core.compiler.CharOperation;
@@ -100,6 +104,36 @@ class DefaultBindingResolver extends BindingResolver {
 		}
 
 	}
+
+	/*
+	 * Collects the nodes recorded while converting again a lazily converted body.
+	 */
+	static class LazyBodyRecorder extends BindingResolver {
+
+		/**
+		 * This map is used to retrieve the old ast node of a node of the converted copy.
+		 */
+		Map newAstToOldAst;
+
+		LazyBodyRecorder() {
+			this.newAstToOldAst = new HashMap();
+		}
+
+		org.eclipse.jdt.internal.compiler.ast.ASTNode getCorrespondingNode(ASTNode currentNode) {
+			return (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(currentNode);
+		}
+
+		void store(ASTNode node, org.eclipse.jdt.internal.compiler.ast.ASTNode oldASTNode) {
+			this.newAstToOldAst.put(node, oldASTNode);
+		}
+
+		void updateKey(ASTNode node, ASTNode newNode) {
+			Object astNode = this.newAstToOldAst.remove(node);
+			if (astNode != null) {
+				this.newAstToOldAst.put(newNode, astNode);
+			}
+		}
+	}
 	/**
 	 * This map is used to retrieve the corresponding block scope for a ast node
 	 */
@@ -124,6 +158,17 @@ class DefaultBindingResolver extends BindingResolver {
 	 */
 	Map newAstToOldAst;
 
+	/**
+	 * This map is used to retrieve the compiler method or initializer declaring a body whose
+	 * nodes have not been recorded yet. <code>null</code> if all nodes have been recorded.
+	 */
+	Map lazyBodies;
+
+	/**
+	 * The converter used to record the nodes of the lazily converted bodies on demand.
+	 */
+	ASTConverter lazyConverter;
+
 	/**
 	 * Compilation unit scope
 	 */
@@ -176,6 +221,16 @@ class DefaultBindingResolver extends BindingResolver {
 		if (binding == null) {
 			return null;
 		}
+		ASTNode node = internalFindDeclaringNode(binding);
+		if (node == null && this.lazyBodies != null) {
+			// the declaring node may be in a body that was not recorded yet
+			materializeLazyBodies();
+			node = internalFindDeclaringNode(binding);
+		}
+		return node;
+	}
+
+	private ASTNode internalFindDeclaringNode(IBinding binding) {
 		if (binding instanceof IMethodBinding) {
 			IMethodBinding methodBinding = (IMethodBinding) binding;
 			return (ASTNode) this.bindingsToAstNodes.get(methodBinding.getMethodDeclaration());
@@ -194,6 +249,11 @@ class DefaultBindingResolver extends BindingResolver {
 			return null;
 		}
 		Object binding = this.bindingTables.bindingKeysToBindings.get(bindingKey);
+		if (binding == null && this.lazyBodies != null) {
+			// the binding may be declared in a body that was not recorded yet
+			materializeLazyBodies();
+			binding = this.bindingTables.bindingKeysToBindings.get(bindingKey);
+		}
 		if (binding == null)
 			return null;
 		return (ASTNode) this.bindingsToAstNodes.get(binding);
@@ -222,16 +282,41 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	Util.BindingsToNodesMap getBindingsToNodesMap() {
+		materializeLazyBodies();
 		return new Util.BindingsToNodesMap() {
 			public org.eclipse.jdt.internal.compiler.ast.ASTNode get(Binding binding) {
 				return (org.eclipse.jdt.internal.compiler.ast.ASTNode)
-					DefaultBindingResolver.this.newAstToOldAst.get(DefaultBindingResolver.this.bindingsToAstNodes.get(binding));
+					DefaultBindingResolver.this.getOldASTNode(DefaultBindingResolver.this.bindingsToAstNodes.get(binding));
 			}
 		};
 	}
 
+	/*
+	 * Answers the scope recorded for the given node, recording first the nodes
+	 * of its enclosing body if it was converted lazily.
+	 */
+	private BlockScope getBlockScope(ASTNode node) {
+		Object blockScope = this.astNodesToBlockScope.get(node);
+		if (blockScope == null && this.lazyBodies != null && materializeLazyBody(node)) {
+			blockScope = this.astNodesToBlockScope.get(node);
+		}
+		return (BlockScope) blockScope;
+	}
+
+	/*
+	 * Answers the old ast node recorded for the given node, recording first the nodes
+	 * of its enclosing body if it was converted lazily.
+	 */
+	private Object getOldASTNode(Object node) {
+		Object oldNode = this.newAstToOldAst.get(node);
+		if (oldNode == null && this.lazyBodies != null && node instanceof ASTNode && materializeLazyBody((ASTNode) node)) {
+			oldNode = this.newAstToOldAst.get(node);
+		}
+		return oldNode;
+	}
+
 	synchronized org.eclipse.jdt.internal.compiler.ast.ASTNode getCorrespondingNode(ASTNode currentNode) {
-		return (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(currentNode);
+		return (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(currentNode);
 	}
 
 	/*
@@ -517,7 +602,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	boolean isResolvedTypeInferredFromExpectedType(MethodInvocation methodInvocation) {
-		Object oldNode = this.newAstToOldAst.get(methodInvocation);
+		Object oldNode = getOldASTNode(methodInvocation);
 		if (oldNode instanceof MessageSend) {
 			MessageSend messageSend = (MessageSend) oldNode;
 			org.eclipse.jdt.internal.compiler.lookup.MethodBinding methodBinding = messageSend.binding;
@@ -530,7 +615,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	boolean isResolvedTypeInferredFromExpectedType(SuperMethodInvocation superMethodInvocation) {
-		Object oldNode = this.newAstToOldAst.get(superMethodInvocation);
+		Object oldNode = getOldASTNode(superMethodInvocation);
 		if (oldNode instanceof MessageSend) {
 			MessageSend messageSend = (MessageSend) oldNode;
 			org.eclipse.jdt.internal.compiler.lookup.MethodBinding methodBinding = messageSend.binding;
@@ -543,7 +628,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	boolean isResolvedTypeInferredFromExpectedType(ClassInstanceCreation classInstanceCreation) {
-		Object oldNode = this.newAstToOldAst.get(classInstanceCreation);
+		Object oldNode = getOldASTNode(classInstanceCreation);
 		if (oldNode instanceof AllocationExpression) {
 			AllocationExpression allocationExpression = (AllocationExpression) oldNode;
 			return allocationExpression.inferredReturnType;
@@ -551,6 +636,170 @@ class DefaultBindingResolver extends BindingResolver {
 		return false;
 	}
 
+	/*
+	 * Records the nodes of the lazily converted body enclosing the given node, if any.
+	 * Answers whether such a body was found.
+	 */
+	synchronized boolean materializeLazyBody(ASTNode node) {
+		for (ASTNode current = node; current != null && this.lazyBodies != null; current = current.getParent()) {
+			if (current.getNodeType() == ASTNode.BLOCK) {
+				org.eclipse.jdt.internal.compiler.ast.ASTNode declaration =
+					(org.eclipse.jdt.internal.compiler.ast.ASTNode) this.lazyBodies.remove(current);
+				if (declaration != null) {
+					materializeLazyBody((Block) current, declaration);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Records the nodes of all the lazily converted bodies.
+	 */
+	synchronized void materializeLazyBodies() {
+		while (this.lazyBodies != null) {
+			Iterator iterator = this.lazyBodies.entrySet().iterator();
+			Map.Entry entry = (Map.Entry) iterator.next();
+			iterator.remove();
+			materializeLazyBody((Block) entry.getKey(), (org.eclipse.jdt.internal.compiler.ast.ASTNode) entry.getValue());
+		}
+	}
+
+	/*
+	 * Converts again the given body from its compiler declaration into a separate AST and
+	 * records the compiler nodes and scopes of the copy for the corresponding nodes of the body.
+	 */
+	private void materializeLazyBody(Block body, org.eclipse.jdt.internal.compiler.ast.ASTNode declaration) {
+		ASTConverter converter = this.lazyConverter;
+		try {
+			AST copyAST = AST.newAST(body.getAST().apiLevel());
+			LazyBodyRecorder recorder = new LazyBodyRecorder();
+			copyAST.setBindingResolver(recorder);
+			Block copy = converter.convertLazyBody(copyAST, declaration);
+			Map copiesToNodes = new HashMap();
+			List declarations = new ArrayList();
+			recordLazyNodes(body.statements(), copy.statements(), recorder.newAstToOldAst, copiesToNodes, declarations);
+			recordLazyScopes(converter.pendingNameScopeResolution, copiesToNodes);
+			recordLazyScopes(converter.pendingThisExpressionScopeResolution, copiesToNodes);
+			converter.pendingNameScopeResolution = null;
+			converter.pendingThisExpressionScopeResolution = null;
+			// resolve the declarations that would have been resolved during a full conversion
+			for (int i = 0, max = declarations.size(); i < max; i++) {
+				ASTNode node = (ASTNode) declarations.get(i);
+				switch(node.getNodeType()) {
+					case ASTNode.VARIABLE_DECLARATION_FRAGMENT :
+					case ASTNode.SINGLE_VARIABLE_DECLARATION :
+						((VariableDeclaration) node).resolveBinding();
+						break;
+					case ASTNode.TYPE_DECLARATION :
+					case ASTNode.ENUM_DECLARATION :
+						((AbstractTypeDeclaration) node).resolveBinding();
+						break;
+					case ASTNode.ANONYMOUS_CLASS_DECLARATION :
+						((AnonymousClassDeclaration) node).resolveBinding();
+						break;
+					case ASTNode.METHOD_DECLARATION :
+						((MethodDeclaration) node).resolveBinding();
+						break;
+					case ASTNode.TYPE_PARAMETER :
+						((TypeParameter) node).resolveBinding();
+						break;
+				}
+			}
+		} finally {
+			if (this.lazyBodies != null && this.lazyBodies.isEmpty()) {
+				this.lazyBodies = null;
+				this.lazyConverter = null;
+			}
+		}
+	}
+
+	/*
+	 * Records the old ast nodes of the given copies for the corresponding nodes.
+	 * Nodes are matched on their type and source range, so that nodes that were
+	 * modified since the conversion are left unrecorded.
+	 */
+	private void recordLazyNodes(ASTNode node, ASTNode copy, Map copiesToOldNodes, Map copiesToNodes, List declarations) {
+		if (node.getNodeType() != copy.getNodeType()
+				|| node.getStartPosition() != copy.getStartPosition()
+				|| node.getLength() != copy.getLength()) {
+			return;
+		}
+		copiesToNodes.put(copy, node);
+		Object oldNode = copiesToOldNodes.get(copy);
+		if (oldNode != null) {
+			this.newAstToOldAst.put(node, oldNode);
+			switch(node.getNodeType()) {
+				case ASTNode.VARIABLE_DECLARATION_FRAGMENT :
+				case ASTNode.SINGLE_VARIABLE_DECLARATION :
+				case ASTNode.TYPE_DECLARATION :
+				case ASTNode.ENUM_DECLARATION :
+				case ASTNode.ANONYMOUS_CLASS_DECLARATION :
+				case ASTNode.METHOD_DECLARATION :
+				case ASTNode.TYPE_PARAMETER :
+					declarations.add(node);
+			}
+			if (node instanceof BodyDeclaration) {
+				// doc comments are only attached to the original nodes
+				Javadoc docComment = ((BodyDeclaration) node).getJavadoc();
+				org.eclipse.jdt.internal.compiler.ast.Javadoc javadoc = null;
+				if (oldNode instanceof org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) {
+					javadoc = ((org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) oldNode).javadoc;
+				} else if (oldNode instanceof AbstractMethodDeclaration) {
+					javadoc = ((AbstractMethodDeclaration) oldNode).javadoc;
+				} else if (oldNode instanceof org.eclipse.jdt.internal.compiler.ast.FieldDeclaration) {
+					javadoc = ((org.eclipse.jdt.internal.compiler.ast.FieldDeclaration) oldNode).javadoc;
+				}
+				if (docComment != null && javadoc != null && ((BodyDeclaration) copy).getJavadoc() == null) {
+					this.lazyConverter.recordJavadoc(javadoc, docComment);
+				}
+			}
+		}
+		List properties = node.structuralPropertiesForType();
+		for (int i = 0, max = properties.size(); i < max; i++) {
+			StructuralPropertyDescriptor property = (StructuralPropertyDescriptor) properties.get(i);
+			if (property.isChildProperty()) {
+				ASTNode child = (ASTNode) node.getStructuralProperty(property);
+				ASTNode childCopy = (ASTNode) copy.getStructuralProperty(property);
+				if (child != null && childCopy != null) {
+					recordLazyNodes(child, childCopy, copiesToOldNodes, copiesToNodes, declarations);
+				}
+			} else if (property.isChildListProperty()) {
+				recordLazyNodes((List) node.getStructuralProperty(property), (List) copy.getStructuralProperty(property), copiesToOldNodes, copiesToNodes, declarations);
+			}
+		}
+	}
+
+	private void recordLazyNodes(List nodes, List copies, Map copiesToOldNodes, Map copiesToNodes, List declarations) {
+		for (int i = 0, max = Math.min(nodes.size(), copies.size()); i < max; i++) {
+			recordLazyNodes((ASTNode) nodes.get(i), (ASTNode) copies.get(i), copiesToOldNodes, copiesToNodes, declarations);
+		}
+	}
+
+	/*
+	 * Records the scopes of the nodes corresponding to the given copies.
+	 */
+	private void recordLazyScopes(Set copies, Map copiesToNodes) {
+		if (copies == null) return;
+		for (Iterator iterator = copies.iterator(); iterator.hasNext(); ) {
+			ASTNode node = (ASTNode) copiesToNodes.get(iterator.next());
+			if (node != null) {
+				this.astNodesToBlockScope.put(node, this.lazyConverter.lookupScope(node));
+			}
+		}
+	}
+
+	/*
+	 * Method declared on BindingResolver.
+	 */
+	synchronized void recordLazyBody(Block body, org.eclipse.jdt.internal.compiler.ast.ASTNode declaration) {
+		if (this.lazyBodies == null) {
+			this.lazyBodies = new HashMap();
+		}
+		this.lazyBodies.put(body, declaration);
+	}
+
 	/*
 	 * Method declared on BindingResolver.
 	 */
@@ -569,7 +818,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveBoxing(Expression)
 	 */
 	boolean resolveBoxing(Expression expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(expression);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.Expression) {
 			org.eclipse.jdt.internal.compiler.ast.Expression compilerExpression = (org.eclipse.jdt.internal.compiler.ast.Expression) node;
 			return (compilerExpression.implicitConversion & TypeIds.BOXING) != 0;
@@ -581,7 +830,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveUnboxing(Expression)
 	 */
 	boolean resolveUnboxing(Expression expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(expression);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.Expression) {
 			org.eclipse.jdt.internal.compiler.ast.Expression compilerExpression = (org.eclipse.jdt.internal.compiler.ast.Expression) node;
 			return (compilerExpression.implicitConversion & TypeIds.UNBOXING) != 0;
@@ -593,7 +842,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveConstantExpressionValue(Expression)
 	 */
 	Object resolveConstantExpressionValue(Expression expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(expression);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.Expression) {
 			org.eclipse.jdt.internal.compiler.ast.Expression compilerExpression = (org.eclipse.jdt.internal.compiler.ast.Expression) node;
 			Constant constant = compilerExpression.constant;
@@ -619,7 +868,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveConstructor(ClassInstanceCreation)
 	 */
 	synchronized IMethodBinding resolveConstructor(ClassInstanceCreation expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(expression);
 		if (node != null && (node.bits & org.eclipse.jdt.internal.compiler.ast.ASTNode.IsAnonymousType) != 0) {
 			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration anonymousLocalTypeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) node;
 			return getMethodBinding(anonymousLocalTypeDeclaration.allocation.binding);
@@ -633,7 +882,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveConstructor(ConstructorInvocation)
 	 */
 	synchronized IMethodBinding resolveConstructor(ConstructorInvocation expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(expression);
 		if (node instanceof ExplicitConstructorCall) {
 			ExplicitConstructorCall explicitConstructorCall = (ExplicitConstructorCall) node;
 			return getMethodBinding(explicitConstructorCall.binding);
@@ -645,7 +894,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see org.eclipse.jdt.core.dom.BindingResolver#resolveConstructor(org.eclipse.jdt.core.dom.EnumConstantDeclaration)
 	 */
 	IMethodBinding resolveConstructor(EnumConstantDeclaration enumConstantDeclaration) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(enumConstantDeclaration);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(enumConstantDeclaration);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.FieldDeclaration) {
 			org.eclipse.jdt.internal.compiler.ast.FieldDeclaration fieldDeclaration = (org.eclipse.jdt.internal.compiler.ast.FieldDeclaration) node;
 			if (fieldDeclaration.getKind() == AbstractVariableDeclaration.ENUM_CONSTANT && fieldDeclaration.initialization != null) {
@@ -660,7 +909,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveConstructor(SuperConstructorInvocation)
 	 */
 	synchronized IMethodBinding resolveConstructor(SuperConstructorInvocation expression) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(expression);
 		if (node instanceof ExplicitConstructorCall) {
 			ExplicitConstructorCall explicitConstructorCall = (ExplicitConstructorCall) node;
 			return getMethodBinding(explicitConstructorCall.binding);
@@ -674,7 +923,7 @@ class DefaultBindingResolver extends BindingResolver {
 		try {
 			switch(expression.getNodeType()) {
 				case ASTNode.CLASS_INSTANCE_CREATION :
-					org.eclipse.jdt.internal.compiler.ast.ASTNode astNode = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(expression);
+					org.eclipse.jdt.internal.compiler.ast.ASTNode astNode = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(expression);
 					if (astNode instanceof org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) {
 						// anonymous type case
 						org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) astNode;
@@ -709,7 +958,7 @@ class DefaultBindingResolver extends BindingResolver {
 				case ASTNode.MARKER_ANNOTATION :
 				case ASTNode.NORMAL_ANNOTATION :
 				case ASTNode.SINGLE_MEMBER_ANNOTATION :
-					org.eclipse.jdt.internal.compiler.ast.Expression compilerExpression = (org.eclipse.jdt.internal.compiler.ast.Expression) this.newAstToOldAst.get(expression);
+					org.eclipse.jdt.internal.compiler.ast.Expression compilerExpression = (org.eclipse.jdt.internal.compiler.ast.Expression) getOldASTNode(expression);
 					if (compilerExpression != null) {
 						return this.getTypeBinding(compilerExpression.resolvedType);
 					}
@@ -723,14 +972,14 @@ class DefaultBindingResolver extends BindingResolver {
 				case ASTNode.NULL_LITERAL :
 				case ASTNode.CHARACTER_LITERAL :
 				case ASTNode.NUMBER_LITERAL :
-					Literal literal = (Literal) this.newAstToOldAst.get(expression);
+					Literal literal = (Literal) getOldASTNode(expression);
 					if (literal != null) {
 						return this.getTypeBinding(literal.literalType(null));
 					}
 					break;
 				case ASTNode.THIS_EXPRESSION :
-					ThisReference thisReference = (ThisReference) this.newAstToOldAst.get(expression);
-					BlockScope blockScope = (BlockScope) this.astNodesToBlockScope.get(expression);
+					ThisReference thisReference = (ThisReference) getOldASTNode(expression);
+					BlockScope blockScope = getBlockScope(expression);
 					if (blockScope != null) {
 						return this.getTypeBinding(thisReference.resolveType(blockScope));
 					}
@@ -756,7 +1005,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveField(FieldAccess)
 	 */
 	synchronized IVariableBinding resolveField(FieldAccess fieldAccess) {
-		Object oldNode = this.newAstToOldAst.get(fieldAccess);
+		Object oldNode = getOldASTNode(fieldAccess);
 		if (oldNode instanceof FieldReference) {
 			FieldReference fieldReference = (FieldReference) oldNode;
 			return this.getVariableBinding(fieldReference.binding);
@@ -768,7 +1017,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveField(SuperFieldAccess)
 	 */
 	synchronized IVariableBinding resolveField(SuperFieldAccess fieldAccess) {
-		Object oldNode = this.newAstToOldAst.get(fieldAccess);
+		Object oldNode = getOldASTNode(fieldAccess);
 		if (oldNode instanceof FieldReference) {
 			FieldReference fieldReference = (FieldReference) oldNode;
 			return this.getVariableBinding(fieldReference.binding);
@@ -782,7 +1031,7 @@ class DefaultBindingResolver extends BindingResolver {
 	synchronized IBinding resolveImport(ImportDeclaration importDeclaration) {
 		if (this.scope == null) return null;
 		try {
-			org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(importDeclaration);
+			org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(importDeclaration);
 			if (node instanceof ImportReference) {
 				ImportReference importReference = (ImportReference) node;
 				final boolean isStatic = importReference.isStatic();
@@ -846,7 +1095,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see org.eclipse.jdt.core.dom.BindingResolver#resolveMember(org.eclipse.jdt.core.dom.AnnotationTypeMemberDeclaration)
 	 */
 	IMethodBinding resolveMember(AnnotationTypeMemberDeclaration declaration) {
-		Object oldNode = this.newAstToOldAst.get(declaration);
+		Object oldNode = getOldASTNode(declaration);
 		if (oldNode instanceof AbstractMethodDeclaration) {
 			AbstractMethodDeclaration methodDeclaration = (AbstractMethodDeclaration) oldNode;
 			IMethodBinding methodBinding = getMethodBinding(methodDeclaration.binding);
@@ -867,7 +1116,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IMethodBinding resolveMethod(MethodDeclaration method) {
-		Object oldNode = this.newAstToOldAst.get(method);
+		Object oldNode = getOldASTNode(method);
 		if (oldNode instanceof AbstractMethodDeclaration) {
 			AbstractMethodDeclaration methodDeclaration = (AbstractMethodDeclaration) oldNode;
 			IMethodBinding methodBinding = getMethodBinding(methodDeclaration.binding);
@@ -887,7 +1136,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IMethodBinding resolveMethod(MethodInvocation method) {
-		Object oldNode = this.newAstToOldAst.get(method);
+		Object oldNode = getOldASTNode(method);
 		if (oldNode instanceof MessageSend) {
 			MessageSend messageSend = (MessageSend) oldNode;
 			return getMethodBinding(messageSend.binding);
@@ -898,7 +1147,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IMethodBinding resolveMethod(SuperMethodInvocation method) {
-		Object oldNode = this.newAstToOldAst.get(method);
+		Object oldNode = getOldASTNode(method);
 		if (oldNode instanceof MessageSend) {
 			MessageSend messageSend = (MessageSend) oldNode;
 			return getMethodBinding(messageSend.binding);
@@ -907,7 +1156,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	synchronized ITypeBinding resolveTypeBindingForName(Name name) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(name);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(name);
 		int index = name.index;
 		if (node instanceof QualifiedNameReference) {
 			QualifiedNameReference qualifiedNameReference = (QualifiedNameReference) node;
@@ -918,7 +1167,7 @@ class DefaultBindingResolver extends BindingResolver {
 			int indexOfFirstFieldBinding = qualifiedNameReference.indexOfFirstFieldBinding; // one-based
 			if (index < indexOfFirstFieldBinding) {
 				// an extra lookup is required
-				BlockScope internalScope = (BlockScope) this.astNodesToBlockScope.get(name);
+				BlockScope internalScope = getBlockScope(name);
 				Binding binding = null;
 				try {
 					if (internalScope == null) {
@@ -997,7 +1246,7 @@ class DefaultBindingResolver extends BindingResolver {
 				return this.getTypeBinding(qualifiedTypeReference.resolvedType.leafComponentType());
 			} else {
 				if (index >= 0) {
-					BlockScope internalScope = (BlockScope) this.astNodesToBlockScope.get(name);
+					BlockScope internalScope = getBlockScope(name);
 					Binding binding = null;
 					try {
 						if (internalScope == null) {
@@ -1119,7 +1368,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IBinding resolveName(Name name) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(name);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(name);
 		int index = name.index;
 		if (node instanceof QualifiedNameReference) {
 			QualifiedNameReference qualifiedNameReference = (QualifiedNameReference) node;
@@ -1127,7 +1376,7 @@ class DefaultBindingResolver extends BindingResolver {
 			int indexOfFirstFieldBinding = qualifiedNameReference.indexOfFirstFieldBinding; // one-based
 			if (index < indexOfFirstFieldBinding) {
 				// an extra lookup is required
-				BlockScope internalScope = (BlockScope) this.astNodesToBlockScope.get(name);
+				BlockScope internalScope = getBlockScope(name);
 				Binding binding = null;
 				try {
 					if (internalScope == null) {
@@ -1205,7 +1454,7 @@ class DefaultBindingResolver extends BindingResolver {
 				return this.getTypeBinding(qualifiedTypeReference.resolvedType.leafComponentType());
 			} else {
 				if (index >= 0) {
-					BlockScope internalScope = (BlockScope) this.astNodesToBlockScope.get(name);
+					BlockScope internalScope = getBlockScope(name);
 					Binding binding = null;
 					try {
 						if (internalScope == null) {
@@ -1381,7 +1630,7 @@ class DefaultBindingResolver extends BindingResolver {
 	synchronized IPackageBinding resolvePackage(PackageDeclaration pkg) {
 		if (this.scope == null) return null;
 		try {
-			org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(pkg);
+			org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(pkg);
 			if (node instanceof ImportReference) {
 				ImportReference importReference = (ImportReference) node;
 				Binding binding = this.scope.getOnlyPackage(CharOperation.subarray(importReference.tokens, 0, importReference.tokens.length));
@@ -1418,7 +1667,7 @@ class DefaultBindingResolver extends BindingResolver {
      * @since 3.0
 	 */
 	synchronized IBinding resolveReference(MemberRef ref) {
-		org.eclipse.jdt.internal.compiler.ast.Expression expression = (org.eclipse.jdt.internal.compiler.ast.Expression) this.newAstToOldAst.get(ref);
+		org.eclipse.jdt.internal.compiler.ast.Expression expression = (org.eclipse.jdt.internal.compiler.ast.Expression) getOldASTNode(ref);
 		if (expression instanceof TypeReference) {
 			return getTypeBinding(expression.resolvedType);
 		} else if (expression instanceof JavadocFieldReference) {
@@ -1436,7 +1685,7 @@ class DefaultBindingResolver extends BindingResolver {
      * @since 3.2
 	 */
 	synchronized IMemberValuePairBinding resolveMemberValuePair(org.eclipse.jdt.core.dom.MemberValuePair memberValuePair) {
-		MemberValuePair valuePair = (MemberValuePair) this.newAstToOldAst.get(memberValuePair);
+		MemberValuePair valuePair = (MemberValuePair) getOldASTNode(memberValuePair);
 		if (valuePair != null) {
 			return getMemberValuePairBinding(valuePair.compilerElementPair);
 		}
@@ -1448,7 +1697,7 @@ class DefaultBindingResolver extends BindingResolver {
      * @since 3.0
 	 */
 	synchronized IBinding resolveReference(MethodRef ref) {
-		org.eclipse.jdt.internal.compiler.ast.Expression expression = (org.eclipse.jdt.internal.compiler.ast.Expression) this.newAstToOldAst.get(ref);
+		org.eclipse.jdt.internal.compiler.ast.Expression expression = (org.eclipse.jdt.internal.compiler.ast.Expression) getOldASTNode(ref);
 		if (expression instanceof JavadocMessageSend) {
 			return getMethodBinding(((JavadocMessageSend)expression).binding);
 		}
@@ -1462,7 +1711,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see org.eclipse.jdt.core.dom.BindingResolver#resolveType(org.eclipse.jdt.core.dom.AnnotationTypeDeclaration)
 	 */
 	ITypeBinding resolveType(AnnotationTypeDeclaration type) {
-		final Object node = this.newAstToOldAst.get(type);
+		final Object node = getOldASTNode(type);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) {
 			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) node;
 			ITypeBinding typeBinding = this.getTypeBinding(typeDeclaration.binding);
@@ -1482,7 +1731,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see BindingResolver#resolveType(AnonymousClassDeclaration)
 	 */
 	synchronized ITypeBinding resolveType(AnonymousClassDeclaration type) {
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(type);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(type);
 		if (node != null && (node.bits & org.eclipse.jdt.internal.compiler.ast.ASTNode.IsAnonymousType) != 0) {
 			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration anonymousLocalTypeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) node;
 			ITypeBinding typeBinding = this.getTypeBinding(anonymousLocalTypeDeclaration.binding);
@@ -1503,7 +1752,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see org.eclipse.jdt.core.dom.BindingResolver#resolveType(org.eclipse.jdt.core.dom.EnumDeclaration)
 	 */
 	ITypeBinding resolveType(EnumDeclaration type) {
-		final Object node = this.newAstToOldAst.get(type);
+		final Object node = getOldASTNode(type);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) {
 			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) node;
 			ITypeBinding typeBinding = this.getTypeBinding(typeDeclaration.binding);
@@ -1525,7 +1774,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 */
 	synchronized ITypeBinding resolveType(Type type) {
 		// retrieve the old ast node
-		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) this.newAstToOldAst.get(type);
+		org.eclipse.jdt.internal.compiler.ast.ASTNode node = (org.eclipse.jdt.internal.compiler.ast.ASTNode) getOldASTNode(type);
 		org.eclipse.jdt.internal.compiler.lookup.TypeBinding binding = null;
 		if (node != null) {
 			if (node instanceof ParameterizedQualifiedTypeReference) {
@@ -1604,7 +1853,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized ITypeBinding resolveType(TypeDeclaration type) {
-		final Object node = this.newAstToOldAst.get(type);
+		final Object node = getOldASTNode(type);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) {
 			org.eclipse.jdt.internal.compiler.ast.TypeDeclaration typeDeclaration = (org.eclipse.jdt.internal.compiler.ast.TypeDeclaration) node;
 			ITypeBinding typeBinding = this.getTypeBinding(typeDeclaration.binding);
@@ -1622,7 +1871,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	synchronized ITypeBinding resolveTypeParameter(TypeParameter typeParameter) {
-		final Object node = this.newAstToOldAst.get(typeParameter);
+		final Object node = getOldASTNode(typeParameter);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.TypeParameter) {
 			org.eclipse.jdt.internal.compiler.ast.TypeParameter typeParameter2 = (org.eclipse.jdt.internal.compiler.ast.TypeParameter) node;
 			ITypeBinding typeBinding = this.getTypeBinding(typeParameter2.binding);
@@ -1643,7 +1892,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * @see org.eclipse.jdt.core.dom.BindingResolver#resolveVariable(org.eclipse.jdt.core.dom.EnumConstantDeclaration)
 	 */
 	synchronized IVariableBinding resolveVariable(EnumConstantDeclaration enumConstant) {
-		final Object node = this.newAstToOldAst.get(enumConstant);
+		final Object node = getOldASTNode(enumConstant);
 		if (node instanceof org.eclipse.jdt.internal.compiler.ast.FieldDeclaration) {
 			org.eclipse.jdt.internal.compiler.ast.FieldDeclaration fieldDeclaration = (org.eclipse.jdt.internal.compiler.ast.FieldDeclaration) node;
 			IVariableBinding variableBinding = this.getVariableBinding(fieldDeclaration.binding);
@@ -1663,7 +1912,7 @@ class DefaultBindingResolver extends BindingResolver {
 	 * Method declared on BindingResolver.
 	 */
 	synchronized IVariableBinding resolveVariable(VariableDeclaration variable) {
-		final Object node = this.newAstToOldAst.get(variable);
+		final Object node = getOldASTNode(variable);
 		if (node instanceof AbstractVariableDeclaration) {
 			AbstractVariableDeclaration abstractVariableDeclaration = (AbstractVariableDeclaration) node;
 			IVariableBinding variableBinding = null;
@@ -1754,7 +2003,7 @@ class DefaultBindingResolver extends BindingResolver {
 	}
 
 	synchronized IAnnotationBinding resolveAnnotation(final Annotation domASTNode) {
-		Object oldNode = this.newAstToOldAst.get(domASTNode);
+		Object oldNode = getOldASTNode(domASTNode);
 		if (oldNode instanceof org.eclipse.jdt.internal.compiler.ast.Annotation) {
 			org.eclipse.jdt.internal.compiler.ast.Annotation internalAstNode =
 				(org.eclipse.jdt.internal.compiler.ast.Annotation) oldNode;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2005, 2011 IBM Corporation and others.
+ *  Copyright (c) 2005, 2013 IBM Corporation and others.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -28,6 +28,7 @@ import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
 import org.eclipse.jdt.core.ToolFactory;
 import org.eclipse.jdt.internal.core.util.Util;
+import org.eclipse.jdt.internal.formatter.DefaultCodeFormatter;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
@@ -219,13 +220,23 @@ public class CodeFormatterApplication implements IApplication {
 			}
 			String contents = new String(org.eclipse.jdt.internal.compiler.util.Util.getFileCharContent(file, null));
 			// format the file (the meat and potatoes)
-			doc.set(contents);
-			TextEdit edit = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT | CodeFormatter.F_INCLUDE_COMMENTS, contents, 0, contents.length(), 0, null);
-			if (edit != null) {
-				edit.apply(doc);
+			if (codeFormatter instanceof DefaultCodeFormatter) {
+				// no need to go through text edits when the whole file is formatted
+				String formatted = ((DefaultCodeFormatter) codeFormatter).formatToString(CodeFormatter.K_COMPILATION_UNIT | CodeFormatter.F_INCLUDE_COMMENTS, contents, 0, null);
+				if (formatted == null) {
+					System.err.println(Messages.bind(Messages.FormatProblem, file.getAbsolutePath()));
+					return;
+				}
+				doc.set(formatted);
 			} else {
-				System.err.println(Messages.bind(Messages.FormatProblem, file.getAbsolutePath()));
-				return;
+				doc.set(contents);
+				TextEdit edit = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT | CodeFormatter.F_INCLUDE_COMMENTS, contents, 0, contents.length(), 0, null);
+				if (edit != null) {
+					edit.apply(doc);
+				} else {
+					System.err.println(Messages.bind(Messages.FormatProblem, file.getAbsolutePath()));
+					return;
+				}
 			}
 
 			// write the file
@@ -275,6 +275,46 @@ public class CodeFormatterVisitor extends ASTVisitor {
 		return builder;
 	}
 
+	/*
+	 * Answer whether the statements of the given method body do not need to be formatted
+	 * as none of their lines, nor the lines up to the next token after the closing brace,
+	 * are in the regions to format.
+	 * The scribe state after the statements is known in this case (a new line was printed
+	 * at the current indentation), hence the body can be skipped instead of being formatted
+	 * and dropped while adapting the edits to the regions.
+	 */
+	private boolean canSkipBody(int bodyStart, int bodyEnd) {
+		if (this.scribe.currentAlignment != null
+				|| this.preferences.align_type_members_on_columns
+				|| this.preferences.use_tags) {
+			// the formatting of the body may change the formatting of the surrounding code
+			return false;
+		}
+		int closingBrace = bodyEnd + 1;
+		char[] source = this.scribe.scanner.source;
+		if (bodyStart > closingBrace || closingBrace >= this.scribe.scannerEndPosition || source[closingBrace] != '}') {
+			return false;
+		}
+		int end = this.scribe.scannerEndPosition - 1;
+		this.localScanner.resetTo(closingBrace + 1, end);
+		try {
+			int token;
+			loop: while ((token = this.localScanner.getNextToken()) != TerminalTokens.TokenNameEOF) {
+				switch(token) {
+					case TerminalTokens.TokenNameCOMMENT_BLOCK :
+					case TerminalTokens.TokenNameCOMMENT_JAVADOC :
+					case TerminalTokens.TokenNameCOMMENT_LINE :
+						continue loop;
+				}
+				end = this.localScanner.startPosition - 1;
+				break;
+			}
+		} catch(InvalidInputException e) {
+			return false;
+		}
+		return this.scribe.isOutsideRegions(bodyStart, end);
+	}
+
 	private boolean commentStartsBlock(int start, int end) {
 		this.localScanner.resetTo(start, end);
 		try {
@@ -852,11 +892,30 @@ public class CodeFormatterVisitor extends ASTVisitor {
 	 * @see org.eclipse.jdt.core.formatter.CodeFormatter#format(int, String, int, int, int, String)
 	 */
 	public TextEdit format(String string, CompilationUnitDeclaration compilationUnitDeclaration) {
+		if (!formatCompilationUnit(string, compilationUnitDeclaration)) {
+			return failedToFormat();
+		}
+		return this.scribe.getRootEdit();
+	}
+
+	/*
+	 * Format the given compilation unit and directly answer the formatted source
+	 * instead of the corresponding text edit, or null if it cannot be formatted.
+	 */
+	public String formatToString(String string, CompilationUnitDeclaration compilationUnitDeclaration) {
+		if (!formatCompilationUnit(string, compilationUnitDeclaration)) {
+			failedToFormat();
+			return null;
+		}
+		return this.scribe.getFormattedSource();
+	}
+
+	private boolean formatCompilationUnit(String string, CompilationUnitDeclaration compilationUnitDeclaration) {
 		// reset the scribe
 		this.scribe.reset();
 
 		if (compilationUnitDeclaration == null || compilationUnitDeclaration.ignoreFurtherInvestigation) {
-			return failedToFormat();
+			return false;
 		}
 
 		long startTime = 0;
@@ -873,12 +932,12 @@ public class CodeFormatterVisitor extends ASTVisitor {
 		try {
 			compilationUnitDeclaration.traverse(this, compilationUnitDeclaration.scope);
 		} catch(AbortFormatting e){
-			return failedToFormat();
+			return false;
 		}
 		if (DEBUG){
 			System.out.println("Formatting time: " + (System.currentTimeMillis() - startTime));  //$NON-NLS-1$
 		}
-		return this.scribe.getRootEdit();
+		return true;
 	}
 
 	/**
@@ -3557,37 +3616,48 @@ public class CodeFormatterVisitor extends ASTVisitor {
 			if (numberOfBlankLinesAtBeginningOfMethodBody > 0) {
 				this.scribe.printEmptyLines(numberOfBlankLinesAtBeginningOfMethodBody);
 			}
-			if (constructorDeclaration.constructorCall != null && !constructorDeclaration.constructorCall.isImplicitSuper()) {
-				this.scribe.printNewLine();
-				if (this.preferences.indent_statements_compare_to_body) {
-					this.scribe.indent();
-				}
-				constructorDeclaration.constructorCall.traverse(this, constructorDeclaration.scope);
-				if (this.preferences.indent_statements_compare_to_body) {
-					this.scribe.unIndent();
-				}
-			}
 			final Statement[] statements = constructorDeclaration.statements;
-			if (statements != null) {
+			if (statements != null && canSkipBody(constructorDeclaration.bodyStart, constructorDeclaration.bodyEnd)) {
 				this.scribe.printNewLine();
 				if (this.preferences.indent_statements_compare_to_body) {
 					this.scribe.indent();
 				}
-				formatStatements(constructorDeclaration.scope, statements, true);
-				this.scribe.printComment();
+				this.scribe.skipToNewLine(constructorDeclaration.bodyEnd + 1);
 				if (this.preferences.indent_statements_compare_to_body) {
 					this.scribe.unIndent();
 				}
 			} else {
-				if (this.preferences.insert_new_line_in_empty_method_body) {
+				if (constructorDeclaration.constructorCall != null && !constructorDeclaration.constructorCall.isImplicitSuper()) {
 					this.scribe.printNewLine();
+					if (this.preferences.indent_statements_compare_to_body) {
+						this.scribe.indent();
+					}
+					constructorDeclaration.constructorCall.traverse(this, constructorDeclaration.scope);
+					if (this.preferences.indent_statements_compare_to_body) {
+						this.scribe.unIndent();
+					}
 				}
-				if (this.preferences.indent_statements_compare_to_body) {
-					this.scribe.indent();
-				}
-				this.scribe.printComment();
-				if (this.preferences.indent_statements_compare_to_body) {
-					this.scribe.unIndent();
+				if (statements != null) {
+					this.scribe.printNewLine();
+					if (this.preferences.indent_statements_compare_to_body) {
+						this.scribe.indent();
+					}
+					formatStatements(constructorDeclaration.scope, statements, true);
+					this.scribe.printComment();
+					if (this.preferences.indent_statements_compare_to_body) {
+						this.scribe.unIndent();
+					}
+				} else {
+					if (this.preferences.insert_new_line_in_empty_method_body) {
+						this.scribe.printNewLine();
+					}
+					if (this.preferences.indent_statements_compare_to_body) {
+						this.scribe.indent();
+					}
+					this.scribe.printComment();
+					if (this.preferences.indent_statements_compare_to_body) {
+						this.scribe.unIndent();
+					}
 				}
 			}
 			this.scribe.printNextToken(TerminalTokens.TokenNameRBRACE);
@@ -4505,8 +4575,12 @@ public class CodeFormatterVisitor extends ASTVisitor {
 				if (this.preferences.indent_statements_compare_to_body) {
 					this.scribe.indent();
 				}
-				formatStatements(methodDeclarationScope, statements, true);
-				this.scribe.printComment(Scribe.PRESERVE_EMPTY_LINES_AT_END_OF_METHOD_DECLARATION);
+				if (canSkipBody(methodDeclaration.bodyStart, methodDeclaration.bodyEnd)) {
+					this.scribe.skipToNewLine(methodDeclaration.bodyEnd + 1);
+				} else {
+					formatStatements(methodDeclarationScope, statements, true);
+					this.scribe.printComment(Scribe.PRESERVE_EMPTY_LINES_AT_END_OF_METHOD_DECLARATION);
+				}
 				if (this.preferences.indent_statements_compare_to_body) {
 					this.scribe.unIndent();
 				}
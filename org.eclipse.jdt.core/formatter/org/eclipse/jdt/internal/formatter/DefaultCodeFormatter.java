@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -50,7 +50,8 @@ public class DefaultCodeFormatter extends CodeFormatter {
 		| K_JAVA_DOC;
 
 	// Scanner use to probe the kind of the source given to the formatter
-	private static Scanner PROBING_SCANNER;
+	// (one per formatter as formatters may run concurrently, see format(int, String[], IRegion[][], int, String, int))
+	private Scanner probingScanner;
 
 	private CodeSnippetParsingUtil codeSnippetParsingUtil;
 	private Map defaultCompilerOptions;
@@ -176,6 +177,154 @@ public class DefaultCodeFormatter extends CodeFormatter {
 		return null;
 	}
 
+	/**
+	 * Formats the whole given source and directly answers the formatted source.
+	 * <p>
+	 * For compilation units, the formatter edits are applied on the source as they
+	 * are recorded, hence no text edit is created at all. Other kinds of source are
+	 * formatted through {@link #format(int, String, int, int, int, String)}.
+	 * </p>
+	 *
+	 * @param kind the kind of the source
+	 * @param source the source to format
+	 * @param indentationLevel the initial indentation level
+	 * @param lineSeparator the line separator to use in the formatted source
+	 * @return the formatted source, or <code>null</code> if it could not be formatted
+	 */
+	public String formatToString(int kind, String source, int indentationLevel, String lineSeparator) {
+		if ((kind & K_MASK) != K_COMPILATION_UNIT) {
+			TextEdit edit = format(kind, source, 0, source.length(), indentationLevel, lineSeparator);
+			return edit == null ? null : org.eclipse.jdt.internal.core.util.Util.editedString(source, edit);
+		}
+		this.codeSnippetParsingUtil = new CodeSnippetParsingUtil();
+		CompilationUnitDeclaration compilationUnitDeclaration = this.codeSnippetParsingUtil.parseCompilationUnit(source.toCharArray(), getDefaultCompilerOptions(), true);
+		initFormatterPreferences(indentationLevel, lineSeparator);
+		IRegion[] regions = new IRegion[] {new Region(0, source.length())};
+		this.newCodeFormatter = new CodeFormatterVisitor(this.preferences, this.options, regions, this.codeSnippetParsingUtil, (kind & F_INCLUDE_COMMENTS) != 0);
+		return this.newCodeFormatter.formatToString(source, compilationUnitDeclaration);
+	}
+
+	/**
+	 * Formats the given sources and answers the corresponding edits, in the same order.
+	 * <p>
+	 * The sources are distributed on <code>threadCount</code> worker threads, each of them
+	 * using its own formatter (hence its own scanner and scribe) built from the preferences
+	 * and options of this formatter. The caller thread is used as one of the workers.
+	 * </p><p>
+	 * The entry for a source is <code>null</code> when it could not be formatted, exactly as
+	 * for {@link #format(int, String, IRegion[], int, String)}.
+	 * </p>
+	 *
+	 * @param kind the kind of all the sources
+	 * @param sources the sources to format
+	 * @param regions the regions to format for each source, or <code>null</code> to format all
+	 * 	the sources entirely. A <code>null</code> entry means the whole corresponding source.
+	 * @param indentationLevel the initial indentation level of all the sources
+	 * @param lineSeparator the line separator to use in the formatted sources
+	 * @param threadCount the maximum number of threads to use
+	 * @return the edits for each source
+	 * @throws IllegalArgumentException if the regions do not match the sources, or if
+	 * 	the thread count is not positive
+	 */
+	public TextEdit[] format(int kind, String[] sources, IRegion[][] regions, int indentationLevel, String lineSeparator, int threadCount) {
+		int length = sources.length;
+		if (threadCount <= 0 || (regions != null && regions.length != length)) {
+			throw new IllegalArgumentException();
+		}
+		IRegion[][] sourceRegions = new IRegion[length][];
+		for (int i = 0; i < length; i++) {
+			IRegion[] current = regions == null ? null : regions[i];
+			if (current == null) {
+				current = new IRegion[] {new Region(0, sources[i].length())};
+			} else if (!regionsSatisfiesPreconditions(current, sources[i].length())) {
+				throw new IllegalArgumentException();
+			}
+			sourceRegions[i] = current;
+		}
+		FormatterPool pool = new FormatterPool(kind, sources, sourceRegions, indentationLevel, lineSeparator);
+		int workers = Math.min(threadCount, length);
+		Thread[] threads = new Thread[workers > 0 ? workers - 1 : 0];
+		for (int i = 0, max = threads.length; i < max; i++) {
+			threads[i] = new Thread(pool, "Java Formatter Worker #" + (i + 1)); //$NON-NLS-1$
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+		pool.run();
+		for (int i = 0, max = threads.length; i < max; i++) {
+			boolean interrupted = false;
+			while (true) {
+				try {
+					threads[i].join();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (pool.error instanceof RuntimeException) {
+			throw (RuntimeException) pool.error;
+		} else if (pool.error instanceof Error) {
+			throw (Error) pool.error;
+		}
+		return pool.edits;
+	}
+
+	/*
+	 * Hands out the sources of a bulk format to the worker threads.
+	 */
+	private class FormatterPool implements Runnable {
+		final int kind;
+		final String[] sources;
+		final IRegion[][] regions;
+		final int indentationLevel;
+		final String lineSeparator;
+		final TextEdit[] edits;
+		int next;
+		Throwable error;
+
+		FormatterPool(int kind, String[] sources, IRegion[][] regions, int indentationLevel, String lineSeparator) {
+			this.kind = kind;
+			this.sources = sources;
+			this.regions = regions;
+			this.indentationLevel = indentationLevel;
+			this.lineSeparator = lineSeparator;
+			this.edits = new TextEdit[sources.length];
+		}
+
+		synchronized int nextIndex() {
+			if (this.error != null || this.next >= this.sources.length) {
+				return -1;
+			}
+			return this.next++;
+		}
+
+		public void run() {
+			// the preferences are updated while formatting (line separator, indentation level),
+			// hence each worker needs its own formatter
+			DefaultCodeFormatter formatter = new DefaultCodeFormatter(DefaultCodeFormatter.this.preferences, DefaultCodeFormatter.this.options);
+			try {
+				int index;
+				while ((index = nextIndex()) != -1) {
+					TextEdit edit = formatter.format(this.kind, this.sources[index], this.regions[index], this.indentationLevel, this.lineSeparator);
+					synchronized (this) {
+						this.edits[index] = edit;
+					}
+				}
+			} catch (RuntimeException e) {
+				synchronized (this) {
+					if (this.error == null) this.error = e;
+				}
+			} catch (Error e) {
+				synchronized (this) {
+					if (this.error == null) this.error = e;
+				}
+			}
+		}
+	}
+
 	private TextEdit formatClassBodyDeclarations(String source, int indentationLevel, String lineSeparator, IRegion[] regions, boolean includeComments) {
 		ASTNode[] bodyDeclarations = this.codeSnippetParsingUtil.parseClassBodyDeclarations(source.toCharArray(), getDefaultCompilerOptions(), true);
 
@@ -229,16 +378,20 @@ public class DefaultCodeFormatter extends CodeFormatter {
 	private TextEdit formatCompilationUnit(String source, int indentationLevel, String lineSeparator, IRegion[] regions, boolean includeComments) {
 		CompilationUnitDeclaration compilationUnitDeclaration = this.codeSnippetParsingUtil.parseCompilationUnit(source.toCharArray(), getDefaultCompilerOptions(), true);
 
+		initFormatterPreferences(indentationLevel, lineSeparator);
+
+		this.newCodeFormatter = new CodeFormatterVisitor(this.preferences, this.options, regions, this.codeSnippetParsingUtil, includeComments);
+
+		return this.newCodeFormatter.format(source, compilationUnitDeclaration);
+	}
+
+	private void initFormatterPreferences(int indentationLevel, String lineSeparator) {
 		if (lineSeparator != null) {
 			this.preferences.line_separator = lineSeparator;
 		} else {
 			this.preferences.line_separator = Util.LINE_SEPARATOR;
 		}
 		this.preferences.initial_indentation_level = indentationLevel;
-
-		this.newCodeFormatter = new CodeFormatterVisitor(this.preferences, this.options, regions, this.codeSnippetParsingUtil, includeComments);
-
-		return this.newCodeFormatter.format(source, compilationUnitDeclaration);
 	}
 
 	private TextEdit formatExpression(String source, int indentationLevel, String lineSeparator, IRegion[] regions, boolean includeComments) {
@@ -401,33 +554,33 @@ public class DefaultCodeFormatter extends CodeFormatter {
     }
 
 	private TextEdit probeFormatting(String source, int indentationLevel, String lineSeparator, IRegion[] regions, boolean includeComments) {
-		if (PROBING_SCANNER == null) {
+		if (this.probingScanner == null) {
 			// scanner use to check if the kind could be K_JAVA_DOC, K_MULTI_LINE_COMMENT or K_SINGLE_LINE_COMMENT
 			// do not tokenize white spaces to get single comments even with spaces before...
-			PROBING_SCANNER = new Scanner(true, false/*do not tokenize whitespaces*/, false/*nls*/, ClassFileConstants.JDK1_6, ClassFileConstants.JDK1_6, null/*taskTags*/, null/*taskPriorities*/, true/*taskCaseSensitive*/);
+			this.probingScanner = new Scanner(true, false/*do not tokenize whitespaces*/, false/*nls*/, ClassFileConstants.JDK1_6, ClassFileConstants.JDK1_6, null/*taskTags*/, null/*taskPriorities*/, true/*taskCaseSensitive*/);
 		}
-		PROBING_SCANNER.setSource(source.toCharArray());
+		this.probingScanner.setSource(source.toCharArray());
 
 		IRegion coveredRegion = getCoveredRegion(regions);
 		int offset = coveredRegion.getOffset();
 		int length = coveredRegion.getLength();
 
-		PROBING_SCANNER.resetTo(offset, offset + length - 1);
+		this.probingScanner.resetTo(offset, offset + length - 1);
 		try {
 			int kind = -1;
-			switch(PROBING_SCANNER.getNextToken()) {
+			switch(this.probingScanner.getNextToken()) {
 				case ITerminalSymbols.TokenNameCOMMENT_BLOCK :
-					if (PROBING_SCANNER.getNextToken() == TerminalTokens.TokenNameEOF) {
+					if (this.probingScanner.getNextToken() == TerminalTokens.TokenNameEOF) {
 						kind = K_MULTI_LINE_COMMENT;
 					}
 					break;
 				case ITerminalSymbols.TokenNameCOMMENT_LINE :
-					if (PROBING_SCANNER.getNextToken() == TerminalTokens.TokenNameEOF) {
+					if (this.probingScanner.getNextToken() == TerminalTokens.TokenNameEOF) {
 						kind = K_SINGLE_LINE_COMMENT;
 					}
 					break;
 				case ITerminalSymbols.TokenNameCOMMENT_JAVADOC :
-					if (PROBING_SCANNER.getNextToken() == TerminalTokens.TokenNameEOF) {
+					if (this.probingScanner.getNextToken() == TerminalTokens.TokenNameEOF) {
 						kind = K_JAVA_DOC;
 					}
 					break;
@@ -438,7 +591,7 @@ public class DefaultCodeFormatter extends CodeFormatter {
 		} catch (InvalidInputException e) {
 			// ignore
 		}
-		PROBING_SCANNER.setSource((char[]) null);
+		this.probingScanner.setSource((char[]) null);
 
 		// probe for expression
 		Expression expression = this.codeSnippetParsingUtil.parseExpression(source.toCharArray(), getDefaultCompilerOptions(), true);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -34,7 +34,10 @@ public class Location {
 
 	// edits management
 	int editsIndex;
-	OptimizedReplaceEdit textEdit;
+	int editOffset;
+	int editLength;
+	int editReplacementStart;
+	int editReplacementLength;
 
 	public Location(Scribe scribe, int sourceRestart){
 		update(scribe, sourceRestart);
@@ -52,7 +55,7 @@ public class Location {
 		this.editsIndex = scribe.editsIndex;
 		this.nlsTagCounter = scribe.nlsTagCounter;
 		this.numberOfIndentations = scribe.numberOfIndentations;
-		this.textEdit = scribe.getLastEdit();
+		scribe.storeLastEdit(this);
 	}
 
 	public String toString() {
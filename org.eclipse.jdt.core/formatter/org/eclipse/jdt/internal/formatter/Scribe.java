@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -66,8 +66,17 @@ public class Scribe implements IJavaDocTagConstants {
 	public Alignment currentAlignment;
 	public int currentToken;
 
-	// edits management
-	private OptimizedReplaceEdit[] edits;
+	// edits management: the edit at a given index replaces the editsLengths[index] characters
+	// at editsOffsets[index] with the editsReplacementLengths[index] characters starting
+	// at editsReplacementStarts[index] in the replacements buffer.
+	// The replacements buffer is only appended to, hence a replacement is never modified
+	// once stored and may be shared with the last edit saved in a location
+	private int[] editsOffsets;
+	private int[] editsLengths;
+	private int[] editsReplacementStarts;
+	private int[] editsReplacementLengths;
+	private char[] replacements;
+	private int replacementsLength;
 	public int editsIndex;
 
 	public CodeFormatterVisitor formatter;
@@ -280,8 +289,12 @@ public class Scribe implements IJavaDocTagConstants {
 		}
 
 		// Sort edits
+		OptimizedReplaceEdit[] edits = new OptimizedReplaceEdit[this.editsIndex];
+		for (int i = 0; i < this.editsIndex; i++) {
+			edits[i] = new OptimizedReplaceEdit(this.editsOffsets[i], this.editsLengths[i], getReplacement(i));
+		}
 		OptimizedReplaceEdit[] sortedEdits = new OptimizedReplaceEdit[this.editsIndex];
-		System.arraycopy(this.edits, 0, sortedEdits, 0, this.editsIndex);
+		System.arraycopy(edits, 0, sortedEdits, 0, this.editsIndex);
 		Arrays.sort(sortedEdits, new Comparator() {
 			public int compare(Object o1, Object o2) {
 		    	OptimizedReplaceEdit edit1 = (OptimizedReplaceEdit) o1;
@@ -311,6 +324,17 @@ public class Scribe implements IJavaDocTagConstants {
 	    		sortedEdits[e].offset = -1;
 	    	}
     	}
+
+		// Store the adapted edits
+		for (int i = 0; i < this.editsIndex; i++) {
+			OptimizedReplaceEdit edit = edits[i];
+			this.editsOffsets[i] = edit.offset;
+			this.editsLengths[i] = edit.length;
+			if (edit.replacement.length() != this.editsReplacementLengths[i] || !edit.replacement.equals(getReplacement(i))) {
+				this.editsReplacementStarts[i] = storeReplacement(edit.replacement);
+				this.editsReplacementLengths[i] = edit.replacement.length();
+			}
+		}
 	}
 
 	/*
@@ -546,7 +570,7 @@ public class Scribe implements IJavaDocTagConstants {
     }
 
 	private final void addDeleteEdit(int start, int end) {
-		if (this.edits.length == this.editsIndex) {
+		if (this.editsOffsets.length == this.editsIndex) {
 			// resize
 			resize();
 		}
@@ -554,7 +578,7 @@ public class Scribe implements IJavaDocTagConstants {
 	}
 
 	public final void addInsertEdit(int insertPosition, String insertedString) {
-		if (this.edits.length == this.editsIndex) {
+		if (this.editsOffsets.length == this.editsIndex) {
 			// resize
 			resize();
 		}
@@ -576,19 +600,19 @@ public class Scribe implements IJavaDocTagConstants {
 		}
 		if (this.editsIndex > 0) {
 			// try to merge last two edits
-			final OptimizedReplaceEdit previous = this.edits[this.editsIndex-1];
-			final int previousOffset = previous.offset;
-			final int previousLength = previous.length;
+			final int previous = this.editsIndex-1;
+			final int previousOffset = this.editsOffsets[previous];
+			final int previousLength = this.editsLengths[previous];
 			final int endOffsetOfPreviousEdit = previousOffset + previousLength;
 			final int replacementLength = replacement.length();
-			final String previousReplacement = previous.replacement;
-			final int previousReplacementLength = previousReplacement.length();
+			final int previousReplacementStart = this.editsReplacementStarts[previous];
+			final int previousReplacementLength = this.editsReplacementLengths[previous];
 			if (previousOffset == offset && previousLength == length && (replacementLength == 0 || previousReplacementLength == 0)) {
 				if (this.currentAlignment != null) {
 					final Location location = this.currentAlignment.location;
 					if (location.editsIndex == this.editsIndex) {
 						location.editsIndex--;
-						location.textEdit = previous;
+						storeEdit(previous, location);
 					}
 				}
 				this.editsIndex--;
@@ -597,13 +621,14 @@ public class Scribe implements IJavaDocTagConstants {
 			if (endOffsetOfPreviousEdit == offset) {
 				if (length != 0) {
 					if (replacementLength != 0) {
-						this.edits[this.editsIndex - 1] = new OptimizedReplaceEdit(previousOffset, previousLength + length, previousReplacement + replacement);
+						this.editsLengths[previous] = previousLength + length;
+						appendReplacement(previous, replacement);
 					} else if (previousLength + length == previousReplacementLength) {
 						// check the characters. If they are identical, we can get rid of the previous edit
 						boolean canBeRemoved = true;
 						loop: for (int i = previousOffset; i < previousOffset + previousReplacementLength; i++) {
-							if (this.scanner.source[i] != previousReplacement.charAt(i - previousOffset)) {
-								this.edits[this.editsIndex - 1] = new OptimizedReplaceEdit(previousOffset, previousReplacementLength, previousReplacement);
+							if (this.scanner.source[i] != this.replacements[previousReplacementStart + i - previousOffset]) {
+								this.editsLengths[previous] = previousReplacementLength;
 								canBeRemoved = false;
 								break loop;
 							}
@@ -613,26 +638,30 @@ public class Scribe implements IJavaDocTagConstants {
 								final Location location = this.currentAlignment.location;
 								if (location.editsIndex == this.editsIndex) {
 									location.editsIndex--;
-									location.textEdit = previous;
+									storeEdit(previous, location);
 								}
 							}
 							this.editsIndex--;
 						}
 					} else {
-						this.edits[this.editsIndex - 1] = new OptimizedReplaceEdit(previousOffset, previousLength + length, previousReplacement);
+						this.editsLengths[previous] = previousLength + length;
 					}
 				} else {
 					if (replacementLength != 0) {
-						this.edits[this.editsIndex - 1] = new OptimizedReplaceEdit(previousOffset, previousLength, previousReplacement + replacement);
+						appendReplacement(previous, replacement);
 					}
 				}
 			} else if ((offset + length == previousOffset) && (previousLength + length == replacementLength + previousReplacementLength)) {
 				// check if both edits corresponds to the orignal source code
 				boolean canBeRemoved = true;
-				String totalReplacement = replacement + previousReplacement;
 				loop: for (int i = 0; i < previousLength + length; i++) {
-					if (this.scanner.source[i + offset] != totalReplacement.charAt(i)) {
-						this.edits[this.editsIndex - 1] = new OptimizedReplaceEdit(offset, previousLength + length, totalReplacement);
+					char totalReplacementChar = i < replacementLength
+						? replacement.charAt(i)
+						: this.replacements[previousReplacementStart + i - replacementLength];
+					if (this.scanner.source[i + offset] != totalReplacementChar) {
+						int start = storeReplacement(replacement);
+						storeReplacement(previousReplacementStart, previousReplacementLength);
+						setEdit(previous, offset, previousLength + length, start, replacementLength + previousReplacementLength);
 						canBeRemoved = false;
 						break loop;
 					}
@@ -642,21 +671,21 @@ public class Scribe implements IJavaDocTagConstants {
 						final Location location = this.currentAlignment.location;
 						if (location.editsIndex == this.editsIndex) {
 							location.editsIndex--;
-							location.textEdit = previous;
+							storeEdit(previous, location);
 						}
 					}
 					this.editsIndex--;
 				}
 			} else {
-				this.edits[this.editsIndex++] = new OptimizedReplaceEdit(offset, length, replacement);
+				setEdit(this.editsIndex++, offset, length, storeReplacement(replacement), replacementLength);
 			}
 		} else {
-			this.edits[this.editsIndex++] = new OptimizedReplaceEdit(offset, length, replacement);
+			setEdit(this.editsIndex++, offset, length, storeReplacement(replacement), replacement.length());
 		}
 	}
 
 	public final void addReplaceEdit(int start, int end, String replacement) {
-		if (this.edits.length == this.editsIndex) {
+		if (this.editsOffsets.length == this.editsIndex) {
 			// resize
 			resize();
 		}
@@ -1092,11 +1121,27 @@ public class Scribe implements IJavaDocTagConstants {
 		return emptyLines;
 	}
 
-	public OptimizedReplaceEdit getLastEdit() {
-		if (this.editsIndex > 0) {
-			return this.edits[this.editsIndex - 1];
-		}
-		return null;
+	/*
+	 * Append the given string to the replacement of the edit at the given index.
+	 * The replacement is extended in place when it is the last one stored in
+	 * the replacements buffer, otherwise it is copied first.
+	 */
+	private void appendReplacement(int index, String replacement) {
+		int start = this.editsReplacementStarts[index];
+		int length = this.editsReplacementLengths[index];
+		if (start + length != this.replacementsLength) {
+			start = storeReplacement(start, length);
+			this.editsReplacementStarts[index] = start;
+		}
+		storeReplacement(replacement);
+		this.editsReplacementLengths[index] = length + replacement.length();
+	}
+
+	/*
+	 * Answer the replacement string of the edit at the given index.
+	 */
+	private String getReplacement(int index) {
+		return new String(this.replacements, this.editsReplacementStarts[index], this.editsReplacementLengths[index]);
 	}
 
 	public final int getLineEnd(int lineNumber) {
@@ -1326,24 +1371,70 @@ public class Scribe implements IJavaDocTagConstants {
 			edit = new MultiTextEdit(textRegionStart, length - 1);
 		}
 		for (int i= 0, max = this.editsIndex; i < max; i++) {
-			OptimizedReplaceEdit currentEdit = this.edits[i];
-			if (currentEdit.offset >= 0 && currentEdit.offset <= this.scannerEndPosition) {
-				if (currentEdit.length == 0 || (currentEdit.offset != this.scannerEndPosition && isMeaningfulEdit(currentEdit))) {
-					try {
-						edit.addChild(new ReplaceEdit(currentEdit.offset, currentEdit.length, currentEdit.replacement));
-					}
-					catch (MalformedTreeException ex) {
-						// log exception in case of error
-						CommentFormatterUtil.log(ex);
-	 					throw ex;
-					}
+			if (isValidEdit(i)) {
+				try {
+					edit.addChild(new ReplaceEdit(this.editsOffsets[i], this.editsLengths[i], getReplacement(i)));
+				}
+				catch (MalformedTreeException ex) {
+					// log exception in case of error
+					CommentFormatterUtil.log(ex);
+ 					throw ex;
 				}
 			}
 		}
-		this.edits = null;
+		releaseEdits();
 		return edit;
 	}
 
+	/*
+	 * Apply the recorded edits directly on the scanner source and answer the formatted
+	 * source, without creating any text edit.
+	 * The edits are applied in the same order than they would be in the root edit (see
+	 * #getRootEdit()), i.e. sorted by offset with insertions before replacements at the
+	 * same offset, the recording order being kept otherwise.
+	 */
+	public String getFormattedSource() {
+		adaptRegions();
+		adaptEdits();
+
+		// the sort key is made of the offset, then a bit set for non empty edits, then the edit index
+		long[] sortedEdits = new long[this.editsIndex];
+		int count = 0;
+		int delta = 0;
+		for (int i = 0, max = this.editsIndex; i < max; i++) {
+			if (isValidEdit(i)) {
+				int length = this.editsLengths[i];
+				sortedEdits[count++] = (((long) this.editsOffsets[i]) << 32) | (length == 0 ? 0 : 0x80000000L) | i;
+				delta += this.editsReplacementLengths[i] - length;
+			}
+		}
+		Arrays.sort(sortedEdits, 0, count);
+
+		char[] source = this.scanner.source;
+		char[] formattedSource = new char[source.length + delta];
+		int sourcePosition = 0;
+		int formattedPosition = 0;
+		for (int i = 0; i < count; i++) {
+			int index = (int) (sortedEdits[i] & 0x7FFFFFFF);
+			int offset = this.editsOffsets[index];
+			if (offset < sourcePosition) {
+				MalformedTreeException ex = new MalformedTreeException(null, null, "Overlapping text edits"); //$NON-NLS-1$
+				CommentFormatterUtil.log(ex);
+				throw ex;
+			}
+			int length = offset - sourcePosition;
+			System.arraycopy(source, sourcePosition, formattedSource, formattedPosition, length);
+			formattedPosition += length;
+			length = this.editsReplacementLengths[index];
+			System.arraycopy(this.replacements, this.editsReplacementStarts[index], formattedSource, formattedPosition, length);
+			formattedPosition += length;
+			sourcePosition = offset + this.editsLengths[index];
+		}
+		System.arraycopy(source, sourcePosition, formattedSource, formattedPosition, source.length - sourcePosition);
+		releaseEdits();
+		return new String(formattedSource);
+	}
+
 	public void handleLineTooLong() {
 		if (this.formatter.preferences.wrap_outer_expressions_when_nested) {
 			handleLineTooLongSmartly();
@@ -1563,13 +1654,46 @@ public class Scribe implements IJavaDocTagConstants {
 		return previousLineEnd != -1 && previousLineEnd == start - 1;
 	}
 
-	private boolean isMeaningfulEdit(OptimizedReplaceEdit edit) {
-		final int editLength= edit.length;
-		final int editReplacementLength= edit.replacement.length();
-		final int editOffset= edit.offset;
+	/*
+	 * Answer whether the lines of the given source range do not intersect any of the
+	 * regions to format, i.e. whether all the edits in this range would be dropped
+	 * while adapting the edits to the regions.
+	 */
+	boolean isOutsideRegions(int start, int end) {
+		int max = this.regions.length;
+		if (this.lineEnds == null || max == 0) return false;
+		if (max == 1 && this.regions[0].getOffset() == 0 && this.regions[0].getLength() == this.scannerEndPosition) {
+			// the whole source is formatted
+			return false;
+		}
+		int index = Arrays.binarySearch(this.lineEnds, start);
+		if (index < 0) index = -index - 1;
+		int lineStart = getLineEnd(index) + 1;
+		index = Arrays.binarySearch(this.lineEnds, end);
+		if (index < 0) index = -index - 1;
+		int lineEnd = getLineEnd(index + 1);
+		for (int i = 0; i < max; i++) {
+			IRegion region = this.regions[i];
+			int offset = region.getOffset();
+			if (offset > lineEnd) {
+				// regions are sorted
+				break;
+			}
+			if (offset + region.getLength() >= lineStart) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isMeaningfulEdit(int index) {
+		final int editLength= this.editsLengths[index];
+		final int editReplacementLength= this.editsReplacementLengths[index];
+		final int editOffset= this.editsOffsets[index];
 		if (editReplacementLength != 0 && editLength == editReplacementLength) {
+			final int editReplacementStart = this.editsReplacementStarts[index];
 			for (int i = editOffset, max = editOffset + editLength; i < max; i++) {
-				if (this.scanner.source[i] != edit.replacement.charAt(i - editOffset)) {
+				if (this.scanner.source[i] != this.replacements[editReplacementStart + i - editOffset]) {
 					return true;
 				}
 			}
@@ -1578,6 +1702,17 @@ public class Scribe implements IJavaDocTagConstants {
 		return true;
 	}
 
+	/*
+	 * Answer whether the edit at the given index has to be applied on the source.
+	 */
+	private boolean isValidEdit(int index) {
+		int offset = this.editsOffsets[index];
+		if (offset >= 0 && offset <= this.scannerEndPosition) {
+			return this.editsLengths[index] == 0 || (offset != this.scannerEndPosition && isMeaningfulEdit(index));
+		}
+		return false;
+	}
+
 	private void preserveEmptyLines(int count, int insertPosition) {
 		if (count > 0) {
 			if (this.blank_lines_between_import_groups >= 0) {
@@ -2571,8 +2706,8 @@ public class Scribe implements IJavaDocTagConstants {
 					    	}
 							if (turnOff) {
 								if (!this.editsEnabled && this.editsIndex > 1) {
-									OptimizedReplaceEdit currentEdit = this.edits[this.editsIndex-1];
-									if (this.scanner.startPosition == currentEdit.offset+currentEdit.length) {
+									int currentEdit = this.editsIndex-1;
+									if (this.scanner.startPosition == this.editsOffsets[currentEdit]+this.editsLengths[currentEdit]) {
 										printNewLinesBeforeDisablingComment();
 									}
 								}
@@ -2614,8 +2749,8 @@ public class Scribe implements IJavaDocTagConstants {
 					    	}
 							if (turnOff) {
 								if (!this.editsEnabled && this.editsIndex > 1) {
-									OptimizedReplaceEdit currentEdit = this.edits[this.editsIndex-1];
-									if (this.scanner.startPosition == currentEdit.offset+currentEdit.length) {
+									int currentEdit = this.editsIndex-1;
+									if (this.scanner.startPosition == this.editsOffsets[currentEdit]+this.editsLengths[currentEdit]) {
 										printNewLinesBeforeDisablingComment();
 									}
 								}
@@ -2655,8 +2790,8 @@ public class Scribe implements IJavaDocTagConstants {
 						if (this.useTags && this.editsEnabled && foundTaskCount > 0) {
 							setEditsEnabled(foundTaskCount);
 							if (!this.editsEnabled && this.editsIndex > 1) {
-								OptimizedReplaceEdit currentEdit = this.edits[this.editsIndex-1];
-								if (this.scanner.startPosition == currentEdit.offset+currentEdit.length) {
+								int currentEdit = this.editsIndex-1;
+								if (this.scanner.startPosition == this.editsOffsets[currentEdit]+this.editsLengths[currentEdit]) {
 									printNewLinesBeforeDisablingComment();
 								}
 							}
@@ -2996,7 +3131,7 @@ public class Scribe implements IJavaDocTagConstants {
 					if (lastTokenEndPosition > spaceEndPosition) {
 						this.column += lastTokenEndPosition - (spaceEndPosition + 1); // add all previous tokens lengths since last space
 					}
-					if (this.edits[this.editsIndex-1].offset == spaceStartPosition) {
+					if (this.editsOffsets[this.editsIndex-1] == spaceStartPosition) {
 						// previous space was already edited, so remove it
 						this.editsIndex--;
 					}
@@ -4631,8 +4766,8 @@ public class Scribe implements IJavaDocTagConstants {
 					    	}
 							if (turnOff) {
 								if (!this.editsEnabled && this.editsIndex > 1) {
-									OptimizedReplaceEdit currentEdit = this.edits[this.editsIndex-1];
-									if (this.scanner.startPosition == currentEdit.offset+currentEdit.length) {
+									int currentEdit = this.editsIndex-1;
+									if (this.scanner.startPosition == this.editsOffsets[currentEdit]+this.editsLengths[currentEdit]) {
 										printNewLinesBeforeDisablingComment();
 									}
 								}
@@ -4663,8 +4798,8 @@ public class Scribe implements IJavaDocTagConstants {
 					    	}
 							if (turnOff) {
 								if (!this.editsEnabled && this.editsIndex > 1) {
-									OptimizedReplaceEdit currentEdit = this.edits[this.editsIndex-1];
-									if (this.scanner.startPosition == currentEdit.offset+currentEdit.length) {
+									int currentEdit = this.editsIndex-1;
+									if (this.scanner.startPosition == this.editsOffsets[currentEdit]+this.editsLengths[currentEdit]) {
 										printNewLinesBeforeDisablingComment();
 									}
 								}
@@ -4762,8 +4897,8 @@ public class Scribe implements IJavaDocTagConstants {
 		}
 		
 		// If the comment is in the middle of the line, then there's nothing to do
-		OptimizedReplaceEdit currentEdit = this.edits[this.editsIndex-1];
-		int offset = currentEdit.offset;
+		int currentEdit = this.editsIndex-1;
+		int offset = this.editsOffsets[currentEdit];
 		if (offset >= beginningOfLine) return;
 
 		// Compute the comment indentation
@@ -4771,7 +4906,7 @@ public class Scribe implements IJavaDocTagConstants {
 		int scannerEofPosition = this.scanner.eofPosition;
 		int scannerCurrentPosition = this.scanner.currentPosition;
 		char scannerCurrentChar = this.scanner.currentCharacter;
-		int length = currentEdit.length;
+		int length = this.editsLengths[currentEdit];
 		this.scanner.resetTo(beginningOfLine, offset+length-1);
 		try {
 			while (!this.scanner.atEnd()) {
@@ -4810,12 +4945,12 @@ public class Scribe implements IJavaDocTagConstants {
 			} else {
 				indentationString = Util.EMPTY_STRING;
 			}
-			String replacement = currentEdit.replacement;
+			String replacement = getReplacement(currentEdit);
 			if (replacement.length() == 0) {
 				// previous edit was a delete, as we're sure to have a new line before
 				// the comment, then the edit needs to be either replaced entirely with
 				// the expected indentation
-				this.edits[this.editsIndex-1] = new OptimizedReplaceEdit(beginningOfLine, offset+length-beginningOfLine, indentationString);
+				setEdit(currentEdit, beginningOfLine, offset+length-beginningOfLine, storeReplacement(indentationString), indentationString.length());
 			} else {
 				int idx = replacement.lastIndexOf(this.lineSeparator);
 				if (idx >= 0) {
@@ -4826,7 +4961,7 @@ public class Scribe implements IJavaDocTagConstants {
 					if (indentationString != Util.EMPTY_STRING) {
 						this.tempBuffer.append(indentationString);
 					}
-					this.edits[this.editsIndex-1] = new OptimizedReplaceEdit(offset, length, this.tempBuffer.toString());
+					setEdit(currentEdit, offset, length, storeReplacement(this.tempBuffer.toString()), this.tempBuffer.length());
 				}
 			}
 		}
@@ -4863,8 +4998,11 @@ public class Scribe implements IJavaDocTagConstants {
 						//$FALL-THROUGH$
 					case '\n':
 						if (needReplace) {
-							if (this.editsIndex == 0 || this.edits[this.editsIndex-1].offset != start) {
-								this.edits[this.editsIndex++] = new OptimizedReplaceEdit(start, this.scanner.currentPosition-start, this.lineSeparator);
+							if (this.editsIndex == 0 || this.editsOffsets[this.editsIndex-1] != start) {
+								if (this.editsOffsets.length == this.editsIndex) {
+									resize();
+								}
+								setEdit(this.editsIndex++, start, this.scanner.currentPosition-start, storeReplacement(this.lineSeparator), this.lsLength);
 							}
 						}
 						foundNewLine = true;
@@ -5061,6 +5199,50 @@ public class Scribe implements IJavaDocTagConstants {
 		this.nlsTagCounter = 0;
 	}
 
+	private void setEdit(int index, int offset, int length, int replacementStart, int replacementLength) {
+		this.editsOffsets[index] = offset;
+		this.editsLengths[index] = length;
+		this.editsReplacementStarts[index] = replacementStart;
+		this.editsReplacementLengths[index] = replacementLength;
+	}
+
+	/*
+	 * Save the edit at the given index in the given location.
+	 */
+	private void storeEdit(int index, Location location) {
+		location.editOffset = this.editsOffsets[index];
+		location.editLength = this.editsLengths[index];
+		location.editReplacementStart = this.editsReplacementStarts[index];
+		location.editReplacementLength = this.editsReplacementLengths[index];
+	}
+
+	void storeLastEdit(Location location) {
+		if (this.editsIndex > 0) {
+			storeEdit(this.editsIndex - 1, location);
+		}
+	}
+
+	/*
+	 * Copy the given characters of the replacements buffer at its end
+	 * and answer the position where they start.
+	 */
+	private int storeReplacement(int start, int length) {
+		ensureReplacementsCapacity(length);
+		int position = this.replacementsLength;
+		System.arraycopy(this.replacements, start, this.replacements, position, length);
+		this.replacementsLength += length;
+		return position;
+	}
+
+	private int storeReplacement(String replacement) {
+		int length = replacement.length();
+		ensureReplacementsCapacity(length);
+		int position = this.replacementsLength;
+		replacement.getChars(0, length, this.replacements, position);
+		this.replacementsLength += length;
+		return position;
+	}
+
 	private void resetAt(Location location) {
 		this.line = location.outputLine;
 		this.column = location.outputColumn;
@@ -5072,7 +5254,7 @@ public class Scribe implements IJavaDocTagConstants {
 		this.editsIndex = location.editsIndex;
 		this.nlsTagCounter = location.nlsTagCounter;
 		if (this.editsIndex > 0) {
-			this.edits[this.editsIndex - 1] = location.textEdit;
+			setEdit(this.editsIndex - 1, location.editOffset, location.editLength, location.editReplacementStart, location.editReplacementLength);
 		}
 		this.formatter.lastLocalDeclarationSourceStart = location.lastLocalDeclarationSourceStart;
 	}
@@ -5084,33 +5266,61 @@ public class Scribe implements IJavaDocTagConstants {
 		this.scanner.setSource(compilationUnitSource);
 		this.scannerEndPosition = compilationUnitSource.length;
 		this.scanner.resetTo(0, this.scannerEndPosition - 1);
-		this.edits = new OptimizedReplaceEdit[INITIAL_SIZE];
+		this.editsOffsets = new int[INITIAL_SIZE];
+		this.editsLengths = new int[INITIAL_SIZE];
+		this.editsReplacementStarts = new int[INITIAL_SIZE];
+		this.editsReplacementLengths = new int[INITIAL_SIZE];
+		this.replacements = new char[INITIAL_SIZE * 4];
+		this.replacementsLength = 0;
 		this.maxLines = this.lineEnds == null ? -1 : this.lineEnds.length - 1;
 		this.scanner.lineEnds = this.lineEnds;
 		this.scanner.linePtr = this.maxLines;
 		initFormatterCommentParser();
 	}
 
+	private void ensureReplacementsCapacity(int length) {
+		int required = this.replacementsLength + length;
+		if (required > this.replacements.length) {
+			System.arraycopy(this.replacements, 0, (this.replacements = new char[Math.max(required, this.replacements.length * 2)]), 0, this.replacementsLength);
+		}
+	}
+
+	private void releaseEdits() {
+		this.editsOffsets = null;
+		this.editsLengths = null;
+		this.editsReplacementStarts = null;
+		this.editsReplacementLengths = null;
+		this.replacements = null;
+	}
+
 	private void resize() {
-		System.arraycopy(this.edits, 0, (this.edits = new OptimizedReplaceEdit[this.editsIndex * 2]), 0, this.editsIndex);
+		int length = this.editsIndex * 2;
+		System.arraycopy(this.editsOffsets, 0, (this.editsOffsets = new int[length]), 0, this.editsIndex);
+		System.arraycopy(this.editsLengths, 0, (this.editsLengths = new int[length]), 0, this.editsIndex);
+		System.arraycopy(this.editsReplacementStarts, 0, (this.editsReplacementStarts = new int[length]), 0, this.editsIndex);
+		System.arraycopy(this.editsReplacementLengths, 0, (this.editsReplacementLengths = new int[length]), 0, this.editsIndex);
 	}
 
 	private void setCommentIndentation(int commentIndentationLevel) {
 		if (commentIndentationLevel == 0) {
 		    this.commentIndentation = null;
 		} else {
-			int length = COMMENT_INDENTATIONS.length;
+			// the cache is shared by all the scribes which may run concurrently,
+			// hence only access it through a local
+			String[] indentations = COMMENT_INDENTATIONS;
+			int length = indentations.length;
 			if (commentIndentationLevel > length) {
-				System.arraycopy(COMMENT_INDENTATIONS, 0, COMMENT_INDENTATIONS = new String[commentIndentationLevel+10], 0, length);
+				System.arraycopy(indentations, 0, indentations = new String[commentIndentationLevel+10], 0, length);
+				COMMENT_INDENTATIONS = indentations;
 			}
-			this.commentIndentation = COMMENT_INDENTATIONS[commentIndentationLevel-1];
+			this.commentIndentation = indentations[commentIndentationLevel-1];
 			if (this.commentIndentation == null) {
 				this.tempBuffer.setLength(0);
 				for (int i=0; i<commentIndentationLevel; i++) {
 					this.tempBuffer.append(' ');
 				}
 				this.commentIndentation = this.tempBuffer.toString();
-				COMMENT_INDENTATIONS[commentIndentationLevel-1] = this.commentIndentation;
+				indentations[commentIndentationLevel-1] = this.commentIndentation;
 			}
 		}
 	}
@@ -5145,6 +5355,24 @@ public class Scribe implements IJavaDocTagConstants {
 		this.headerEndPosition = position;
 	}
 
+	/*
+	 * Move to the given position without formatting the source in between, leaving
+	 * the scribe in the state it has just after a new line was printed.
+	 * No edit is created for the skipped source, hence this must only be used for
+	 * source outside the regions to format (see isOutsideRegions(int, int)).
+	 */
+	void skipToNewLine(int position) {
+		this.scanner.resetTo(position, this.scannerEndPosition - 1);
+		this.line++;
+		this.lastNumberOfNewLines = 1;
+		this.column = 1;
+		this.needSpace = false;
+		this.pendingSpace = false;
+		this.preserveLineBreakIndentation = false;
+		this.lastLineComment.contiguous = false;
+		this.nlsTagCounter = 0;
+	}
+
 	public void space() {
 		if (!this.needSpace) return;
 		this.lastNumberOfNewLines = 0;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,7 @@ import org.eclipse.jdt.internal.compiler.impl.*;
 import org.eclipse.jdt.core.compiler.*;
 import org.eclipse.jdt.internal.compiler.ast.*;
 import org.eclipse.jdt.internal.compiler.lookup.*;
+import org.eclipse.jdt.internal.compiler.parser.ScannerHelper;
 import org.eclipse.jdt.internal.compiler.problem.*;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObjectToInt;
 import org.eclipse.jdt.internal.core.util.CommentRecorderParser;
@@ -54,6 +55,21 @@ public class SourceElementParser extends CommentRecorderParser {
 
 	SourceElementNotifier notifier;
 
+	/*
+	 * Whether the bodies of methods and constructors that cannot declare a local or an anonymous type
+	 * should not be parsed when local declarations are reported. The syntax errors in these bodies are then not reported.
+	 */
+	public boolean skipBodiesWithoutLocalTypes = false;
+	/*
+	 * Whether a body was skipped during the last call to parseCompilationUnit(...)
+	 */
+	public boolean hasSkippedBodies = false;
+
+	private static final char[] CLASS = "class".toCharArray(); //$NON-NLS-1$
+	private static final char[] ENUM = "enum".toCharArray(); //$NON-NLS-1$
+	private static final char[] INTERFACE = "interface".toCharArray(); //$NON-NLS-1$
+	private static final char[] NEW = "new".toCharArray(); //$NON-NLS-1$
+
 public SourceElementParser(
 		final ISourceElementRequestor requestor,
 		IProblemFactory problemFactory,
@@ -907,6 +923,58 @@ protected QualifiedNameReference newQualifiedNameReference(char[][] tokens, long
 protected SingleNameReference newSingleNameReference(char[] source, long positions) {
 	return new SingleNameReference(source, positions);
 }
+/*
+ * Answer whether the given range of the source may declare a local or an anonymous type.
+ * Any occurrence of a keyword introducing a type, even in a comment or a string literal,
+ * and any unicode escape are considered as possibly declaring a type.
+ */
+private static boolean mayDeclareTypes(char[] source, int start, int end) {
+	for (int i = start; i < end; i++) {
+		switch (source[i]) {
+			case '\\' :
+				if (i + 1 < source.length && source[i+1] == 'u') return true;
+				break;
+			case 'c' :
+				if (isKeywordAt(CLASS, source, i, end)) return true;
+				break;
+			case 'e' :
+				if (isKeywordAt(ENUM, source, i, end)) return true;
+				break;
+			case 'i' :
+				if (isKeywordAt(INTERFACE, source, i, end)) return true;
+				break;
+			case 'n' :
+				if (isKeywordAt(NEW, source, i, end)) return true;
+				break;
+		}
+	}
+	return false;
+}
+private static boolean isKeywordAt(char[] keyword, char[] source, int start, int end) {
+	int length = keyword.length;
+	if (start + length > end) return false;
+	if (start > 0 && ScannerHelper.isJavaIdentifierPart(source[start-1])) return false;
+	for (int i = 1; i < length; i++)
+		if (source[start+i] != keyword[i]) return false;
+	return start + length == end || !ScannerHelper.isJavaIdentifierPart(source[start+length]);
+}
+private boolean skipBody(AbstractMethodDeclaration method, CompilationUnitDeclaration unit) {
+	if (!this.skipBodiesWithoutLocalTypes
+			|| unit.compilationResult.hasSyntaxError // body ranges of recovered declarations are not reliable
+			|| (method.modifiers & (ClassFileConstants.AccAbstract | ClassFileConstants.AccNative | ExtraCompilerModifiers.AccSemicolonBody)) != 0 // no body
+			|| mayDeclareTypes(this.scanner.source, method.bodyStart, method.bodyEnd + 1))
+		return false;
+	this.hasSkippedBodies = true;
+	return true;
+}
+public void parse(ConstructorDeclaration cd, CompilationUnitDeclaration unit, boolean recordLineSeparator) {
+	if (skipBody(cd, unit)) return;
+	super.parse(cd, unit, recordLineSeparator);
+}
+public void parse(MethodDeclaration md, CompilationUnitDeclaration unit) {
+	if (skipBody(md, unit)) return;
+	super.parse(md, unit);
+}
 public CompilationUnitDeclaration parseCompilationUnit(
 	ICompilationUnit unit,
 	boolean fullParse,
@@ -914,6 +982,7 @@ public CompilationUnitDeclaration parseCompilationUnit(
 
 	boolean old = this.diet;
 	CompilationUnitDeclaration parsedUnit = null;
+	this.hasSkippedBodies = false;
 	try {
 		this.diet = true;
 		this.reportReferenceInfo = fullParse;
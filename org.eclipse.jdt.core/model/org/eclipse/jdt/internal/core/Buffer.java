@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -38,6 +38,12 @@ public class Buffer implements IBuffer {
 	protected int gapStart = -1;
 	protected int gapEnd = -1;
 
+	/*
+	 * Modification stamp of the file when the contents were read from it,
+	 * or IResource.NULL_STAMP if the contents were not read from the file
+	 */
+	long contentsStamp = IResource.NULL_STAMP;
+
 	protected Object lock = new Object();
 
 	protected static final int F_HAS_UNSAVED_CHANGES = 1;
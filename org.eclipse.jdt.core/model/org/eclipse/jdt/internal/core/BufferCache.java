@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,16 +17,35 @@ import org.eclipse.jdt.internal.core.util.LRUCache;
 
 /**
  * An LRU cache of <code>IBuffers</code>.
+ * A buffer takes one unit of space for each <code>CHARS_PER_SPACE_UNIT</code> characters it contains,
+ * and at least one unit.
  */
 public class BufferCache extends OverflowingLRUCache {
 
+	/**
+	 * Number of characters of a buffer that take one unit of space in the cache
+	 */
+	public static final int CHARS_PER_SPACE_UNIT = 8192;
+
 	private ThreadLocal buffersToClose = new ThreadLocal();
+
+	/*
+	 * The buffer manager that keeps the contents of the buffers closed by this cache, or null if none
+	 */
+	private BufferManager manager;
 /**
  * Constructs a new buffer cache of the given size.
  */
 public BufferCache(int size) {
 	super(size);
 }
+/**
+ * Constructs a new buffer cache of the given size, that gives the buffers it closes to the given manager.
+ */
+BufferCache(int size, BufferManager manager) {
+	super(size);
+	this.manager = manager;
+}
 /**
  * Constructs a new buffer cache of the given size.
  */
@@ -64,8 +83,19 @@ void closeBuffers() {
 		return;
 	this.buffersToClose.set(null);
 	for (int i = 0, length = buffers.size(); i < length; i++) {
-		((IBuffer) buffers.get(i)).close();
+		IBuffer buffer = (IBuffer) buffers.get(i);
+		if (this.manager != null)
+			this.manager.storeClosedContents(buffer);
+		buffer.close();
 	}
+}
+/**
+ * Returns the space taken by the given buffer, according to its length when it is added to the cache.
+ */
+protected int spaceFor(Object value) {
+	if (value instanceof IBuffer)
+		return 1 + ((IBuffer) value).getLength() / CHARS_PER_SPACE_UNIT;
+	return super.spaceFor(value);
 }
 	/**
 	 * Returns a new instance of the reciever.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,28 +10,75 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core;
 
+import java.lang.ref.SoftReference;
 import java.text.NumberFormat;
 import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IOpenable;
 
 /**
  * The buffer manager manages the set of open buffers.
- * It implements an LRU cache of buffers.
+ * It implements an LRU cache of buffers, whose size depends on the length of the buffers
+ * and on the maximum heap size.
+ * The contents of the unchanged buffers of compilation units that are closed to make space in the cache
+ * are kept, so that opening the compilation unit again doesn't read its file again.
  */
 public class BufferManager {
 
 	protected static BufferManager DEFAULT_BUFFER_MANAGER;
 	protected static boolean VERBOSE;
 
+	/*
+	 * Space limit of the buffer cache for a 64MB heap (see BufferCache#spaceFor(Object))
+	 */
+	private static final int DEFAULT_BUFFER_SPACE = 60;
+
+	/*
+	 * Maximum number of characters of the contents of closed buffers kept for a 64MB heap
+	 */
+	private static final int DEFAULT_CLOSED_CONTENTS_LENGTH = 1024 * 1024;
+
 	/**
 	 * LRU cache of buffers. The key and value for an entry
 	 * in the table is the identical buffer.
 	 */
-	private BufferCache openBuffers = new BufferCache(60);
+	private BufferCache openBuffers;
+
+	/*
+	 * Contents of the unchanged buffers of compilation units closed by the buffer cache (see ClosedContents),
+	 * keyed by their owner, from the least to the most recently closed.
+	 */
+	private LinkedHashMap closedContents = new LinkedHashMap();
+	private int closedContentsLength;
+	private int closedContentsLimit;
+
+	/*
+	 * Number of closed contents that were kept, and of those that were reused
+	 */
+	private int storedCount;
+	private int reusedCount;
+
+	/*
+	 * The contents of a closed buffer, softly referenced so that they are reclaimed when memory runs low.
+	 * They are only reused if the file was not modified since they were read from it.
+	 */
+	static class ClosedContents extends SoftReference {
+		long modificationStamp;
+		int length;
+
+		ClosedContents(char[] contents, long modificationStamp) {
+			super(contents);
+			this.modificationStamp = modificationStamp;
+			this.length = contents.length;
+		}
+	}
 
 	/**
 	 * @deprecated
@@ -45,6 +92,13 @@ public class BufferManager {
 		}
 	};
 
+public BufferManager() {
+	long maxMemory = Runtime.getRuntime().maxMemory();
+	// if max memory is infinite, set the ratio to 4d which corresponds to the 256MB that Eclipse defaults to (see JavaModelCache)
+	double memoryRatio = maxMemory == Long.MAX_VALUE ? 4d : Math.max(1d, ((double) maxMemory) / (64 * 0x100000));
+	this.openBuffers = new BufferCache((int) (DEFAULT_BUFFER_SPACE * memoryRatio), this);
+	this.closedContentsLimit = (int) (DEFAULT_CLOSED_CONTENTS_LENGTH * memoryRatio);
+}
 /**
  * Adds a buffer to the table of open buffers.
  */
@@ -60,8 +114,21 @@ protected void addBuffer(IBuffer buffer) {
 	this.openBuffers.closeBuffers();
 	if (VERBOSE) {
 		System.out.println("-> Buffer cache filling ratio = " + NumberFormat.getInstance().format(this.openBuffers.fillingRatio()) + "%"); //$NON-NLS-1$//$NON-NLS-2$
+		System.out.println("-> " + this); //$NON-NLS-1$
 	}
 }
+/*
+ * Closes the buffers that can be removed from the buffer cache, as if their space was needed.
+ * For testing purpose only
+ */
+public void closeCachedBuffers() {
+	synchronized (this.openBuffers) {
+		int spaceLimit = this.openBuffers.getSpaceLimit();
+		this.openBuffers.setSpaceLimit(0);
+		this.openBuffers.setSpaceLimit(spaceLimit);
+	}
+	this.openBuffers.closeBuffers();
+}
 public static IBuffer createBuffer(IOpenable owner) {
 	JavaElement element = (JavaElement) owner;
 	IResource resource = element.resource();
@@ -125,6 +192,97 @@ public Enumeration getOpenBuffers() {
 	return result;
 }
 
+/*
+ * Returns the number of times the contents of a closed buffer were reused.
+ * For testing purpose only
+ */
+public int getReusedClosedContentsCount() {
+	synchronized (this.closedContents) {
+		return this.reusedCount;
+	}
+}
+/*
+ * Returns whether the contents of the closed buffer of the given owner are kept.
+ * For testing purpose only
+ */
+public boolean hasClosedContents(IOpenable owner) {
+	synchronized (this.closedContents) {
+		return this.closedContents.containsKey(owner);
+	}
+}
+/*
+ * Forgets the contents of the closed buffer of the given owner if any,
+ * or of the closed buffers of the compilation units it contains if it is a package, a root or a project.
+ */
+void removeClosedContents(IOpenable owner) {
+	synchronized (this.closedContents) {
+		switch (((IJavaElement) owner).getElementType()) {
+			case IJavaElement.COMPILATION_UNIT:
+				ClosedContents closed = (ClosedContents) this.closedContents.remove(owner);
+				if (closed != null)
+					this.closedContentsLength -= closed.length;
+				return;
+			case IJavaElement.CLASS_FILE:
+				return;
+		}
+		Iterator iterator = this.closedContents.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry entry = (Map.Entry) iterator.next();
+			if (((JavaElement) owner).isAncestorOf((IJavaElement) entry.getKey())) {
+				this.closedContentsLength -= ((ClosedContents) entry.getValue()).length;
+				iterator.remove();
+			}
+		}
+	}
+}
+/*
+ * Keeps the contents of the given buffer that is being closed by the buffer cache,
+ * if they were read from a file and are unchanged.
+ */
+void storeClosedContents(IBuffer buffer) {
+	if (!(buffer instanceof Buffer)) return;
+	long modificationStamp = ((Buffer) buffer).contentsStamp;
+	if (modificationStamp == IResource.NULL_STAMP || buffer.hasUnsavedChanges()) return;
+	char[] contents = buffer.getCharacters();
+	if (contents == null || contents.length > this.closedContentsLimit) return;
+	synchronized (this.closedContents) {
+		IOpenable owner = buffer.getOwner();
+		ClosedContents previous = (ClosedContents) this.closedContents.remove(owner);
+		if (previous != null)
+			this.closedContentsLength -= previous.length;
+		this.closedContents.put(owner, new ClosedContents(contents, modificationStamp));
+		this.closedContentsLength += contents.length;
+		this.storedCount++;
+		// forget the least recently closed contents
+		Iterator iterator = this.closedContents.values().iterator();
+		while (this.closedContentsLength > this.closedContentsLimit && iterator.hasNext()) {
+			this.closedContentsLength -= ((ClosedContents) iterator.next()).length;
+			iterator.remove();
+		}
+	}
+}
+/*
+ * Returns a copy of the contents of the closed buffer of the given owner, or null if they were not kept,
+ * if they were reclaimed, or if the file was modified since they were read from it.
+ * The contents are forgotten in any case, since they are going to be in a buffer again.
+ */
+char[] takeClosedContents(IOpenable owner, long modificationStamp) {
+	char[] contents;
+	synchronized (this.closedContents) {
+		ClosedContents closed = (ClosedContents) this.closedContents.remove(owner);
+		if (closed == null) return null;
+		this.closedContentsLength -= closed.length;
+		if (closed.modificationStamp != modificationStamp) return null;
+		contents = (char[]) closed.get();
+		if (contents == null) return null;
+		this.reusedCount++;
+	}
+	if (VERBOSE) {
+		System.out.println("Reusing closed contents for " + ((Openable) owner).toStringWithAncestors()); //$NON-NLS-1$
+	}
+	// the closed buffer may have given its contents to clients, and a buffer modifies its contents in place
+	return (char[]) contents.clone();
+}
 /**
  * Removes a buffer from the table of open buffers.
  */
@@ -142,4 +300,34 @@ protected void removeBuffer(IBuffer buffer) {
 		System.out.println("-> Buffer cache filling ratio = " + NumberFormat.getInstance().format(this.openBuffers.fillingRatio()) + "%"); //$NON-NLS-1$//$NON-NLS-2$
 	}
 }
+/**
+ * Returns statistics on the buffer cache and on the contents of closed buffers.
+ * This method is for debugging purposes only.
+ */
+public String toString() {
+	StringBuffer buffer = new StringBuffer("Buffer cache: "); //$NON-NLS-1$
+	synchronized (this.openBuffers) {
+		buffer.append(this.openBuffers.getEntryTable().size());
+		buffer.append(" buffers in "); //$NON-NLS-1$
+		buffer.append(this.openBuffers.getCurrentSpace());
+		buffer.append('/');
+		buffer.append(this.openBuffers.getSpaceLimit());
+		buffer.append(" units of space (overflow: "); //$NON-NLS-1$
+		buffer.append(this.openBuffers.getOverflow());
+		buffer.append(')');
+	}
+	synchronized (this.closedContents) {
+		buffer.append(", closed contents: "); //$NON-NLS-1$
+		buffer.append(this.closedContents.size());
+		buffer.append(" kept with "); //$NON-NLS-1$
+		buffer.append(this.closedContentsLength);
+		buffer.append('/');
+		buffer.append(this.closedContentsLimit);
+		buffer.append(" characters, "); //$NON-NLS-1$
+		buffer.append(this.reusedCount);
+		buffer.append(" reused out of "); //$NON-NLS-1$
+		buffer.append(this.storedCount);
+	}
+	return buffer.toString();
+}
 }
@@ -88,6 +88,9 @@ protected boolean buildStructure(OpenableElementInfo info, IProgressMonitor pm,
 		return false;
 	}
 
+	if (typeInfo instanceof ClassFileReader)
+		JavaModelManager.getJavaModelManager().internBinaryNames((ClassFileReader) typeInfo);
+
 	// Make the type
 	IType type = getType();
 	info.setChildren(new IJavaElement[] {type});
@@ -639,14 +642,12 @@ private IBuffer mapSource(SourceMapper mapper, IBinaryType info, IClassFile buff
 		// create buffer
 		IBuffer buffer = BufferManager.createBuffer(bufferOwner);
 		if (buffer == null) return null;
+
+		// set the buffer source before adding it to the cache, as its space depends on its length
+		buffer.setContents(contents);
 		BufferManager bufManager = getBufferManager();
 		bufManager.addBuffer(buffer);
 
-		// set the buffer source
-		if (buffer.getCharacters() == null){
-			buffer.setContents(contents);
-		}
-
 		// listen to buffer changes
 		buffer.addBufferChangedListener(this);
 
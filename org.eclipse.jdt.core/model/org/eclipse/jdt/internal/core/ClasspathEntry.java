@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -953,6 +953,20 @@ public class ClasspathEntry implements IClasspathEntry {
 		if (!(target instanceof IFile || target instanceof File))
 			return null;
 		JavaModelManager manager = JavaModelManager.getJavaModelManager();
+		long timeStamp;
+		File file;
+		if (target instanceof IFile) {
+			timeStamp = ((IFile) target).getModificationStamp();
+			IPath location = ((IFile) target).getLocation();
+			file = location == null ? null : location.toFile();
+		} else {
+			file = (File) target;
+			timeStamp = file.lastModified();
+		}
+		long length = file == null ? -1 : file.length(); // a time stamp alone may not change when the jar is rewritten
+		List cachedFileNames = manager.getCachedCalledFileNames(jarPath, timeStamp, length);
+		if (cachedFileNames != null)
+			return cachedFileNames; // manifest already read and jar unchanged since
 		ZipFile zip = null;
 		InputStream inputStream = null;
 		List calledFileNames = null;
@@ -999,6 +1013,8 @@ public class ClasspathEntry implements IClasspathEntry {
 			}
 			manager.closeZipFile(zip);
 		}
+		if (calledFileNames != null)
+			manager.cacheCalledFileNames(jarPath, timeStamp, length, calledFileNames);
 		return calledFileNames;
 	}
 	
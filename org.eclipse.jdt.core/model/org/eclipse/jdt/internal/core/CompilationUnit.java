@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,12 +20,16 @@ import org.eclipse.core.runtime.*;
 import org.eclipse.jdt.core.*;
 import org.eclipse.jdt.core.compiler.*;
 import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
 import org.eclipse.jdt.internal.compiler.IProblemFactory;
 import org.eclipse.jdt.internal.compiler.SourceElementParser;
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
 import org.eclipse.jdt.internal.compiler.problem.AbortCompilationUnit;
 import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.core.util.MementoTokenizer;
 import org.eclipse.jdt.internal.core.util.Messages;
@@ -159,6 +163,9 @@ protected boolean buildStructure(OpenableElementInfo info, final IProgressMonito
 
 	if (!computeProblems && !resolveBindings && !createAST) // disable javadoc parsing if not computing problems, not resolving and not creating ast
 		parser.javadocParser.checkDocComment = false;
+	// when only the structure of a compilation unit that is not a working copy is needed,
+	// don't parse the method bodies that cannot declare a local type (their syntax is checked on demand in isStructureKnown())
+	parser.skipBodiesWithoutLocalTypes = perWorkingCopyInfo == null && !resolveBindings && !createAST;
 	requestor.parser = parser;
 
 	// update timestamp (might be IResource.NULL_STAMP if original does not exist)
@@ -196,6 +203,7 @@ protected boolean buildStructure(OpenableElementInfo info, final IProgressMonito
 			}
 		} else {
 			compilationUnitDeclaration = parser.parseCompilationUnit(source, true /*full parse to find local elements*/, pm);
+			unitInfo.hasUncheckedBodies = parser.hasSkippedBodies;
 		}
 
 		if (createAST) {
@@ -1017,6 +1025,37 @@ public boolean isBasedOn(IResource resource) {
 	if (!getResource().equals(resource)) return false;
 	return !hasResourceChanged();
 }
+/**
+ * @see IJavaElement#isStructureKnown()
+ */
+public boolean isStructureKnown() throws JavaModelException {
+	CompilationUnitElementInfo info = (CompilationUnitElementInfo) getElementInfo();
+	if (info.hasUncheckedBodies) {
+		// some method bodies were not parsed when the structure was built: check their syntax now
+		if (info.isStructureKnown() && hasSyntaxErrors())
+			info.setIsStructureKnown(false);
+		info.hasUncheckedBodies = false;
+	}
+	return info.isStructureKnown();
+}
+/*
+ * Answer whether the contents of this compilation unit have syntax errors, including in method bodies.
+ */
+private boolean hasSyntaxErrors() {
+	IJavaProject project = getJavaProject();
+	Map options = project == null ? JavaCore.getOptions() : project.getOptions(true);
+	options.put(JavaCore.COMPILER_TASK_TAGS, ""); //$NON-NLS-1$
+	CompilerOptions compilerOptions = new CompilerOptions(options);
+	Parser parser = new Parser(
+		new ProblemReporter(DefaultErrorHandlingPolicies.proceedWithAllProblems(), compilerOptions, new DefaultProblemFactory()),
+		false/*don't optimize string literals*/);
+	parser.reportOnlyOneSyntaxError = true;
+	parser.javadocParser.checkDocComment = false;
+	CompilationResult result = new CompilationResult(this, 0, 0, compilerOptions.maxProblemsPerUnit);
+	CompilationUnitDeclaration unit = parser.dietParse(this, result);
+	parser.getMethodBodies(unit);
+	return result.hasSyntaxError;
+}
 /**
  * @see IOpenable#isConsistent()
  */
@@ -1154,7 +1193,13 @@ protected IBuffer openBuffer(IProgressMonitor pm, Object info) throws JavaModelE
 			} else {
 				IFile file = (IFile)getResource();
 				if (file == null || !file.exists()) throw newNotPresentException();
-				buffer.setContents(Util.getResourceContentsAsCharArray(file));
+				long modificationStamp = file.getModificationStamp();
+				char[] contents = bufManager.takeClosedContents(this, modificationStamp);
+				if (contents == null)
+					contents = Util.getResourceContentsAsCharArray(file);
+				buffer.setContents(contents);
+				if (buffer instanceof Buffer)
+					((Buffer) buffer).contentsStamp = modificationStamp;
 			}
 		}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -31,6 +31,12 @@ public class CompilationUnitElementInfo extends OpenableElementInfo {
 	 */
 	public int annotationNumber = 0;
 
+	/*
+	 * Whether method bodies were not parsed when building the structure,
+	 * and thus whether their syntax errors still need to be checked before telling whether the structure is known
+	 */
+	boolean hasUncheckedBodies = false;
+
 /**
  * Returns the length of the source string.
  */
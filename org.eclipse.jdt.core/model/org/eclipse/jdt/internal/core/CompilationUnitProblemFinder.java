@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,8 @@ import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
 import org.eclipse.jdt.internal.compiler.env.ISourceType;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.lookup.PackageBinding;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.parser.ParserCache;
 import org.eclipse.jdt.internal.compiler.parser.SourceTypeConverter;
 import org.eclipse.jdt.internal.compiler.problem.AbortCompilation;
 import org.eclipse.jdt.internal.core.util.CommentRecorderParser;
@@ -36,6 +38,15 @@ import org.eclipse.jdt.internal.core.util.Util;
  */
 public class CompilationUnitProblemFinder extends Compiler {
 
+	/*
+	 * Budget of the syntax error recovery for each reconciled unit, so that a badly broken
+	 * source cannot keep the reconciler busy for seconds (see Parser#setRecoveryBudget(int))
+	 */
+	private static final int RECOVERY_ATTEMPTS = 500;
+
+	// the parser taken from the parser cache, to be given back once the unit is processed
+	private Parser cachedParser;
+
 	/**
 	 * Answer a new CompilationUnitVisitor using the given name environment and compiler options.
 	 * The environment and options will be in effect for the lifetime of the compiler.
@@ -253,6 +264,8 @@ public class CompilationUnitProblemFinder extends Compiler {
 			// NB: unit.cleanUp() is done by caller
 			if (problemFinder != null && !creatingAST)
 				problemFinder.lookupEnvironment.reset();
+			if (problemFinder != null)
+				problemFinder.releaseParser();
 		}
 		return unit;
 	}
@@ -274,7 +287,24 @@ public class CompilationUnitProblemFinder extends Compiler {
 	 * @see org.eclipse.jdt.internal.compiler.Compiler#initializeParser()
 	 */
 	public void initializeParser() {
-		this.parser = new CommentRecorderParser(this.problemReporter, this.options.parseLiteralExpressionsAsConstants);
+		boolean optimizeStringLiterals = this.options.parseLiteralExpressionsAsConstants;
+		this.parser = ParserCache.acquire(CommentRecorderParser.class, this.problemReporter, optimizeStringLiterals);
+		if (this.parser == null) {
+			this.parser = new CommentRecorderParser(this.problemReporter, optimizeStringLiterals);
+		}
+		this.parser.setRecoveryBudget(RECOVERY_ATTEMPTS);
+		this.cachedParser = this.parser;
+	}
+
+	/*
+	 * Gives back the parser of this problem finder to the parser cache.
+	 */
+	private void releaseParser() {
+		if (this.cachedParser != null) {
+			ParserCache.release(this.cachedParser);
+			this.cachedParser = null;
+			this.parser = null; // may now be used by another problem finder of this thread
+		}
 	}
 }
 
@@ -623,8 +623,12 @@ public class DeltaProcessor {
 			// filter out changes to primary compilation unit in working copy mode
 			// just report a change to the resource (see https://bugs.eclipse.org/bugs/show_bug.cgi?id=59500)
 			currentDelta().changed(element, IJavaElementDelta.F_PRIMARY_RESOURCE);
+			// the contents kept for the primary compilation unit no longer match its resource
+			BufferManager.getDefaultBufferManager().removeClosedContents(element);
 		} else {
 			close(element);
+			if (isPrimary)
+				BufferManager.getDefaultBufferManager().removeClosedContents(element); // e.g. decoded with another encoding
 			int flags = IJavaElementDelta.F_CONTENT;
 			if (element instanceof JarPackageFragmentRoot){
 				flags |= IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED;
@@ -1249,6 +1253,8 @@ public class DeltaProcessor {
 	private void elementRemoved(Openable element, IResourceDelta delta, RootInfo rootInfo) {
 
 		int elementType = element.getElementType();
+		// a file recreated later may get the modification stamp of the removed one
+		BufferManager.getDefaultBufferManager().removeClosedContents(element);
 		if (delta == null || (delta.getFlags() & IResourceDelta.MOVED_TO) == 0) {
 			// regular element removal
 			if (isPrimaryWorkingCopy(element, elementType) ) {
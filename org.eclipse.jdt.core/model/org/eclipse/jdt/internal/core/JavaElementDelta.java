@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
 package org.eclipse.jdt.internal.core;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.jdt.core.IJavaElement;
@@ -62,6 +63,16 @@ public class JavaElementDelta extends SimpleDelta implements IJavaElementDelta {
 
 	IJavaElementDelta[] annotationDeltas = EMPTY_DELTA;
 
+	/*
+	 * Map from the element of an affected child to its index in the affected children.
+	 * Built once there are many affected children (e.g. when many files are checked out at once)
+	 * so that merging a new child delta doesn't compare it with all its siblings.
+	 * Only valid for the array of affected children it was built for.
+	 */
+	HashMap affectedChildrenIndex = null;
+	IJavaElementDelta[] indexedAffectedChildren = null;
+	static final int INDEX_THRESHOLD = 16;
+
 	/**
 	 * Empty array of IJavaElementDelta
 	 */
@@ -111,16 +122,20 @@ protected void addAffectedChild(JavaElementDelta child) {
 		return;
 	}
 	JavaElementDelta existingChild = null;
-	int existingChildIndex = -1;
-	for (int i = 0; i < this.affectedChildren.length; i++) {
-		if (equalsAndSameParent(this.affectedChildren[i].getElement(), child.getElement())) { // handle case of two jars that can be equals but not in the same project
-			existingChild = (JavaElementDelta)this.affectedChildren[i];
-			existingChildIndex = i;
-			break;
-		}
+	int existingChildIndex = indexOfAffectedChild(child.getElement());
+	if (existingChildIndex >= 0) {
+		existingChild = (JavaElementDelta)this.affectedChildren[existingChildIndex];
 	}
 	if (existingChild == null) { //new affected child
-		this.affectedChildren= growAndAddToArray(this.affectedChildren, child);
+		IJavaElementDelta[] children = this.affectedChildren;
+		this.affectedChildren= growAndAddToArray(children, child);
+		if (this.indexedAffectedChildren == children) {
+			// keep the index up to date
+			IJavaElement element = child.getElement();
+			if (!this.affectedChildrenIndex.containsKey(element))
+				this.affectedChildrenIndex.put(element, new Integer(children.length));
+			this.indexedAffectedChildren = this.affectedChildren;
+		}
 	} else {
 		switch (existingChild.getKind()) {
 			case ADDED:
@@ -291,6 +306,34 @@ protected JavaElementDelta createDeltaTree(IJavaElement element, JavaElementDelt
 	}
 	return childDelta;
 }
+/*
+ * Returns the index of the affected child delta whose element is equal to the given element
+ * and has the same parent, or -1 if there is none.
+ */
+private int indexOfAffectedChild(IJavaElement element) {
+	IJavaElementDelta[] children = this.affectedChildren;
+	int length = children.length;
+	if (length >= INDEX_THRESHOLD) {
+		if (this.indexedAffectedChildren != children) {
+			this.affectedChildrenIndex = new HashMap(length * 2);
+			for (int i = length - 1; i >= 0; i--) // the first child wins as in the linear search below
+				this.affectedChildrenIndex.put(children[i].getElement(), new Integer(i));
+			this.indexedAffectedChildren = children;
+		}
+		Integer index = (Integer) this.affectedChildrenIndex.get(element);
+		if (index == null)
+			return -1;
+		if (equalsAndSameParent(children[index.intValue()].getElement(), element))
+			return index.intValue();
+		// an equal element in another project (e.g. the same jar): search all children
+	}
+	for (int i = 0; i < length; i++) {
+		if (equalsAndSameParent(children[i].getElement(), element)) { // handle case of two jars that can be equals but not in the same project
+			return i;
+		}
+	}
+	return -1;
+}
 /**
  * Returns whether the two java elements are equals and have the same parent.
  */
@@ -409,6 +452,27 @@ protected JavaElementDelta getDeltaFor(IJavaElement element) {
 	}
 	return null;
 }
+/*
+ * Returns the delta for the given element by following the deltas of its ancestors
+ * as inserted by insertDeltaTree(...), or null if not found this way.
+ * This avoids searching the whole delta tree.
+ */
+private JavaElementDelta getInsertedDeltaFor(IJavaElement element) {
+	if (equalsAndSameParent(getElement(), element))
+		return this;
+	ArrayList ancestors = getAncestors(element);
+	if (ancestors == null)
+		return null;
+	JavaElementDelta delta = this;
+	for (int i = ancestors.size(); i >= 0; i--) {
+		IJavaElement child = i == 0 ? element : (IJavaElement) ancestors.get(i - 1);
+		int index = delta.indexOfAffectedChild(child);
+		if (index < 0)
+			return null;
+		delta = (JavaElementDelta) delta.affectedChildren[index];
+	}
+	return delta;
+}
 /**
  * @see IJavaElementDelta
  */
@@ -504,12 +568,7 @@ public void opened(IJavaElement element) {
 protected void removeAffectedChild(JavaElementDelta child) {
 	int index = -1;
 	if (this.affectedChildren != null) {
-		for (int i = 0; i < this.affectedChildren.length; i++) {
-			if (equalsAndSameParent(this.affectedChildren[i].getElement(), child.getElement())) { // handle case of two jars that can be equals but not in the same project
-				index = i;
-				break;
-			}
-		}
+		index = indexOfAffectedChild(child.getElement());
 	}
 	if (index >= 0) {
 		this.affectedChildren= removeAndShrinkArray(this.affectedChildren, index);
@@ -540,7 +599,9 @@ public void removed(IJavaElement element) {
 public void removed(IJavaElement element, int flags) {
 	JavaElementDelta removedDelta= new JavaElementDelta(element);
 	insertDeltaTree(element, removedDelta);
-	JavaElementDelta actualDelta = getDeltaFor(element);
+	JavaElementDelta actualDelta = getInsertedDeltaFor(element);
+	if (actualDelta == null)
+		actualDelta = getDeltaFor(element);
 	if (actualDelta != null) {
 		actualDelta.removed();
 		actualDelta.changeFlags |= flags;
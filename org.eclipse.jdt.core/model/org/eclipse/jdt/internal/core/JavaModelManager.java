@@ -47,8 +47,11 @@ import org.eclipse.jdt.internal.codeassist.SelectionEngine;
 import org.eclipse.jdt.internal.compiler.AbstractAnnotationProcessorManager;
 import org.eclipse.jdt.internal.compiler.Compiler;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
 import org.eclipse.jdt.internal.compiler.env.AccessRestriction;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.parser.Scanner;
+import org.eclipse.jdt.internal.compiler.util.CharArrayInternTable;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObjectToInt;
 import org.eclipse.jdt.internal.core.JavaProjectElementInfo.ProjectCache;
 import org.eclipse.jdt.internal.core.builder.JavaBuilder;
@@ -222,6 +225,21 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	 * Name of the JVM parameter to specify whether or not referenced JAR should be resolved for container libraries.
 	 */
 	private static final String RESOLVE_REFERENCED_LIBRARIES_FOR_CONTAINERS = "resolveReferencedLibrariesForContainers"; //$NON-NLS-1$
+
+	/**
+	 * Name of the JVM parameter to specify whether or not the identifiers should be shared by all the scanners.
+	 */
+	private static final String SHARED_IDENTIFIERS = "org.eclipse.jdt.core.sharedIdentifiers"; //$NON-NLS-1$
+
+	/**
+	 * Maximum number of identifiers shared by all the scanners
+	 */
+	private static final int SHARED_IDENTIFIERS_CAPACITY = 32768;
+
+	/**
+	 * Maximum number of names shared by the binary types of the opened class files
+	 */
+	private static final int SHARED_BINARY_NAMES_CAPACITY = 16384;
 	
 	/**
 	 * Special value used for recognizing ongoing initialization and breaking initialization cycles
@@ -1075,6 +1093,12 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	 */
 	private JavaModelCache cache;
 
+	/*
+	 * The names shared by the binary types of the opened class files (e.g. selectors, descriptors, signatures),
+	 * or null if the identifiers are not shared
+	 */
+	private CharArrayInternTable binaryNames;
+
 	/*
 	 * Temporary cache of newly opened elements
 	 */
@@ -1437,6 +1461,58 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	 */
 	private Set invalidArchives;
 
+	/*
+	 * Class-Path clauses of the manifests of the jars that chain to other libraries, keyed by the IPath of the jar.
+	 * An entry is only used as long as the jar has the same time stamp and length as when its manifest was read.
+	 */
+	private Map chainedJars = Collections.synchronizedMap(new HashMap());
+
+	/*
+	 * Number of classpath resolutions and time spent in them in ms, only counted when CP_RESOLVE_VERBOSE is on
+	 */
+	private int classpathResolutionCount;
+	private long classpathResolutionTime;
+
+	static class ChainedJarInfo {
+		long timeStamp;
+		long length;
+		List calledFileNames;
+
+		ChainedJarInfo(long timeStamp, long length, List calledFileNames) {
+			this.timeStamp = timeStamp;
+			this.length = length;
+			this.calledFileNames = calledFileNames;
+		}
+	}
+
+	/*
+	 * Root paths computed by the source mappers of the archives whose source attachment is an archive,
+	 * keyed by the IPath of the source archive (see SourceAttachmentInfo).
+	 */
+	private Map sourceAttachments = Collections.synchronizedMap(new HashMap());
+
+	static class SourceAttachmentInfo {
+		IPath rootPath;
+		long rootTimeStamp;
+		long sourceTimeStamp;
+		String initialRootPath;
+		String sourceLevel; // the levels used to validate the package names of the archive
+		String complianceLevel;
+		ArrayList rootPaths;
+		HashMap rootPathsByPackageName;
+
+		SourceAttachmentInfo(IPath rootPath, long rootTimeStamp, long sourceTimeStamp, String initialRootPath, String sourceLevel, String complianceLevel, ArrayList rootPaths, HashMap rootPathsByPackageName) {
+			this.rootPath = rootPath;
+			this.rootTimeStamp = rootTimeStamp;
+			this.sourceTimeStamp = sourceTimeStamp;
+			this.initialRootPath = initialRootPath;
+			this.sourceLevel = sourceLevel;
+			this.complianceLevel = complianceLevel;
+			this.rootPaths = rootPaths;
+			this.rootPathsByPackageName = rootPathsByPackageName;
+		}
+	}
+
 	/**
 	 * Update the classpath variable cache
 	 */
@@ -1589,6 +1665,14 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			this.nonChainingJars.add(path);
 	}
 	
+	public void cacheCalledFileNames(IPath jarPath, long timeStamp, long length, List calledFileNames) {
+		this.chainedJars.put(jarPath, new ChainedJarInfo(timeStamp, length, calledFileNames));
+	}
+
+	void cacheSourceAttachment(IPath sourcePath, SourceAttachmentInfo info) {
+		this.sourceAttachments.put(sourcePath, info);
+	}
+
 	public void addInvalidArchive(IPath path) {
 		// unlikely to be null
 		if (this.invalidArchives == null) {
@@ -2926,6 +3010,20 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			"	container path: " + containerPath); //$NON-NLS-1$
 	}
 
+	/*
+	 * Traces the time spent resolving the classpath of the given project, and in all classpath resolutions so far.
+	 */
+	public synchronized void verbose_classpath_resolution(IJavaProject project, int entryCount, long time) {
+		this.classpathResolutionCount++;
+		this.classpathResolutionTime += time;
+		Util.verbose(
+			"CPResolution: resolved classpath\n" + //$NON-NLS-1$
+			"	project: " + project.getElementName() + '\n' + //$NON-NLS-1$
+			"	resolved entries: " + entryCount + '\n' + //$NON-NLS-1$
+			"	time: " + time + "ms\n" + //$NON-NLS-1$ //$NON-NLS-2$
+			"	all resolutions: " + this.classpathResolutionCount + " in " + this.classpathResolutionTime + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
 	private void verbose_container_value_after_initialization(IJavaProject project, IPath containerPath, IClasspathContainer container) {
 		StringBuffer buffer = new StringBuffer();
 		buffer.append("CPContainer INIT - after resolution\n"); //$NON-NLS-1$
@@ -3075,6 +3173,39 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 				|| JavaCore.COMPILER_PB_UNREACHABLE_CODE.equals(optionName);
 	}
 	
+	public List getCachedCalledFileNames(IPath jarPath, long timeStamp, long length) {
+		ChainedJarInfo info = (ChainedJarInfo) this.chainedJars.get(jarPath);
+		if (info == null || info.timeStamp != timeStamp || info.length != length)
+			return null;
+		return info.calledFileNames;
+	}
+
+	/*
+	 * Returns the root paths cached for the given source archive, or null if none.
+	 * For testing purpose only
+	 */
+	public Object getCachedSourceAttachment(IPath sourcePath) {
+		return this.sourceAttachments.get(sourcePath);
+	}
+
+	/*
+	 * Returns the root paths computed for the given source archive attached to the given archive,
+	 * or null if they were not computed, if one of the archives changed since, or if they were computed
+	 * with other source and compliance levels.
+	 */
+	SourceAttachmentInfo getCachedSourceAttachment(IPath sourcePath, IPath rootPath, long rootTimeStamp, long sourceTimeStamp, String initialRootPath, String sourceLevel, String complianceLevel) {
+		SourceAttachmentInfo info = (SourceAttachmentInfo) this.sourceAttachments.get(sourcePath);
+		if (info == null
+				|| !info.rootPath.equals(rootPath)
+				|| info.rootTimeStamp != rootTimeStamp
+				|| info.sourceTimeStamp != sourceTimeStamp
+				|| !Util.equalOrNull(info.initialRootPath, initialRootPath)
+				|| !Util.equalOrNull(info.sourceLevel, sourceLevel)
+				|| !Util.equalOrNull(info.complianceLevel, complianceLevel))
+			return null;
+		return info;
+	}
+
 	public boolean isNonChainingJar(IPath path) {
 		return this.nonChainingJars != null && this.nonChainingJars.contains(path);
 	}
@@ -3897,8 +4028,11 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	public void resetClasspathListCache() {
 		if (this.nonChainingJars != null) 
 			this.nonChainingJars.clear();
+		this.chainedJars.clear();
+		this.sourceAttachments.clear();
 		if (this.invalidArchives != null) 
 			this.invalidArchives.clear();
+		JavaBuilder.resetLibraryCaches();
 	}
 
 	/*
@@ -4889,6 +5023,15 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		this.optionsCache = cachedValue;
 	}
 
+	/*
+	 * Shares the names of the given fully initialized binary type with the other opened class files.
+	 */
+	public void internBinaryNames(ClassFileReader reader) {
+		CharArrayInternTable names = this.binaryNames;
+		if (names != null)
+			reader.internNames(names);
+	}
+
 	public void startup() throws CoreException {
 		try {
 			configurePluginDebugOptions();
@@ -4896,6 +5039,12 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			// initialize Java model cache
 			this.cache = new JavaModelCache();
 
+			// share the identifiers of the sources scanned during reconcile, indexing, code assist...
+			if (!"false".equalsIgnoreCase(System.getProperty(SHARED_IDENTIFIERS))) { //$NON-NLS-1$
+				Scanner.setSharedIdentifiers(new CharArrayInternTable(SHARED_IDENTIFIERS_CAPACITY));
+				this.binaryNames = new CharArrayInternTable(SHARED_BINARY_NAMES_CAPACITY);
+			}
+
 			// request state folder creation (workaround 19885)
 			JavaCore.getPlugin().getStateLocation();
 
@@ -5009,6 +5158,13 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			this.indexManager.shutdown();
 		}
 
+		// Release the shared identifiers
+		Scanner.setSharedIdentifiers(null);
+		this.binaryNames = null;
+
+		// Release the library contents cached by the builds
+		JavaBuilder.resetLibraryCaches();
+
 		// Stop listening to preferences changes
 		preferences.removePreferenceChangeListener(this.propertyListener);
 		((IEclipsePreferences) this.preferencesLookup[PREF_DEFAULT].parent()).removeNodeChangeListener(this.defaultNodeListener);
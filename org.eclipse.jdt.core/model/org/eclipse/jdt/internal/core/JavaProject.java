@@ -2836,6 +2836,7 @@ public class JavaProject
 			breakpoint(1, this);
 		JavaModelManager manager = JavaModelManager.getJavaModelManager();
 		boolean isClasspathBeingResolved = manager.isClasspathBeingResolved(this);
+		long start = JavaModelManager.CP_RESOLVE_VERBOSE ? System.currentTimeMillis() : 0;
 		try {
 			if (!isClasspathBeingResolved) {
 				manager.setClasspathBeingResolved(this, true);
@@ -2860,6 +2861,8 @@ public class JavaProject
 
 			// store resolved info along with the raw info to ensure consistency
 			perProjectInfo.setResolvedClasspath(result.resolvedClasspath, result.referencedEntries, result.rawReverseMap, result.rootPathToResolvedEntries, usePreviousSession ? PerProjectInfo.NEED_RESOLUTION : result.unresolvedEntryStatus, timeStamp, addClasspathChange);
+			if (JavaModelManager.CP_RESOLVE_VERBOSE)
+				manager.verbose_classpath_resolution(this, result.resolvedClasspath.length, System.currentTimeMillis() - start);
 		} finally {
 			if (!isClasspathBeingResolved) {
 				manager.setClasspathBeingResolved(this, false);
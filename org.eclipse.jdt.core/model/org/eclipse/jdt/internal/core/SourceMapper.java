@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -259,6 +260,12 @@ public class SourceMapper
 	 */
 	private boolean areRootPathsComputed;
 
+	/*
+	 * Root path of each package of the source archive (e.g. "java/util" -> "src"), or null if the source
+	 * attachment is not an archive or if the root paths are not computed yet
+	 */
+	private HashMap rootPathsByPackageName;
+
 	public SourceMapper() {
 		this.areRootPathsComputed = false;
 	}
@@ -458,7 +465,35 @@ public class SourceMapper
 		}
 		IPackageFragmentRoot root = (IPackageFragmentRoot) type.getPackageFragment().getParent();
 		IPath pkgFragmentRootPath = root.getPath();
+		JavaModelManager manager = JavaModelManager.getJavaModelManager();
+		String initialRootPath = this.rootPaths == null || this.rootPaths.isEmpty() ? null : (String) this.rootPaths.get(0);
+		long rootTimeStamp = IResource.NULL_STAMP;
+		long sourceTimeStamp = IResource.NULL_STAMP;
+		String sourceLevel = null;
+		String complianceLevel = null;
+		if (root.isArchive()) {
+			rootTimeStamp = getArchiveTimeStamp(pkgFragmentRootPath);
+			sourceTimeStamp = getArchiveTimeStamp(this.sourcePath);
+			if (rootTimeStamp != IResource.NULL_STAMP && sourceTimeStamp != IResource.NULL_STAMP) {
+				// the first level package names depend on these levels
+				IJavaProject project = root.getJavaProject();
+				sourceLevel = project.getOption(JavaCore.COMPILER_SOURCE, true);
+				complianceLevel = project.getOption(JavaCore.COMPILER_COMPLIANCE, true);
+				JavaModelManager.SourceAttachmentInfo info = manager.getCachedSourceAttachment(this.sourcePath, pkgFragmentRootPath, rootTimeStamp, sourceTimeStamp, initialRootPath, sourceLevel, complianceLevel);
+				if (info != null) {
+					// both archives are unchanged since a previous source mapper computed the root paths
+					this.rootPaths = new ArrayList(info.rootPaths);
+					this.rootPathsByPackageName = info.rootPathsByPackageName;
+					this.areRootPathsComputed = true;
+					if (VERBOSE) {
+						System.out.println("reuse " + this.rootPaths.size() + " root paths computed for " + root.getElementName()); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+					return;
+				}
+			}
+		}
 		final HashSet tempRoots = new HashSet();
+		ArrayList javaFileNames = null;
 		long time = 0;
 		if (VERBOSE) {
 			System.out.println("compute all root paths for " + root.getElementName()); //$NON-NLS-1$
@@ -468,10 +503,7 @@ public class SourceMapper
 		boolean containsADefaultPackage = false;
 		boolean containsJavaSource = !pkgFragmentRootPath.equals(this.sourcePath); // used to optimize zip file reading only if source path and root path are equals, otherwise assume that attachment contains Java source
 
-		String sourceLevel = null;
-		String complianceLevel = null;
 		if (root.isArchive()) {
-			JavaModelManager manager = JavaModelManager.getJavaModelManager();
 			ZipFile zip = null;
 			try {
 				zip = manager.getZipFile(pkgFragmentRootPath);
@@ -546,14 +578,15 @@ public class SourceMapper
 				IContainer folder = (IContainer)target;
 				computeRootPath(folder, firstLevelPackageNames, containsADefaultPackage, tempRoots, folder.getFullPath().segmentCount()/*if external folder, this is the linked folder path*/);
 			} else {
-				JavaModelManager manager = JavaModelManager.getJavaModelManager();
 				ZipFile zip = null;
 				try {
 					zip = manager.getZipFile(this.sourcePath);
+					javaFileNames = new ArrayList(zip.size());
 					for (Enumeration entries = zip.entries(); entries.hasMoreElements(); ) {
 						ZipEntry entry = (ZipEntry) entries.nextElement();
 						String entryName;
 						if (!entry.isDirectory() && org.eclipse.jdt.internal.core.util.Util.isJavaLikeFileName(entryName = entry.getName())) {
+							javaFileNames.add(entryName);
 							IPath path = new Path(entryName);
 							int segmentCount = path.segmentCount();
 							if (segmentCount > 1) {
@@ -604,6 +637,14 @@ public class SourceMapper
 				this.rootPaths.add(path.toString());
 			}
 		}
+		if (javaFileNames != null) {
+			this.rootPathsByPackageName = indexRootPaths(javaFileNames);
+		}
+		if (rootTimeStamp != IResource.NULL_STAMP && sourceTimeStamp != IResource.NULL_STAMP) {
+			manager.cacheSourceAttachment(
+				this.sourcePath,
+				new JavaModelManager.SourceAttachmentInfo(pkgFragmentRootPath, rootTimeStamp, sourceTimeStamp, initialRootPath, sourceLevel, complianceLevel, this.rootPaths, this.rootPathsByPackageName));
+		}
 		this.areRootPathsComputed = true;
 		if (VERBOSE) {
 			System.out.println("Spent " + (System.currentTimeMillis() - time) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -616,6 +657,40 @@ public class SourceMapper
 		}
 	}
 
+	/*
+	 * Returns the modification stamp of the given archive, or IResource.NULL_STAMP if it is not an existing archive.
+	 */
+	private static long getArchiveTimeStamp(IPath path) {
+		Object target = JavaModel.getTarget(path, true);
+		if (target instanceof IFile)
+			return ((IFile) target).getModificationStamp();
+		if (target instanceof File && ((File) target).isFile())
+			return ((File) target).lastModified();
+		return IResource.NULL_STAMP;
+	}
+
+	/*
+	 * Maps the package of each of the given Java-like files of the source archive (e.g. "java/util")
+	 * to the first root path that contains it.
+	 */
+	private HashMap indexRootPaths(ArrayList javaFileNames) {
+		HashMap result = new HashMap();
+		for (Iterator iterator = this.rootPaths.iterator(); iterator.hasNext(); ) {
+			String currentRootPath = (String) iterator.next();
+			String prefix = currentRootPath.length() == 0 || currentRootPath.endsWith("/") ? currentRootPath : currentRootPath + '/'; //$NON-NLS-1$
+			int prefixLength = prefix.length();
+			for (int i = 0, length = javaFileNames.size(); i < length; i++) {
+				String fileName = (String) javaFileNames.get(i);
+				if (!fileName.startsWith(prefix)) continue;
+				int packageEnd = fileName.lastIndexOf('/');
+				String packageName = packageEnd < prefixLength ? "" : fileName.substring(prefixLength, packageEnd); //$NON-NLS-1$
+				if (!result.containsKey(packageName))
+					result.put(packageName, currentRootPath);
+			}
+		}
+		return result;
+	}
+
 	private void computeRootPath(IContainer container, HashSet firstLevelPackageNames, boolean hasDefaultPackage, Set set, int sourcePathSegmentCount) {
 		try {
 			IResource[] resources = container.members();
@@ -1010,10 +1085,25 @@ public class SourceMapper
 	
 			if (source == null) {
 				computeAllRootPaths(type);
-				if (this.rootPaths != null) {
+				String indexedRootPath = null;
+				boolean isIndexed = this.rootPathsByPackageName != null && org.eclipse.jdt.internal.core.util.Util.isJavaLikeFileName(name);
+				if (isIndexed) {
+					// the index of the source archive knows the root path of all its packages
+					int packageEnd = name.lastIndexOf('/');
+					indexedRootPath = (String) this.rootPathsByPackageName.get(packageEnd == -1 ? "" : name.substring(0, packageEnd)); //$NON-NLS-1$
+					if (indexedRootPath != null && !indexedRootPath.equals(this.rootPath)) {
+						source = getSourceForRootPath(indexedRootPath, name);
+						if (source != null) {
+							// remember right root path
+							this.rootPath = indexedRootPath;
+						}
+					}
+				}
+				if (source == null && this.rootPaths != null && (!isIndexed || indexedRootPath != null)) {
+					// the file may still be in another root path than the one of its package
 					loop: for (Iterator iterator = this.rootPaths.iterator(); iterator.hasNext(); ) {
 						String currentRootPath = (String) iterator.next();
-						if (!currentRootPath.equals(this.rootPath)) {
+						if (!currentRootPath.equals(this.rootPath) && !currentRootPath.equals(indexedRootPath)) {
 							source = getSourceForRootPath(currentRootPath, name);
 							if (source != null) {
 								// remember right root path
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -55,9 +55,26 @@ protected boolean compiledAllAtOnce;
 private boolean inCompiler;
 
 protected boolean keepStoringProblemMarkers;
+protected ReusableMarkers reusableMarkers; // existing markers of the source file whose problems or tasks are being stored
 protected SimpleSet filesWithAnnotations = null;
 
-public static int MAX_AT_ONCE = 2000; // best compromise between space used and speed
+public static int MAX_AT_ONCE; // best compromise between space used and speed
+static {
+	// compiling more units at once avoids reloading the bindings of the previous groups from their class files
+	long maxMemory = Runtime.getRuntime().maxMemory();
+	int ratio = (int) (maxMemory / (1024 * 0x100000)); // number of whole GBs
+	switch (ratio) {
+		case 0: // less than 1GB
+			MAX_AT_ONCE = 2000;
+			break;
+		case 1: // from 1GB to less than 2GB
+			MAX_AT_ONCE = 4000;
+			break;
+		default:
+			MAX_AT_ONCE = maxMemory == Long.MAX_VALUE ? 2000 : 6000; // no limit reported
+			break;
+	}
+}
 public final static String[] JAVA_PROBLEM_MARKER_ATTRIBUTE_NAMES = {
 	IMarker.MESSAGE,
 	IMarker.SEVERITY,
@@ -741,8 +758,6 @@ protected void storeProblemsFor(SourceFile sourceFile, CategorizedProblem[] prob
 					}
 				}
 			}
-			IMarker marker = resource.createMarker(markerType);
-
 			String[] attributeNames = JAVA_PROBLEM_MARKER_ATTRIBUTE_NAMES;
 			int standardLength = attributeNames.length;
 			String[] allNames = attributeNames;
@@ -775,7 +790,8 @@ protected void storeProblemsFor(SourceFile sourceFile, CategorizedProblem[] prob
 			if (extraLength > 0)
 				System.arraycopy(problem.getExtraMarkerAttributeValues(), 0, allValues, index, extraLength);
 
-			marker.setAttributes(allNames, allValues);
+			if (this.reusableMarkers == null || !this.reusableMarkers.reuse(resource, markerType, allNames, allValues))
+				resource.createMarker(markerType).setAttributes(allNames, allValues);
 
 			if (!this.keepStoringProblemMarkers) return; // only want the one error recorded on this source file
 		}
@@ -789,7 +805,6 @@ protected void storeTasksFor(SourceFile sourceFile, CategorizedProblem[] tasks)
 	for (int i = 0, l = tasks.length; i < l; i++) {
 		CategorizedProblem task = tasks[i];
 		if (task.getID() == IProblem.Task) {
-			IMarker marker = resource.createMarker(IJavaModelMarker.TASK_MARKER);
 			Integer priority = P_NORMAL;
 			String compilerPriority = task.getArguments()[2];
 			if (JavaCore.COMPILER_TASK_PRIORITY_HIGH.equals(compilerPriority))
@@ -823,7 +838,8 @@ protected void storeTasksFor(SourceFile sourceFile, CategorizedProblem[] tasks)
 			if (extraLength > 0)
 				System.arraycopy(task.getExtraMarkerAttributeValues(), 0, allValues, index, extraLength);
 
-			marker.setAttributes(allNames, allValues);
+			if (this.reusableMarkers == null || !this.reusableMarkers.reuse(resource, IJavaModelMarker.TASK_MARKER, allNames, allValues))
+				resource.createMarker(IJavaModelMarker.TASK_MARKER).setAttributes(allNames, allValues);
 		}
 	}
 }
@@ -859,11 +875,18 @@ protected char[] writeClassFile(ClassFile classFile, SourceFile compilationUnit,
 	return filePath.lastSegment().toCharArray();
 }
 
+/**
+ * Answer a stream over the bytes of the class file which reads its header and contents in turn,
+ * instead of concatenating them into a new array like ClassFile#getBytes() does.
+ */
+protected InputStream classFileContents(ClassFile classFile) {
+	return new SequenceInputStream(
+		new ByteArrayInputStream(classFile.header, 0, classFile.headerOffset),
+		new ByteArrayInputStream(classFile.contents, 0, classFile.contentsOffset));
+}
+
 protected void writeClassFileContents(ClassFile classFile, IFile file, String qualifiedFileName, boolean isTopLevelType, SourceFile compilationUnit) throws CoreException {
-//	InputStream input = new SequenceInputStream(
-//			new ByteArrayInputStream(classFile.header, 0, classFile.headerOffset),
-//			new ByteArrayInputStream(classFile.contents, 0, classFile.contentsOffset));
-	InputStream input = new ByteArrayInputStream(classFile.getBytes());
+	InputStream input = classFileContents(classFile);
 	if (file.exists()) {
 		// Deal with shared output folders... last one wins... no collision cases detected
 		if (JavaBuilder.DEBUG)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,6 +21,7 @@ import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
 import org.eclipse.jdt.internal.compiler.util.SimpleSet;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
+import org.eclipse.jdt.internal.core.util.LRUCache;
 import org.eclipse.jdt.internal.core.util.Util;
 
 import java.io.*;
@@ -43,6 +44,77 @@ static class PackageCacheEntry {
 
 static SimpleLookupTable PackageCache = new SimpleLookupTable();
 
+static class BinaryTypeCacheEntry {
+	long lastModified;
+	long fileSize;
+	ClassFileReader reader;
+
+	BinaryTypeCacheEntry(long lastModified, long fileSize, ClassFileReader reader) {
+		this.lastModified = lastModified;
+		this.fileSize = fileSize;
+		this.reader = reader;
+	}
+}
+
+static final int BINARY_TYPE_CACHE_SIZE = 2000;
+
+static class SharedZipFileEntry {
+	long lastModified;
+	long fileSize;
+	ZipFile zipFile;
+
+	SharedZipFileEntry(long lastModified, long fileSize, ZipFile zipFile) {
+		this.lastModified = lastModified;
+		this.fileSize = fileSize;
+		this.zipFile = zipFile;
+	}
+}
+
+/*
+ * Zip files kept open for all the projects built during a build iteration, keyed by zip file name.
+ * Null outside of a build iteration, see JavaBuilder#buildStarting() and JavaBuilder#buildFinished().
+ */
+static SimpleLookupTable SharedZipFiles = null;
+
+/*
+ * Fully initialized readers of the most recently used class files of all zip files, keyed by
+ * zip file name + '|' + qualified binary file name. A fully initialized reader no longer refers
+ * to the class file bytes and is never modified, so it is shared by all builds.
+ */
+static LRUCache BinaryTypeCache = new LRUCache(BINARY_TYPE_CACHE_SIZE);
+
+/**
+ * Read the given class file from the jar, or answer the reader decoded by a previous build
+ * if the jar has not been modified since.
+ */
+static ClassFileReader readBinaryType(ClasspathJar jar, String qualifiedBinaryFileName) throws ClassFormatException, IOException {
+	String key = jar.zipFilename + '|' + qualifiedBinaryFileName;
+	long lastModified = jar.lastModified();
+	long fileSize = jar.fileSize();
+	synchronized (BinaryTypeCache) {
+		BinaryTypeCacheEntry cacheEntry = (BinaryTypeCacheEntry) BinaryTypeCache.get(key);
+		if (cacheEntry != null && cacheEntry.lastModified == lastModified && cacheEntry.fileSize == fileSize)
+			return cacheEntry.reader;
+	}
+	ClassFileReader reader = ClassFileReader.read(jar.openZipFile(), qualifiedBinaryFileName, true);
+	if (reader != null) {
+		synchronized (BinaryTypeCache) {
+			BinaryTypeCache.put(key, new BinaryTypeCacheEntry(lastModified, fileSize, reader));
+		}
+	}
+	return reader;
+}
+
+/*
+ * Forgets the package names and the binary types read from all zip files.
+ */
+static void resetCaches() {
+	PackageCache = new SimpleLookupTable();
+	synchronized (BinaryTypeCache) {
+		BinaryTypeCache.flush();
+	}
+}
+
 /**
  * Calculate and cache the package list available in the zipFile.
  * @param jar The ClasspathJar to use
@@ -51,14 +123,20 @@ static SimpleLookupTable PackageCache = new SimpleLookupTable();
 static SimpleSet findPackageSet(ClasspathJar jar) {
 	String zipFileName = jar.zipFilename;
 	long lastModified = jar.lastModified();
-	long fileSize = new File(zipFileName).length();
+	long fileSize = jar.fileSize();
 	PackageCacheEntry cacheEntry = (PackageCacheEntry) PackageCache.get(zipFileName);
 	if (cacheEntry != null && cacheEntry.lastModified == lastModified && cacheEntry.fileSize == fileSize)
-		return cacheEntry.packageSet;
+		return cacheEntry.packageSet; // no need to open the zip file
 
 	SimpleSet packageSet = new SimpleSet(41);
 	packageSet.add(""); //$NON-NLS-1$
-	nextEntry : for (Enumeration e = jar.zipFile.entries(); e.hasMoreElements(); ) {
+	ZipFile zipFile;
+	try {
+		zipFile = jar.openZipFile();
+	} catch (IOException e) {
+		return new SimpleSet(); // assume for this build the zipFile is empty
+	}
+	nextEntry : for (Enumeration e = zipFile.entries(); e.hasMoreElements(); ) {
 		String fileName = ((ZipEntry) e.nextElement()).getName();
 
 		// add the package name & all of its parent packages
@@ -81,7 +159,9 @@ String zipFilename; // keep for equals
 IFile resource;
 ZipFile zipFile;
 long lastModified;
+long fileSize = -1;
 boolean closeZipFileAtEnd;
+boolean isSharedZipFile;
 SimpleSet knownPackageNames;
 AccessRuleSet accessRuleSet;
 
@@ -126,6 +206,9 @@ public void cleanup() {
 		} catch(IOException e) { // ignore it
 		}
 		this.zipFile = null;
+	} else if (this.isSharedZipFile) {
+		this.zipFile = null; // closed at the end of the build iteration
+		this.isSharedZipFile = false;
 	}
 	this.knownPackageNames = null;
 }
@@ -145,7 +228,7 @@ public NameEnvironmentAnswer findClass(String binaryFileName, String qualifiedPa
 	if (!isPackage(qualifiedPackageName)) return null; // most common case
 
 	try {
-		ClassFileReader reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		ClassFileReader reader = readBinaryType(this, qualifiedBinaryFileName);
 		if (reader != null) {
 			if (this.accessRuleSet == null)
 				return new NameEnvironmentAnswer(reader, null);
@@ -172,18 +255,79 @@ public boolean isPackage(String qualifiedPackageName) {
 		return this.knownPackageNames.includes(qualifiedPackageName);
 
 	try {
+		this.knownPackageNames = findPackageSet(this);
+	} catch(Exception e) {
+		this.knownPackageNames = new SimpleSet(); // assume for this build the zipFile is empty
+	}
+	return this.knownPackageNames.includes(qualifiedPackageName);
+}
+
+/*
+ * Answer the zip file, opening it the first time one of its entries is needed.
+ * During a build iteration, an external zip file is shared with the other projects referencing it
+ * as long as it is not modified. Zip files of the workspace are not kept open since other builders
+ * may rewrite them.
+ */
+ZipFile openZipFile() throws IOException {
+	if (this.zipFile == null) {
+		if (this.resource == null)
+			this.zipFile = getSharedZipFile(this.zipFilename);
 		if (this.zipFile == null) {
 			if (org.eclipse.jdt.internal.core.JavaModelManager.ZIP_ACCESS_VERBOSE) {
-				System.out.println("(" + Thread.currentThread() + ") [ClasspathJar.isPackage(String)] Creating ZipFile on " + this.zipFilename); //$NON-NLS-1$	//$NON-NLS-2$
+				System.out.println("(" + Thread.currentThread() + ") [ClasspathJar.openZipFile()] Creating ZipFile on " + this.zipFilename); //$NON-NLS-1$	//$NON-NLS-2$
 			}
 			this.zipFile = new ZipFile(this.zipFilename);
 			this.closeZipFileAtEnd = true;
+		} else {
+			this.isSharedZipFile = true;
 		}
-		this.knownPackageNames = findPackageSet(this);
-	} catch(Exception e) {
-		this.knownPackageNames = new SimpleSet(); // assume for this build the zipFile is empty
 	}
-	return this.knownPackageNames.includes(qualifiedPackageName);
+	return this.zipFile;
+}
+
+static synchronized ZipFile getSharedZipFile(String zipFilename) throws IOException {
+	if (SharedZipFiles == null) return null;
+
+	File file = new File(zipFilename);
+	long lastModified = file.lastModified();
+	long fileSize = file.length();
+	SharedZipFileEntry entry = (SharedZipFileEntry) SharedZipFiles.get(zipFilename);
+	if (entry != null)
+		// a zip file modified during the build iteration (e.g. by another builder) is not shared
+		return entry.lastModified == lastModified && entry.fileSize == fileSize ? entry.zipFile : null;
+
+	if (org.eclipse.jdt.internal.core.JavaModelManager.ZIP_ACCESS_VERBOSE) {
+		System.out.println("(" + Thread.currentThread() + ") [ClasspathJar.getSharedZipFile(String)] Creating shared ZipFile on " + zipFilename); //$NON-NLS-1$	//$NON-NLS-2$
+	}
+	ZipFile zipFile = new ZipFile(zipFilename);
+	SharedZipFiles.put(zipFilename, new SharedZipFileEntry(lastModified, fileSize, zipFile));
+	return zipFile;
+}
+
+static synchronized void startSharingZipFiles() {
+	if (SharedZipFiles == null)
+		SharedZipFiles = new SimpleLookupTable();
+}
+
+static synchronized void stopSharingZipFiles() {
+	if (SharedZipFiles == null) return;
+
+	Object[] entries = SharedZipFiles.valueTable;
+	for (int i = 0, l = entries.length; i < l; i++) {
+		if (entries[i] != null) {
+			try {
+				((SharedZipFileEntry) entries[i]).zipFile.close();
+			} catch (IOException e) { // ignore it
+			}
+		}
+	}
+	SharedZipFiles = null;
+}
+
+public long fileSize() {
+	if (this.fileSize == -1)
+		this.fileSize = new File(this.zipFilename).length();
+	return this.fileSize;
 }
 
 public long lastModified() {
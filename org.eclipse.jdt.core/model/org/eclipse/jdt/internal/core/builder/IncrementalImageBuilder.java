@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -743,6 +743,7 @@ protected void processAnnotationResults(CompilationParticipantResult[] results)
 }
 
 protected void removeClassFile(IPath typePath, IContainer outputFolder) throws CoreException {
+	this.newState.removeFingerprint(typePath.toString());
 	if (typePath.lastSegment().indexOf('$') == -1) { // is not a nested type
 		this.newState.removeQualifiedTypeName(typePath.toString());
 		// add dependents even when the type thinks it does not exist to be on the safe side
@@ -805,9 +806,15 @@ protected void updateProblemsFor(SourceFile sourceFile, CompilationResult result
 	CategorizedProblem[] problems = result.getProblems();
 	if (problems == null && markers.length == 0) return;
 
+	// keep the markers which are still accurate, only delete the others once the new problems are stored
+	this.reusableMarkers = new ReusableMarkers(markers);
 	this.notifier.updateProblemCounts(markers, problems);
-	JavaBuilder.removeProblemsFor(sourceFile.resource);
-	storeProblemsFor(sourceFile, problems);
+	try {
+		storeProblemsFor(sourceFile, problems);
+	} finally {
+		this.reusableMarkers.deleteUnusedMarkers();
+		this.reusableMarkers = null;
+	}
 }
 
 protected void updateTasksFor(SourceFile sourceFile, CompilationResult result) throws CoreException {
@@ -815,8 +822,13 @@ protected void updateTasksFor(SourceFile sourceFile, CompilationResult result) t
 	CategorizedProblem[] tasks = result.getTasks();
 	if (tasks == null && markers.length == 0) return;
 
-	JavaBuilder.removeTasksFor(sourceFile.resource);
-	storeTasksFor(sourceFile, tasks);
+	this.reusableMarkers = new ReusableMarkers(markers);
+	try {
+		storeTasksFor(sourceFile, tasks);
+	} finally {
+		this.reusableMarkers.deleteUnusedMarkers();
+		this.reusableMarkers = null;
+	}
 }
 
 /**
@@ -825,14 +837,15 @@ protected void updateTasksFor(SourceFile sourceFile, CompilationResult result) t
 protected void writeClassFileContents(ClassFile classfile, IFile file, String qualifiedFileName, boolean isTopLevelType, SourceFile compilationUnit) throws CoreException {
 	// Before writing out the class file, compare it to the previous file
 	// If structural changes occurred then add dependent source files
-	byte[] bytes = classfile.getBytes();
+	byte[] contentDigest = TypeFingerprint.digest(classfile);
+	TypeFingerprint fingerprint = contentDigest == null ? null : new TypeFingerprint(contentDigest, null);
 	if (file.exists()) {
-		if (writeClassFileCheck(file, qualifiedFileName, bytes) || compilationUnit.updateClassFile) { // see 46093
+		if (writeClassFileCheck(file, qualifiedFileName, classfile, fingerprint) || compilationUnit.updateClassFile) { // see 46093
 			if (JavaBuilder.DEBUG)
 				System.out.println("Writing changed class file " + file.getName());//$NON-NLS-1$
 			if (!file.isDerived())
 				file.setDerived(true, null);
-			file.setContents(new ByteArrayInputStream(bytes), true, false, null);
+			file.setContents(classFileContents(classfile), true, false, null);
 		} else if (JavaBuilder.DEBUG) {
 			System.out.println("Skipped over unchanged class file " + file.getName());//$NON-NLS-1$
 		}
@@ -842,7 +855,7 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 		if (JavaBuilder.DEBUG)
 			System.out.println("Writing new class file " + file.getName());//$NON-NLS-1$
 		try {
-			file.create(new ByteArrayInputStream(bytes), IResource.FORCE | IResource.DERIVED, null);
+			file.create(classFileContents(classfile), IResource.FORCE | IResource.DERIVED, null);
 		} catch (CoreException e) {
 			if (e.getStatus().getCode() == IResourceStatus.CASE_VARIANT_EXISTS) {
 				IStatus status = e.getStatus();
@@ -867,7 +880,7 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 						collision.delete(true, false, null);
 						boolean success = false;
 						try {
-							file.create(new ByteArrayInputStream(bytes), IResource.FORCE | IResource.DERIVED, null);
+							file.create(classFileContents(classfile), IResource.FORCE | IResource.DERIVED, null);
 							success = true;
 						} catch (CoreException ignored) {
 							// ignore the second exception
@@ -881,9 +894,66 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 			throw e; // rethrow
 		}
 	}
+	recordFingerprint(file, qualifiedFileName, classfile, fingerprint);
+}
+
+/*
+ * Remember the fingerprint of the class file just written (or left unchanged), so that the next
+ * incremental build does not have to read it back to detect changes.
+ * The structure digest is only known if the class file was parsed anyway, otherwise it is computed
+ * the first time the class file changes.
+ */
+protected void recordFingerprint(IFile file, String qualifiedFileName, ClassFile classfile, TypeFingerprint fingerprint) {
+	if (fingerprint == null) {
+		this.newState.removeFingerprint(qualifiedFileName);
+		return;
+	}
+	fingerprint.recordStamps(file);
+	this.newState.recordFingerprint(qualifiedFileName, fingerprint);
+}
+
+/*
+ * Answer whether the class file must be written, and add the dependents of the type if its structure changed.
+ * When the fingerprint recorded for the existing class file is known and still valid, the new fingerprint is
+ * compared to it and the existing class file is not read. Otherwise fall back to comparing the bytes.
+ */
+protected boolean writeClassFileCheck(IFile file, String fileName, ClassFile classfile, TypeFingerprint fingerprint) throws CoreException {
+	TypeFingerprint previous = fingerprint == null ? null : this.newState.getFingerprint(fileName);
+	if (previous == null || !previous.isUpToDate(file))
+		return writeClassFileCheck(file, fileName, classfile.getBytes(), fingerprint);
+
+	if (Arrays.equals(fingerprint.contentDigest, previous.contentDigest)) {
+		fingerprint.structureDigest = previous.structureDigest;
+		return false; // bytes are identical so skip them
+	}
+	if (previous.structureDigest == null)
+		return writeClassFileCheck(file, fileName, classfile.getBytes(), fingerprint);
+	try {
+		ClassFileReader reader = new ClassFileReader(classfile.getBytes(), fileName.toCharArray());
+		fingerprint.structureDigest = reader.getStructuralFingerprint();
+		// ignore local types since they're only visible inside a single method
+		if (!(reader.isLocal() || reader.isAnonymous()) && !Arrays.equals(fingerprint.structureDigest, previous.structureDigest)) {
+			if (JavaBuilder.DEBUG)
+				System.out.println("Type has structural changes " + fileName); //$NON-NLS-1$
+			addDependentsOf(new Path(fileName), true);
+			this.newState.wasStructurallyChanged(fileName);
+		}
+	} catch (ClassFormatException e) {
+		addDependentsOf(new Path(fileName), true);
+		this.newState.wasStructurallyChanged(fileName);
+	}
+	return true;
 }
 
 protected boolean writeClassFileCheck(IFile file, String fileName, byte[] newBytes) throws CoreException {
+	return writeClassFileCheck(file, fileName, newBytes, null);
+}
+
+/*
+ * Compare the new bytes to the existing class file. When they differ, the structure digest of the new
+ * class file is recorded in the given fingerprint, if any, from the reader used to detect structural changes.
+ */
+protected boolean writeClassFileCheck(IFile file, String fileName, byte[] newBytes, TypeFingerprint fingerprint) throws CoreException {
 	try {
 		byte[] oldBytes = Util.getResourceContentsAsByteArray(file);
 		notEqual : if (newBytes.length == oldBytes.length) {
@@ -895,8 +965,11 @@ protected boolean writeClassFileCheck(IFile file, String fileName, byte[] newByt
 		if (location == null) return false; // unable to determine location of this class file
 		String filePath = location.getSchemeSpecificPart();
 		ClassFileReader reader = new ClassFileReader(oldBytes, filePath.toCharArray());
+		ClassFileReader newReader = new ClassFileReader(newBytes, filePath.toCharArray());
+		if (fingerprint != null)
+			fingerprint.structureDigest = newReader.getStructuralFingerprint();
 		// ignore local types since they're only visible inside a single method
-		if (!(reader.isLocal() || reader.isAnonymous()) && reader.hasStructuralChanges(newBytes)) {
+		if (!(reader.isLocal() || reader.isAnonymous()) && reader.hasStructuralChanges(newReader, true, true)) {
 			if (JavaBuilder.DEBUG)
 				System.out.println("Type has structural changes " + fileName); //$NON-NLS-1$
 			addDependentsOf(new Path(fileName), true);
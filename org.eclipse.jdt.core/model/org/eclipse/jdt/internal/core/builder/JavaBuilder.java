@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -90,6 +90,8 @@ public static IMarker[] getTasksFor(IResource resource) {
  */
 public static void buildStarting() {
 	// build is about to start
+	// the projects built during this iteration open their common libraries only once
+	ClasspathJar.startSharingZipFiles();
 }
 
 /**
@@ -98,6 +100,15 @@ public static void buildStarting() {
  */
 public static void buildFinished() {
 	BuildNotifier.resetProblemCounters();
+	ClasspathJar.stopSharingZipFiles();
+}
+
+/**
+ * Hook allowing to release the library contents cached by the previous builds,
+ * e.g. when the classpaths are reset or at shutdown.
+ */
+public static void resetLibraryCaches() {
+	ClasspathJar.resetCaches();
 }
 
 public static void removeProblemsFor(IResource resource) {
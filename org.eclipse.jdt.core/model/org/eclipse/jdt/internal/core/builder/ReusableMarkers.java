@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.*;
+import org.eclipse.jdt.core.IJavaModelMarker;
+
+/**
+ * The markers of a source file before its problems or tasks are stored again.
+ * A marker whose attributes are identical to the ones of a new problem is kept instead of
+ * being deleted and recreated, and the markers left unused are deleted all at once.
+ * The markers are indexed by their type, id and position, so that each new problem
+ * is only compared with the markers at the same position.
+ */
+public class ReusableMarkers {
+
+IMarker[] markers;
+String[] types;
+Map[] attributes;
+HashMap indexesByKey; // key of a marker -> ArrayList of the Integer indexes of the unused markers with this key
+int unusedCount;
+
+ReusableMarkers(IMarker[] markers) {
+	int length = markers.length;
+	this.markers = new IMarker[length];
+	this.types = new String[length];
+	this.attributes = new Map[length];
+	this.indexesByKey = new HashMap(length);
+	for (int i = 0; i < length; i++) {
+		IMarker marker = markers[i];
+		this.markers[i] = marker;
+		try {
+			this.types[i] = marker.getType();
+			this.attributes[i] = marker.getAttributes();
+		} catch (CoreException e) {
+			// cannot be reused, will be deleted
+			continue;
+		}
+		if (this.attributes[i] == null) continue;
+		Map markerAttributes = this.attributes[i];
+		String key = key(
+			this.types[i],
+			markerAttributes.get(IJavaModelMarker.ID),
+			markerAttributes.get(IMarker.CHAR_START),
+			markerAttributes.get(IMarker.CHAR_END));
+		ArrayList indexes = (ArrayList) this.indexesByKey.get(key);
+		if (indexes == null)
+			this.indexesByKey.put(key, indexes = new ArrayList(1));
+		indexes.add(new Integer(i));
+	}
+	this.unusedCount = length;
+}
+
+private static String key(String type, Object id, Object charStart, Object charEnd) {
+	return type + '|' + id + '|' + charStart + '|' + charEnd;
+}
+
+private static Object valueOf(String name, String[] attributeNames, Object[] attributeValues) {
+	for (int i = 0, l = attributeNames.length; i < l; i++)
+		if (name.equals(attributeNames[i]))
+			return attributeValues[i];
+	return null;
+}
+
+/*
+ * Answer whether a marker of the given type and with exactly the given attributes existed on the resource.
+ * If so, this marker is kept.
+ */
+boolean reuse(IResource resource, String type, String[] attributeNames, Object[] attributeValues) {
+	if (this.unusedCount == 0) return false;
+
+	String key = key(
+		type,
+		valueOf(IJavaModelMarker.ID, attributeNames, attributeValues),
+		valueOf(IMarker.CHAR_START, attributeNames, attributeValues),
+		valueOf(IMarker.CHAR_END, attributeNames, attributeValues));
+	ArrayList indexes = (ArrayList) this.indexesByKey.get(key);
+	if (indexes == null) return false;
+
+	int attributeCount = 0;
+	for (int i = attributeValues.length; --i >= 0;)
+		if (attributeValues[i] != null) attributeCount++; // null values are not stored
+	next : for (int k = 0, n = indexes.size(); k < n; k++) {
+		int i = ((Integer) indexes.get(k)).intValue();
+		IMarker marker = this.markers[i];
+		Map existingAttributes = this.attributes[i];
+		if (existingAttributes.size() != attributeCount || !resource.equals(marker.getResource()))
+			continue next;
+		for (int j = 0, m = attributeNames.length; j < m; j++) {
+			Object value = attributeValues[j];
+			if (value != null && !value.equals(existingAttributes.get(attributeNames[j])))
+				continue next;
+		}
+		if (!marker.exists()) continue next; // deleted since, e.g. when a classpath problem replaced all problems
+		this.markers[i] = null;
+		indexes.remove(k);
+		this.unusedCount--;
+		return true;
+	}
+	return false;
+}
+
+void deleteUnusedMarkers() throws CoreException {
+	if (this.unusedCount == 0) return;
+
+	IMarker[] unusedMarkers = new IMarker[this.unusedCount];
+	int index = 0;
+	for (int i = 0, l = this.markers.length; i < l; i++)
+		if (this.markers[i] != null)
+			unusedMarkers[index++] = this.markers[i];
+	ResourcesPlugin.getWorkspace().deleteMarkers(unusedMarkers);
+	this.unusedCount = 0;
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -33,6 +33,8 @@ ClasspathLocation[] binaryLocations;
 SimpleLookupTable references;
 // keyed by qualified type name "p1/p2/A", value is the project relative path which defines this type "src1/p1/p2/A.java"
 public SimpleLookupTable typeLocators;
+// keyed by qualified class file name "p1/p2/A$M", value is the TypeFingerprint of the class file last written by an incremental build
+SimpleLookupTable typeFingerprints;
 
 int buildNumber;
 long lastStructuralBuildTime;
@@ -44,7 +46,7 @@ private long previousStructuralBuildTime;
 private StringSet structurallyChangedTypes;
 public static int MaxStructurallyChangedTypes = 100; // keep track of ? structurally changed types, otherwise consider all to be changed
 
-public static final byte VERSION = 0x001B;
+public static final byte VERSION = 0x001D;
 
 static final byte SOURCE_FOLDER = 1;
 static final byte BINARY_FOLDER = 2;
@@ -64,6 +66,7 @@ protected State(JavaBuilder javaBuilder) {
 	this.binaryLocations = javaBuilder.nameEnvironment.binaryLocations;
 	this.references = new SimpleLookupTable(7);
 	this.typeLocators = new SimpleLookupTable(7);
+	this.typeFingerprints = new SimpleLookupTable(7);
 
 	this.buildNumber = 0; // indicates a full build
 	this.lastStructuralBuildTime = computeStructuralBuildTime(javaBuilder.lastState == null ? 0 : javaBuilder.lastState.lastStructuralBuildTime);
@@ -88,6 +91,7 @@ void copyFrom(State lastState) {
 	try {
 		this.references = (SimpleLookupTable) lastState.references.clone();
 		this.typeLocators = (SimpleLookupTable) lastState.typeLocators.clone();
+		this.typeFingerprints = (SimpleLookupTable) lastState.typeFingerprints.clone();
 	} catch (CloneNotSupportedException e) {
 		this.references = new SimpleLookupTable(lastState.references.elementSize);
 		Object[] keyTable = lastState.references.keyTable;
@@ -102,6 +106,13 @@ void copyFrom(State lastState) {
 		for (int i = 0, l = keyTable.length; i < l; i++)
 			if (keyTable[i] != null)
 				this.typeLocators.put(keyTable[i], valueTable[i]);
+
+		this.typeFingerprints = new SimpleLookupTable(lastState.typeFingerprints.elementSize);
+		keyTable = lastState.typeFingerprints.keyTable;
+		valueTable = lastState.typeFingerprints.valueTable;
+		for (int i = 0, l = keyTable.length; i < l; i++)
+			if (keyTable[i] != null)
+				this.typeFingerprints.put(keyTable[i], valueTable[i]);
 	}
 }
 public char[][] getDefinedTypeNamesFor(String typeLocator) {
@@ -111,6 +122,10 @@ public char[][] getDefinedTypeNamesFor(String typeLocator) {
 	return null; // means only one type is defined with the same name as the file... saves space
 }
 
+TypeFingerprint getFingerprint(String qualifiedClassFileName) {
+	return (TypeFingerprint) this.typeFingerprints.get(qualifiedClassFileName);
+}
+
 public SimpleLookupTable getReferences() {
 	return this.references;
 }
@@ -178,6 +193,10 @@ void record(String typeLocator, char[][][] qualifiedRefs, char[][] simpleRefs, c
 	}
 }
 
+void recordFingerprint(String qualifiedClassFileName, TypeFingerprint fingerprint) {
+	this.typeFingerprints.put(qualifiedClassFileName, fingerprint);
+}
+
 void recordLocatorForType(String qualifiedTypeName, String typeLocator) {
 	this.knownPackageNames = null;
 	// in the common case, the qualifiedTypeName is a substring of the typeLocator so share the char[] by using String.substring()
@@ -214,6 +233,10 @@ void removePackage(IResourceDelta sourceDelta) {
 	}
 }
 
+void removeFingerprint(String qualifiedClassFileName) {
+	this.typeFingerprints.removeKey(qualifiedClassFileName);
+}
+
 void removeQualifiedTypeName(String qualifiedTypeNameToRemove) {
 	this.knownPackageNames = null;
 	this.typeLocators.removeKey(qualifiedTypeNameToRemove);
@@ -331,6 +354,22 @@ static State read(IProject project, DataInputStream in) throws IOException {
 		}
 		newState.references.put(typeLocator, collection);
 	}
+
+	newState.typeFingerprints = new SimpleLookupTable(length = in.readInt());
+	for (int i = 0; i < length; i++) {
+		String qualifiedClassFileName = in.readUTF();
+		byte[] contentDigest = new byte[TypeFingerprint.DIGEST_LENGTH];
+		in.readFully(contentDigest);
+		byte[] structureDigest = null;
+		if (in.readBoolean()) {
+			structureDigest = new byte[TypeFingerprint.DIGEST_LENGTH];
+			in.readFully(structureDigest);
+		}
+		TypeFingerprint fingerprint = new TypeFingerprint(contentDigest, structureDigest);
+		fingerprint.modificationStamp = in.readLong();
+		fingerprint.localTimeStamp = in.readLong();
+		newState.typeFingerprints.put(qualifiedClassFileName, fingerprint);
+	}
 	if (JavaBuilder.DEBUG)
 		System.out.println("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
 	return newState;
@@ -652,6 +691,36 @@ void write(DataOutputStream out) throws IOException {
 		if (JavaBuilder.DEBUG && length != 0)
 			System.out.println("references table is inconsistent"); //$NON-NLS-1$
 	}
+
+/*
+ * Type fingerprints table
+ * String		qualified class file name
+ * byte[]		content digest
+ * boolean		whether the structure digest is known
+ * byte[]		structure digest, if known
+ * long		modification stamp
+ * long		local time stamp
+ */
+	out.writeInt(length = this.typeFingerprints.elementSize);
+	if (length > 0) {
+		keyTable = this.typeFingerprints.keyTable;
+		valueTable = this.typeFingerprints.valueTable;
+		for (int i = 0, l = keyTable.length; i < l; i++) {
+			if (keyTable[i] != null) {
+				length--;
+				out.writeUTF((String) keyTable[i]);
+				TypeFingerprint fingerprint = (TypeFingerprint) valueTable[i];
+				out.write(fingerprint.contentDigest);
+				out.writeBoolean(fingerprint.structureDigest != null);
+				if (fingerprint.structureDigest != null)
+					out.write(fingerprint.structureDigest);
+				out.writeLong(fingerprint.modificationStamp);
+				out.writeLong(fingerprint.localTimeStamp);
+			}
+		}
+		if (JavaBuilder.DEBUG && length != 0)
+			System.out.println("typeFingerprints table is inconsistent"); //$NON-NLS-1$
+	}
 }
 
 private void writeName(char[] name, DataOutputStream out) throws IOException {
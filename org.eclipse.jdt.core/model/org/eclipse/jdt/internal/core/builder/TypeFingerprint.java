@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2013 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.jdt.internal.compiler.ClassFile;
+
+/**
+ * Digests of a class file written by the incremental builder, recorded in the State so that the next
+ * incremental build can tell whether a recompiled type changed, and whether it changed structurally,
+ * without reading the previous class file back from the output folder.
+ * The fingerprint is only trusted while the class file it was computed for is left untouched.
+ */
+public class TypeFingerprint {
+
+byte[] contentDigest; // digest of the bytes of the class file
+byte[] structureDigest; // see ClassFileReader#getStructuralFingerprint(), null until the class file was parsed
+long modificationStamp = IResource.NULL_STAMP; // of the class file once written
+long localTimeStamp = IResource.NULL_STAMP;
+
+static final int DIGEST_LENGTH = 16;
+
+TypeFingerprint(byte[] contentDigest, byte[] structureDigest) {
+	this.contentDigest = contentDigest;
+	this.structureDigest = structureDigest;
+}
+
+static byte[] digest(ClassFile classFile) {
+	try {
+		MessageDigest digest = MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+		digest.update(classFile.header, 0, classFile.headerOffset);
+		digest.update(classFile.contents, 0, classFile.contentsOffset);
+		return digest.digest();
+	} catch (NoSuchAlgorithmException e) {
+		return null;
+	}
+}
+
+/*
+ * Answer whether the given class file is still the one the receiver was computed for.
+ */
+boolean isUpToDate(IFile file) {
+	return this.modificationStamp != IResource.NULL_STAMP
+		&& this.modificationStamp == file.getModificationStamp()
+		&& this.localTimeStamp == file.getLocalTimeStamp();
+}
+
+void recordStamps(IFile file) {
+	this.modificationStamp = file.getModificationStamp();
+	this.localTimeStamp = file.getLocalTimeStamp();
+}
+
+public String toString() {
+	return "TypeFingerprint(stamp " + this.modificationStamp + ", " + this.localTimeStamp + ")"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+}
+}
@@ -233,6 +233,8 @@ public SourceElementParser getSourceElementParser(IJavaProject project, ISourceE
 		true, // optimize string literals
 		false); // do not use source javadoc parser to speed up parsing
 	parser.reportOnlyOneSyntaxError = true;
+	// bound the syntax error recovery of each indexed unit, since only its declarations are needed
+	parser.setRecoveryBudget(100);
 
 	// Always check javadoc while indexing
 	parser.javadocParser.checkDocComment = true;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2013 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -520,7 +520,10 @@ protected IJavaElement createHandle(AbstractMethodDeclaration method, IJavaEleme
 IMethod createBinaryMethodHandle(IType type, char[] methodSelector, char[][] argumentTypeNames) {
 	ClassFileReader reader = MatchLocator.classFileReader(type);
 	if (reader != null) {
-		IBinaryMethod[] methods = reader.getMethods();
+		// constructors are named <init> in the class file, decode all methods to find them
+		IBinaryMethod[] methods = CharOperation.equals(methodSelector, type.getElementName().toCharArray())
+			? reader.getMethods()
+			: reader.getMethods(methodSelector);
 		if (methods != null) {
 			int argCount = argumentTypeNames == null ? 0 : argumentTypeNames.length;
 			nextMethod : for (int i = 0, methodsLength = methods.length; i < methodsLength; i++) {